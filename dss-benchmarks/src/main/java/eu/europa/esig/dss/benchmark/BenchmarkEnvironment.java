@@ -0,0 +1,157 @@
+package eu.europa.esig.dss.benchmark;
+
+import eu.europa.esig.dss.alert.ExceptionOnStatusAlert;
+import eu.europa.esig.dss.asic.cades.signature.ASiCWithCAdESService;
+import eu.europa.esig.dss.asic.xades.signature.ASiCWithXAdESService;
+import eu.europa.esig.dss.cades.signature.CAdESService;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.pades.signature.PAdESService;
+import eu.europa.esig.dss.service.crl.OnlineCRLSource;
+import eu.europa.esig.dss.service.http.commons.CommonsDataLoader;
+import eu.europa.esig.dss.service.http.commons.OCSPDataLoader;
+import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
+import eu.europa.esig.dss.spi.x509.CommonTrustedCertificateSource;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+import eu.europa.esig.dss.x509.pki.MockPKI;
+import eu.europa.esig.dss.x509.tsp.MockTSPSource;
+import eu.europa.esig.dss.xades.signature.XAdESService;
+
+/**
+ * Services wired as in the DSSBeanConfig of the web application, with a {@link MockPKI} instead of the network
+ * dependencies and the mock TSA.
+ * 
+ * The certificates point to URLs which are never reached : the data loaders answer in memory from the {@link MockPKI},
+ * so that no socket I/O is measured. The JDBC caches of the revocation data are not used.
+ */
+public class BenchmarkEnvironment {
+
+	private static final String BASE_URL = "http://dss-benchmark.invalid";
+
+	private final MockPKI pki;
+
+	private final CertificateVerifier certificateVerifier;
+
+	private final MockTSPSource tspSource;
+
+	public BenchmarkEnvironment() {
+		pki = new MockPKI(BASE_URL, 0);
+
+		OnlineCRLSource crlSource = new OnlineCRLSource();
+		crlSource.setDataLoader(new InMemoryDataLoader(pki));
+
+		OnlineOCSPSource ocspSource = new OnlineOCSPSource();
+		ocspSource.setDataLoader(new InMemoryOCSPDataLoader(pki));
+
+		CommonTrustedCertificateSource trustedCertificateSource = new CommonTrustedCertificateSource();
+		trustedCertificateSource.addCertificate(pki.getRootCertificate());
+
+		CommonCertificateVerifier commonCertificateVerifier = new CommonCertificateVerifier();
+		commonCertificateVerifier.setCrlSource(crlSource);
+		commonCertificateVerifier.setOcspSource(ocspSource);
+		commonCertificateVerifier.setDataLoader(new InMemoryDataLoader(pki));
+		commonCertificateVerifier.setTrustedCertSources(trustedCertificateSource);
+
+		// Default configs
+		commonCertificateVerifier.setAlertOnMissingRevocationData(new ExceptionOnStatusAlert());
+		commonCertificateVerifier.setCheckRevocationForUntrustedChains(false);
+		certificateVerifier = commonCertificateVerifier;
+
+		tspSource = new MockTSPSource();
+		tspSource.setToken(pki.createToken(MockPKI.TSA_ALIAS));
+		tspSource.setAlias(MockPKI.TSA_ALIAS);
+	}
+
+	public MockPKI getPki() {
+		return pki;
+	}
+
+	public CertificateVerifier getCertificateVerifier() {
+		return certificateVerifier;
+	}
+
+	public MockTSPSource getTspSource() {
+		return tspSource;
+	}
+
+	public CAdESService cadesService() {
+		CAdESService service = new CAdESService(certificateVerifier);
+		service.setTspSource(tspSource);
+		return service;
+	}
+
+	public XAdESService xadesService() {
+		XAdESService service = new XAdESService(certificateVerifier);
+		service.setTspSource(tspSource);
+		return service;
+	}
+
+	public PAdESService padesService() {
+		PAdESService service = new PAdESService(certificateVerifier);
+		service.setTspSource(tspSource);
+		return service;
+	}
+
+	public ASiCWithCAdESService asicWithCadesService() {
+		ASiCWithCAdESService service = new ASiCWithCAdESService(certificateVerifier);
+		service.setTspSource(tspSource);
+		return service;
+	}
+
+	public ASiCWithXAdESService asicWithXadesService() {
+		ASiCWithXAdESService service = new ASiCWithXAdESService(certificateVerifier);
+		service.setTspSource(tspSource);
+		return service;
+	}
+
+	/**
+	 * Serves the CRLs and the CA certificates (AIA) of the {@link MockPKI} without any HTTP exchange
+	 */
+	private static class InMemoryDataLoader extends CommonsDataLoader {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient MockPKI pki;
+
+		InMemoryDataLoader(MockPKI pki) {
+			this.pki = pki;
+		}
+
+		@Override
+		public byte[] get(String url) {
+			byte[] content = null;
+			String path = url.startsWith(pki.getBaseUrl()) ? url.substring(pki.getBaseUrl().length()) : "";
+			if (path.startsWith(MockPKI.CRL_PATH) && path.endsWith(".crl")) {
+				content = pki.getCRL(path.substring(MockPKI.CRL_PATH.length(), path.length() - ".crl".length()));
+			} else if (path.startsWith(MockPKI.CA_CERT_PATH) && path.endsWith(".cer")) {
+				content = pki.getEncodedCACertificate(path.substring(MockPKI.CA_CERT_PATH.length(), path.length() - ".cer".length()));
+			}
+			if (content == null) {
+				throw new DSSException("Unknown local URL : " + url);
+			}
+			return content;
+		}
+
+	}
+
+	/**
+	 * Answers the OCSP requests with the responder of the {@link MockPKI} without any HTTP exchange
+	 */
+	private static class InMemoryOCSPDataLoader extends OCSPDataLoader {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient MockPKI pki;
+
+		InMemoryOCSPDataLoader(MockPKI pki) {
+			this.pki = pki;
+		}
+
+		@Override
+		public byte[] post(String url, byte[] content) {
+			return pki.getOCSPResponse(content);
+		}
+
+	}
+
+}
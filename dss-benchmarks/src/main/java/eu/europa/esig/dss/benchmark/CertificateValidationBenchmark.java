@@ -0,0 +1,69 @@
+package eu.europa.esig.dss.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.validation.CertificateValidator;
+import eu.europa.esig.dss.validation.reports.CertificateReports;
+import eu.europa.esig.dss.x509.pki.MockPKI;
+
+/**
+ * Validation of the signer certificate of the local PKI (the OCSP responses are generated in memory).
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class CertificateValidationBenchmark {
+
+	private BenchmarkEnvironment environment;
+
+	private CertificateToken certificate;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		environment = new BenchmarkEnvironment();
+		try (KeyStoreSignatureTokenConnection token = environment.getPki().createToken(MockPKI.SIGNER_ALIAS)) {
+			certificate = token.getKey(MockPKI.SIGNER_ALIAS).getCertificate();
+		}
+	}
+
+	@Benchmark
+	public CertificateReports validate() {
+		CertificateValidator validator = CertificateValidator.fromCertificate(certificate);
+		validator.setCertificateVerifier(environment.getCertificateVerifier());
+		return validator.validate();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(CertificateValidationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/certificate-validation-benchmark.json")
+				.build();
+		new Runner(options).run();
+	}
+
+}
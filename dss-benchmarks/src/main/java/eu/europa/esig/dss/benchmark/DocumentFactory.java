@@ -0,0 +1,84 @@
+package eu.europa.esig.dss.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentNameDictionary;
+import org.apache.pdfbox.pdmodel.PDEmbeddedFilesNameTreeNode;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.filespecification.PDComplexFileSpecification;
+import org.apache.pdfbox.pdmodel.common.filespecification.PDEmbeddedFile;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.MimeType;
+
+/**
+ * Generates deterministic documents of a given size
+ */
+public final class DocumentFactory {
+
+	private static final long SEED = 42;
+
+	private DocumentFactory() {
+	}
+
+	public static DSSDocument binary(int size) {
+		return new InMemoryDocument(randomBytes(size), "document.bin", MimeType.BINARY);
+	}
+
+	/**
+	 * Creates a one page PDF. The requested size is reached with an embedded file.
+	 * 
+	 * @param size
+	 *            the approximate size of the PDF
+	 * @return the PDF document
+	 */
+	public static DSSDocument pdf(int size) {
+		try (PDDocument pdDocument = new PDDocument(); ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+			PDPage page = new PDPage();
+			pdDocument.addPage(page);
+			try (PDPageContentStream contentStream = new PDPageContentStream(pdDocument, page)) {
+				contentStream.beginText();
+				contentStream.setFont(PDType1Font.HELVETICA, 12);
+				contentStream.newLineAtOffset(100, 700);
+				contentStream.showText("DSS benchmark document");
+				contentStream.endText();
+			}
+
+			int fillerSize = size - 1024;
+			if (fillerSize > 0) {
+				PDEmbeddedFile embeddedFile = new PDEmbeddedFile(pdDocument, new ByteArrayInputStream(randomBytes(fillerSize)));
+				embeddedFile.setSize(fillerSize);
+				PDComplexFileSpecification fileSpecification = new PDComplexFileSpecification();
+				fileSpecification.setFile("filler.bin");
+				fileSpecification.setEmbeddedFile(embeddedFile);
+
+				PDEmbeddedFilesNameTreeNode embeddedFiles = new PDEmbeddedFilesNameTreeNode();
+				embeddedFiles.setNames(Collections.singletonMap("filler.bin", fileSpecification));
+				PDDocumentNameDictionary names = new PDDocumentNameDictionary(pdDocument.getDocumentCatalog());
+				names.setEmbeddedFiles(embeddedFiles);
+				pdDocument.getDocumentCatalog().setNames(names);
+			}
+
+			pdDocument.save(baos);
+			return new InMemoryDocument(baos.toByteArray(), "document.pdf", MimeType.PDF);
+		} catch (IOException e) {
+			throw new DSSException("Unable to generate the PDF", e);
+		}
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(SEED).nextBytes(bytes);
+		return bytes;
+	}
+
+}
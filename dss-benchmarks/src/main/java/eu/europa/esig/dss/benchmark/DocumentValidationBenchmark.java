@@ -0,0 +1,175 @@
+package eu.europa.esig.dss.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import eu.europa.esig.dss.AbstractSignatureParameters;
+import eu.europa.esig.dss.cades.CAdESSignatureParameters;
+import eu.europa.esig.dss.diagnostic.jaxb.XmlDiagnosticData;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.enumerations.SignaturePackaging;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.pades.PAdESSignatureParameters;
+import eu.europa.esig.dss.policy.ValidationPolicy;
+import eu.europa.esig.dss.policy.ValidationPolicyFacade;
+import eu.europa.esig.dss.signature.DocumentSignatureService;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.executor.ValidationLevel;
+import eu.europa.esig.dss.validation.executor.signature.DefaultSignatureProcessExecutor;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.x509.pki.MockPKI;
+import eu.europa.esig.dss.xades.XAdESSignatureParameters;
+
+/**
+ * Validation of a signed document (signed at the LTA level with the local PKI), with the split of the cost :
+ * <ul>
+ * <li>validateDocument : complete validation (diagnostic data building + policy execution)</li>
+ * <li>executePolicy : policy execution only, on the diagnostic data computed at the setup</li>
+ * <li>marshalReports : XML serialization of the diagnostic data and of the reports</li>
+ * </ul>
+ * The diagnostic data building cost is the difference between validateDocument and executePolicy.
+ * 
+ * The sample mode gives the latency percentiles, the allocation per operation is reported by the GC profiler.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class DocumentValidationBenchmark {
+
+	public enum Format {
+		XAdES, CAdES, PAdES
+	}
+
+	@Param
+	private Format format;
+
+	@Param({ "BASIC_SIGNATURES", "LONG_TERM_DATA", "ARCHIVAL_DATA" })
+	private ValidationLevel validationLevel;
+
+	private BenchmarkEnvironment environment;
+
+	private ValidationPolicy validationPolicy;
+
+	private DSSDocument signedDocument;
+
+	private Reports reports;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		environment = new BenchmarkEnvironment();
+		validationPolicy = ValidationPolicyFacade.newFacade().getDefaultValidationPolicy();
+		signedDocument = createSignedDocument();
+		reports = validateDocument();
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private DSSDocument createSignedDocument() {
+		DocumentSignatureService service;
+		AbstractSignatureParameters parameters;
+		DSSDocument document;
+		switch (format) {
+		case XAdES:
+			service = environment.xadesService();
+			parameters = new XAdESSignatureParameters();
+			parameters.setSignaturePackaging(SignaturePackaging.ENVELOPING);
+			parameters.setSignatureLevel(SignatureLevel.XAdES_BASELINE_LTA);
+			document = DocumentFactory.binary(10 * 1024);
+			break;
+		case CAdES:
+			service = environment.cadesService();
+			parameters = new CAdESSignatureParameters();
+			parameters.setSignaturePackaging(SignaturePackaging.ENVELOPING);
+			parameters.setSignatureLevel(SignatureLevel.CAdES_BASELINE_LTA);
+			document = DocumentFactory.binary(10 * 1024);
+			break;
+		case PAdES:
+			service = environment.padesService();
+			parameters = new PAdESSignatureParameters();
+			parameters.setSignaturePackaging(SignaturePackaging.ENVELOPED);
+			parameters.setSignatureLevel(SignatureLevel.PAdES_BASELINE_LTA);
+			document = DocumentFactory.pdf(10 * 1024);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported format " + format);
+		}
+
+		try (KeyStoreSignatureTokenConnection token = environment.getPki().createToken(MockPKI.SIGNER_ALIAS)) {
+			DSSPrivateKeyEntry privateKey = token.getKey(MockPKI.SIGNER_ALIAS);
+			parameters.setDigestAlgorithm(DigestAlgorithm.SHA256);
+			parameters.setSigningCertificate(privateKey.getCertificate());
+			parameters.setCertificateChain(privateKey.getCertificateChain());
+
+			ToBeSigned dataToSign = service.getDataToSign(document, parameters);
+			SignatureValue signatureValue = token.sign(dataToSign, parameters.getDigestAlgorithm(), privateKey);
+			return service.signDocument(document, parameters, signatureValue);
+		}
+	}
+
+	@Benchmark
+	public Reports validateDocument() {
+		SignedDocumentValidator validator = SignedDocumentValidator.fromDocument(signedDocument);
+		validator.setCertificateVerifier(environment.getCertificateVerifier());
+		validator.setValidationLevel(validationLevel);
+		return validator.validateDocument(validationPolicy);
+	}
+
+	@Benchmark
+	public Reports executePolicy() {
+		XmlDiagnosticData diagnosticData = reports.getDiagnosticDataJaxb();
+		DefaultSignatureProcessExecutor executor = new DefaultSignatureProcessExecutor();
+		executor.setDiagnosticData(diagnosticData);
+		executor.setValidationPolicy(validationPolicy);
+		executor.setValidationLevel(validationLevel);
+		executor.setCurrentTime(new Date());
+		return executor.execute();
+	}
+
+	@Benchmark
+	public void marshalReports(Blackhole blackhole) {
+		// a new instance : the XML strings are cached in Reports
+		Reports copy = new Reports(reports.getDiagnosticDataJaxb(), reports.getDetailedReportJaxb(), reports.getSimpleReportJaxb(),
+				reports.getEtsiValidationReportJaxb());
+		blackhole.consume(copy.getXmlDiagnosticData());
+		blackhole.consume(copy.getXmlDetailedReport());
+		blackhole.consume(copy.getXmlSimpleReport());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(DocumentValidationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/document-validation-benchmark.json")
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,185 @@
+package eu.europa.esig.dss.benchmark;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import eu.europa.esig.dss.detailedreport.DetailedReportFacade;
+import eu.europa.esig.dss.detailedreport.DetailedReportXmlDefiner;
+import eu.europa.esig.dss.diagnostic.DiagnosticDataFacade;
+import eu.europa.esig.dss.diagnostic.DiagnosticDataXmlDefiner;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.enumerations.SignaturePackaging;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.simplereport.SimpleReportFacade;
+import eu.europa.esig.dss.simplereport.SimpleReportXmlDefiner;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.x509.pki.MockPKI;
+import eu.europa.esig.dss.xades.XAdESSignatureParameters;
+import eu.europa.esig.dss.xades.signature.XAdESService;
+
+/**
+ * HTML / SVG rendering of the reports of an XAdES-BASELINE-LT signature, as done by the XSLTService of the web
+ * application :
+ * <ul>
+ * <li>facade : a new facade per call (former implementation, the SVG includes the unmarshalling / marshalling)</li>
+ * <li>newTransformer : compiled templates, a new transformer per call</li>
+ * <li>reusedTransformer : compiled templates and a transformer reused by the thread (what the transformer pool gives
+ * once warmed up)</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Threads(4)
+public class ReportRenderingBenchmark {
+
+	public enum Report {
+		SIMPLE, DETAILED, SVG
+	}
+
+	@State(Scope.Benchmark)
+	public static class Input {
+
+		@Param
+		private Report report;
+
+		private String xml;
+
+		private Templates templates;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			Reports reports = validate(new BenchmarkEnvironment());
+			switch (report) {
+			case SIMPLE:
+				xml = reports.getXmlSimpleReport();
+				templates = SimpleReportXmlDefiner.getHtmlBootstrap4Templates();
+				break;
+			case DETAILED:
+				xml = reports.getXmlDetailedReport();
+				templates = DetailedReportXmlDefiner.getHtmlBootstrap4Templates();
+				break;
+			case SVG:
+				xml = reports.getXmlDiagnosticData();
+				templates = DiagnosticDataXmlDefiner.getSvgTemplates();
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported report " + report);
+			}
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadTransformer {
+
+		private Transformer transformer;
+
+		@Setup(Level.Trial)
+		public void setup(Input input) throws Exception {
+			transformer = input.templates.newTransformer();
+		}
+
+	}
+
+	@Benchmark
+	public String facade(Input input) throws Exception {
+		switch (input.report) {
+		case SIMPLE:
+			return SimpleReportFacade.newFacade().generateHtmlReport(input.xml);
+		case DETAILED:
+			return DetailedReportFacade.newFacade().generateHtmlReport(input.xml);
+		case SVG:
+			StringWriter writer = new StringWriter();
+			DiagnosticDataFacade.newFacade().generateSVG(DiagnosticDataFacade.newFacade().unmarshall(input.xml), new StreamResult(writer));
+			return writer.toString();
+		default:
+			throw new IllegalArgumentException("Unsupported report " + input.report);
+		}
+	}
+
+	@Benchmark
+	public String newTransformer(Input input) throws Exception {
+		return transform(input.templates.newTransformer(), input.xml);
+	}
+
+	@Benchmark
+	public String reusedTransformer(Input input, ThreadTransformer threadTransformer) throws Exception {
+		return transform(threadTransformer.transformer, input.xml);
+	}
+
+	private static String transform(Transformer transformer, String xml) throws Exception {
+		StringWriter writer = new StringWriter();
+		transformer.transform(new StreamSource(new StringReader(xml)), new StreamResult(writer));
+		return writer.toString();
+	}
+
+	private static Reports validate(BenchmarkEnvironment environment) {
+		XAdESService service = environment.xadesService();
+		XAdESSignatureParameters parameters = new XAdESSignatureParameters();
+		parameters.setSignaturePackaging(SignaturePackaging.ENVELOPING);
+		parameters.setSignatureLevel(SignatureLevel.XAdES_BASELINE_LT);
+		parameters.setDigestAlgorithm(DigestAlgorithm.SHA256);
+		DSSDocument document = DocumentFactory.binary(1024);
+
+		DSSDocument signedDocument;
+		try (KeyStoreSignatureTokenConnection token = environment.getPki().createToken(MockPKI.SIGNER_ALIAS)) {
+			DSSPrivateKeyEntry privateKey = token.getKey(MockPKI.SIGNER_ALIAS);
+			parameters.setSigningCertificate(privateKey.getCertificate());
+			parameters.setCertificateChain(privateKey.getCertificateChain());
+
+			ToBeSigned dataToSign = service.getDataToSign(document, parameters);
+			SignatureValue signatureValue = token.sign(dataToSign, parameters.getDigestAlgorithm(), privateKey);
+			signedDocument = service.signDocument(document, parameters, signatureValue);
+		}
+
+		SignedDocumentValidator validator = SignedDocumentValidator.fromDocument(signedDocument);
+		validator.setCertificateVerifier(environment.getCertificateVerifier());
+		return validator.validateDocument();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(ReportRenderingBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/report-rendering-benchmark.json")
+				.build();
+		new Runner(options).run();
+	}
+
+}
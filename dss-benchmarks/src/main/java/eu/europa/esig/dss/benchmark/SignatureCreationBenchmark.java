@@ -0,0 +1,191 @@
+package eu.europa.esig.dss.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import eu.europa.esig.dss.AbstractSignatureParameters;
+import eu.europa.esig.dss.asic.cades.ASiCWithCAdESSignatureParameters;
+import eu.europa.esig.dss.asic.xades.ASiCWithXAdESSignatureParameters;
+import eu.europa.esig.dss.cades.CAdESSignatureParameters;
+import eu.europa.esig.dss.enumerations.ASiCContainerType;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.enumerations.SignaturePackaging;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.pades.PAdESSignatureParameters;
+import eu.europa.esig.dss.signature.DocumentSignatureService;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.x509.pki.MockPKI;
+import eu.europa.esig.dss.xades.XAdESSignatureParameters;
+
+/**
+ * Signature creation (getDataToSign + sign + signDocument) for each format, level and document size.
+ * 
+ * The allocation rate per operation is reported by the GC profiler (-prof gc).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+@State(Scope.Benchmark)
+public class SignatureCreationBenchmark {
+
+	public enum Format {
+		XAdES, CAdES, PAdES, ASiC_E_XAdES, ASiC_E_CAdES
+	}
+
+	@Param
+	private Format format;
+
+	@Param({ "B", "T", "LT", "LTA" })
+	private String level;
+
+	/* 1 KB, 1 MB, 10 MB, 100 MB */
+	@Param({ "1024", "1048576", "10485760", "104857600" })
+	private int documentSize;
+
+	private KeyStoreSignatureTokenConnection token;
+
+	private DSSPrivateKeyEntry privateKey;
+
+	@SuppressWarnings("rawtypes")
+	private DocumentSignatureService service;
+
+	@SuppressWarnings("rawtypes")
+	private AbstractSignatureParameters parameters;
+
+	/* the content is shared, the DSSDocument (which memoizes its digests) is created for each invocation */
+	private byte[] documentContent;
+
+	private String documentName;
+
+	private MimeType documentMimeType;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		DSSDocument document;
+		BenchmarkEnvironment environment = new BenchmarkEnvironment();
+		token = environment.getPki().createToken(MockPKI.SIGNER_ALIAS);
+		privateKey = token.getKey(MockPKI.SIGNER_ALIAS);
+
+		switch (format) {
+		case XAdES:
+			service = environment.xadesService();
+			XAdESSignatureParameters xadesParameters = new XAdESSignatureParameters();
+			xadesParameters.setSignaturePackaging(SignaturePackaging.DETACHED);
+			parameters = xadesParameters;
+			document = DocumentFactory.binary(documentSize);
+			break;
+		case CAdES:
+			service = environment.cadesService();
+			CAdESSignatureParameters cadesParameters = new CAdESSignatureParameters();
+			cadesParameters.setSignaturePackaging(SignaturePackaging.ENVELOPING);
+			parameters = cadesParameters;
+			document = DocumentFactory.binary(documentSize);
+			break;
+		case PAdES:
+			service = environment.padesService();
+			PAdESSignatureParameters padesParameters = new PAdESSignatureParameters();
+			padesParameters.setSignaturePackaging(SignaturePackaging.ENVELOPED);
+			parameters = padesParameters;
+			document = DocumentFactory.pdf(documentSize);
+			break;
+		case ASiC_E_XAdES:
+			service = environment.asicWithXadesService();
+			ASiCWithXAdESSignatureParameters asicXadesParameters = new ASiCWithXAdESSignatureParameters();
+			asicXadesParameters.aSiC().setContainerType(ASiCContainerType.ASiC_E);
+			parameters = asicXadesParameters;
+			document = DocumentFactory.binary(documentSize);
+			break;
+		case ASiC_E_CAdES:
+			service = environment.asicWithCadesService();
+			ASiCWithCAdESSignatureParameters asicCadesParameters = new ASiCWithCAdESSignatureParameters();
+			asicCadesParameters.aSiC().setContainerType(ASiCContainerType.ASiC_E);
+			parameters = asicCadesParameters;
+			document = DocumentFactory.binary(documentSize);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported format " + format);
+		}
+
+		documentContent = ((InMemoryDocument) document).getBytes();
+		documentName = document.getName();
+		documentMimeType = document.getMimeType();
+
+		parameters.setSignatureLevel(getSignatureLevel());
+		parameters.setDigestAlgorithm(DigestAlgorithm.SHA256);
+		parameters.setSigningCertificate(privateKey.getCertificate());
+		parameters.setCertificateChain(privateKey.getCertificateChain());
+	}
+
+	private SignatureLevel getSignatureLevel() {
+		String prefix;
+		switch (format) {
+		case XAdES:
+		case ASiC_E_XAdES:
+			prefix = "XAdES";
+			break;
+		case CAdES:
+		case ASiC_E_CAdES:
+			prefix = "CAdES";
+			break;
+		default:
+			prefix = "PAdES";
+			break;
+		}
+		return SignatureLevel.valueOf(prefix + "_BASELINE_" + level);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		token.close();
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public DSSDocument sign() {
+		// the signing date has to be updated for each signature
+		parameters.bLevel().setSigningDate(new Date());
+		DSSDocument document = new InMemoryDocument(documentContent, documentName, documentMimeType);
+		ToBeSigned dataToSign = service.getDataToSign(document, parameters);
+		SignatureValue signatureValue = token.sign(dataToSign, parameters.getDigestAlgorithm(), privateKey);
+		return service.signDocument(document, parameters, signatureValue);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options options = new OptionsBuilder()
+				.include(SignatureCreationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("target/signature-creation-benchmark.json")
+				.build();
+		new Runner(options).run();
+	}
+
+}
@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
@@ -24,6 +26,27 @@ public final class WebAppUtils {
 	private WebAppUtils() {
 	}
 
+	/**
+	 * Checks if the client accepts a gzip encoded response
+	 *
+	 * @param request the HTTP request
+	 * @return true if the Accept-Encoding header allows gzip
+	 */
+	public static boolean isGzipAccepted(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		if (Utils.isStringEmpty(acceptEncoding)) {
+			return false;
+		}
+		for (String encoding : acceptEncoding.split(",")) {
+			String[] parts = encoding.trim().split(";");
+			if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+				// "gzip;q=0" explicitly refuses the encoding
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
 	public static DSSDocument toDSSDocument(MultipartFile multipartFile) {
 		try {
 			if ((multipartFile != null) && !multipartFile.isEmpty()) {
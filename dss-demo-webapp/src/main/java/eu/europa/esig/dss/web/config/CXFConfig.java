@@ -28,6 +28,21 @@ import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
 
 import eu.europa.esig.dss.web.exception.ExceptionRestMapper;
+import eu.europa.esig.dss.web.service.AggregatedTimestampService;
+import eu.europa.esig.dss.web.service.BulkValidationService;
+import eu.europa.esig.dss.web.service.CertificateBatchValidationService;
+import eu.europa.esig.dss.web.service.ValidationJobService;
+import eu.europa.esig.dss.web.token.PooledSignatureTokenConnection;
+import eu.europa.esig.dss.web.ws.RestAggregatedTimestampService;
+import eu.europa.esig.dss.web.ws.RestAggregatedTimestampServiceImpl;
+import eu.europa.esig.dss.web.ws.RestBulkValidationService;
+import eu.europa.esig.dss.web.ws.RestBulkValidationServiceImpl;
+import eu.europa.esig.dss.web.ws.RestCertificateBatchValidationService;
+import eu.europa.esig.dss.web.ws.RestCertificateBatchValidationServiceImpl;
+import eu.europa.esig.dss.web.ws.RestServerSigningPoolService;
+import eu.europa.esig.dss.web.ws.RestServerSigningPoolServiceImpl;
+import eu.europa.esig.dss.web.ws.RestValidationJobService;
+import eu.europa.esig.dss.web.ws.RestValidationJobServiceImpl;
 import eu.europa.esig.dss.ws.cert.validation.common.RemoteCertificateValidationService;
 import eu.europa.esig.dss.ws.cert.validation.rest.RestCertificateValidationServiceImpl;
 import eu.europa.esig.dss.ws.cert.validation.rest.client.RestCertificateValidationService;
@@ -73,9 +88,14 @@ public class CXFConfig {
 	public static final String REST_SIGNATURE_ONE_DOCUMENT = "/rest/signature/one-document";
 	public static final String REST_SIGNATURE_MULTIPLE_DOCUMENTS = "/rest/signature/multiple-documents";
 	public static final String REST_VALIDATION = "/rest/validation";
+	public static final String REST_VALIDATION_JOBS = "/rest/validation-jobs";
+	public static final String REST_BULK_VALIDATION = "/rest/bulk-validation";
 	public static final String REST_CERTIFICATE_VALIDATION = "/rest/certificate-validation";
+	public static final String REST_CERTIFICATE_BATCH_VALIDATION = "/rest/certificate-batch-validation";
 	public static final String REST_SERVER_SIGNING = "/rest/server-signing";
+	public static final String REST_SERVER_SIGNING_POOL = "/rest/server-signing-pool";
 	public static final String REST_TIMESTAMP_SERVICE = "/rest/timestamp-service";
+	public static final String REST_AGGREGATED_TIMESTAMP_SERVICE = "/rest/aggregated-timestamp-service";
 
 	@Value("${cxf.debug:false}")
 	private boolean cxfDebug;
@@ -101,9 +121,24 @@ public class CXFConfig {
 	@Autowired
 	private RemoteSignatureTokenConnection serverToken;
 
+	@Autowired
+	private PooledSignatureTokenConnection remoteToken;
+
 	@Autowired
 	private RemoteTimestampService timestampService;
 
+	@Autowired
+	private AggregatedTimestampService aggregatedTimestampService;
+
+	@Autowired
+	private ValidationJobService validationJobService;
+
+	@Autowired
+	private BulkValidationService bulkValidationService;
+
+	@Autowired
+	private CertificateBatchValidationService certificateBatchValidationService;
+
 	@PostConstruct
 	private void addLoggers() {
 		if (cxfDebug) {
@@ -245,6 +280,20 @@ public class CXFConfig {
 		return service;
 	}
 
+	@Bean
+	public RestValidationJobService restValidationJobService() {
+		RestValidationJobServiceImpl service = new RestValidationJobServiceImpl();
+		service.setValidationJobService(validationJobService);
+		return service;
+	}
+
+	@Bean
+	public RestBulkValidationService restBulkValidationService() {
+		RestBulkValidationServiceImpl service = new RestBulkValidationServiceImpl();
+		service.setValidationService(bulkValidationService);
+		return service;
+	}
+
 	@Bean
 	public RestCertificateValidationService restCertificateValidationService() {
 		RestCertificateValidationServiceImpl service = new RestCertificateValidationServiceImpl();
@@ -252,6 +301,13 @@ public class CXFConfig {
 		return service;
 	}
 
+	@Bean
+	public RestCertificateBatchValidationService restCertificateBatchValidationService() {
+		RestCertificateBatchValidationServiceImpl service = new RestCertificateBatchValidationServiceImpl();
+		service.setValidationService(certificateBatchValidationService);
+		return service;
+	}
+
 	@Bean
 	public RestSignatureTokenConnection restServerSigningService() {
 		RestSignatureTokenConnectionImpl signatureToken = new RestSignatureTokenConnectionImpl();
@@ -259,6 +315,13 @@ public class CXFConfig {
 		return signatureToken;
 	}
 	
+	@Bean
+	public RestServerSigningPoolService restServerSigningPoolService() {
+		RestServerSigningPoolServiceImpl service = new RestServerSigningPoolServiceImpl();
+		service.setToken(remoteToken);
+		return service;
+	}
+
 	@Bean
 	public RestTimestampService restTimestampService() {
 		RestTimestampServiceImpl restTimestampService = new RestTimestampServiceImpl();
@@ -266,6 +329,13 @@ public class CXFConfig {
 		return restTimestampService;
 	}
 
+	@Bean
+	public RestAggregatedTimestampService restAggregatedTimestampService() {
+		RestAggregatedTimestampServiceImpl restAggregatedTimestampService = new RestAggregatedTimestampServiceImpl();
+		restAggregatedTimestampService.setTimestampService(aggregatedTimestampService);
+		return restAggregatedTimestampService;
+	}
+
 	@Bean
 	public Server createServerValidationRestService() {
 		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
@@ -277,6 +347,27 @@ public class CXFConfig {
 		return sfb.create();
 	}
 
+	@Bean
+	public Server createValidationJobsRestService() {
+		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
+		sfb.setServiceBean(restValidationJobService());
+		sfb.setAddress(REST_VALIDATION_JOBS);
+		sfb.setProvider(jacksonJsonProvider());
+		sfb.setProvider(exceptionRestMapper());
+		sfb.setFeatures(Arrays.asList(createOpenApiFeature()));
+		return sfb.create();
+	}
+
+	@Bean
+	public Server createBulkValidationRestService() {
+		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
+		sfb.setServiceBean(restBulkValidationService());
+		sfb.setAddress(REST_BULK_VALIDATION);
+		sfb.setProvider(exceptionRestMapper());
+		sfb.setFeatures(Arrays.asList(createOpenApiFeature()));
+		return sfb.create();
+	}
+
 	@Bean
 	public Server createServerCertificateValidationRestService() {
 		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
@@ -288,6 +379,17 @@ public class CXFConfig {
 		return sfb.create();
 	}
 
+	@Bean
+	public Server createCertificateBatchValidationRestService() {
+		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
+		sfb.setServiceBean(restCertificateBatchValidationService());
+		sfb.setAddress(REST_CERTIFICATE_BATCH_VALIDATION);
+		sfb.setProvider(jacksonJsonProvider());
+		sfb.setProvider(exceptionRestMapper());
+		sfb.setFeatures(Arrays.asList(createOpenApiFeature()));
+		return sfb.create();
+	}
+
 	@Bean
 	public Server createServerSigningRestService() {
 		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
@@ -299,6 +401,17 @@ public class CXFConfig {
 		return sfb.create();
 	}
 
+	@Bean
+	public Server createServerSigningPoolRestService() {
+		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
+		sfb.setServiceBean(restServerSigningPoolService());
+		sfb.setAddress(REST_SERVER_SIGNING_POOL);
+		sfb.setProvider(jacksonJsonProvider());
+		sfb.setProvider(exceptionRestMapper());
+		sfb.setFeatures(Arrays.asList(createOpenApiFeature()));
+		return sfb.create();
+	}
+
 	@Bean
 	public Server createRemoteTimestampRestService() {
 		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
@@ -310,6 +423,17 @@ public class CXFConfig {
 		return sfb.create();
 	}
 
+	@Bean
+	public Server createAggregatedTimestampRestService() {
+		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
+		sfb.setServiceBean(restAggregatedTimestampService());
+		sfb.setAddress(REST_AGGREGATED_TIMESTAMP_SERVICE);
+		sfb.setProvider(jacksonJsonProvider());
+		sfb.setProvider(exceptionRestMapper());
+		sfb.setFeatures(Arrays.asList(createOpenApiFeature()));
+		return sfb.create();
+	}
+
 	@Bean
 	public Server createOneDocumentSignatureRestService() {
 		JAXRSServerFactoryBean sfb = new JAXRSServerFactoryBean();
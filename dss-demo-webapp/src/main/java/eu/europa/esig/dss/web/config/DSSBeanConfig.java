@@ -2,8 +2,11 @@ package eu.europa.esig.dss.web.config;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.KeyStore.PasswordProtection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -20,6 +23,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import eu.europa.esig.dss.alert.ExceptionOnStatusAlert;
 import eu.europa.esig.dss.asic.cades.signature.ASiCWithCAdESService;
@@ -39,14 +46,18 @@ import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
 import eu.europa.esig.dss.spi.client.http.DSSFileLoader;
 import eu.europa.esig.dss.spi.client.http.IgnoreDataLoader;
 import eu.europa.esig.dss.spi.tsl.TrustedListsCertificateSource;
+import eu.europa.esig.dss.spi.x509.CommonTrustedCertificateSource;
 import eu.europa.esig.dss.spi.x509.KeyStoreCertificateSource;
 import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
-import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
 import eu.europa.esig.dss.tsl.function.OfficialJournalSchemeInformationURI;
 import eu.europa.esig.dss.tsl.job.TLValidationJob;
 import eu.europa.esig.dss.tsl.source.LOTLSource;
 import eu.europa.esig.dss.validation.CertificateVerifier;
 import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+import eu.europa.esig.dss.web.service.CachingRemoteDocumentValidationService;
+import eu.europa.esig.dss.web.service.ValidationPolicyCache;
+import eu.europa.esig.dss.web.service.ValidationResultCache;
+import eu.europa.esig.dss.web.token.PooledSignatureTokenConnection;
 import eu.europa.esig.dss.ws.cert.validation.common.RemoteCertificateValidationService;
 import eu.europa.esig.dss.ws.server.signing.common.RemoteSignatureTokenConnection;
 import eu.europa.esig.dss.ws.server.signing.common.RemoteSignatureTokenConnectionImpl;
@@ -95,6 +106,21 @@ public class DSSBeanConfig {
 	@Value("${dss.server.signing.keystore.password}")
 	private String serverSigningKeystorePassword;
 
+	@Value("${additional.trusted.keystore.type}")
+	private String additionalTrustedKeystoreType;
+
+	@Value("${additional.trusted.keystore.filename}")
+	private String additionalTrustedKeystoreFilename;
+
+	@Value("${additional.trusted.keystore.password}")
+	private String additionalTrustedKeystorePassword;
+
+	@Value("${dataloader.connection.timeout}")
+	private int dataLoaderConnectionTimeout;
+
+	@Value("${dataloader.socket.timeout}")
+	private int dataLoaderSocketTimeout;
+
 	@Autowired
 	private TSPSource tspSource;
 
@@ -133,6 +159,8 @@ public class DSSBeanConfig {
 	public CommonsDataLoader dataLoader() {
 		CommonsDataLoader dataLoader = new CommonsDataLoader();
 		dataLoader.setProxyConfig(proxyConfig);
+		dataLoader.setTimeoutConnection(dataLoaderConnectionTimeout);
+		dataLoader.setTimeoutSocket(dataLoaderSocketTimeout);
 		return dataLoader;
 	}
 	
@@ -140,14 +168,31 @@ public class DSSBeanConfig {
     public CommonsDataLoader trustAllDataLoader() {
         CommonsDataLoader dataLoader = new CommonsDataLoader();
 		dataLoader.setProxyConfig(proxyConfig);
+		dataLoader.setTimeoutConnection(dataLoaderConnectionTimeout);
+		dataLoader.setTimeoutSocket(dataLoaderSocketTimeout);
 		dataLoader.setTrustStrategy(TrustAllStrategy.INSTANCE);
         return dataLoader;
     }
 
+	/**
+	 * Posts the finished asynchronous jobs to the callback URLs
+	 */
+	@Bean
+	public CommonsDataLoader callbackDataLoader() {
+		CommonsDataLoader dataLoader = new CommonsDataLoader();
+		dataLoader.setProxyConfig(proxyConfig);
+		dataLoader.setTimeoutConnection(dataLoaderConnectionTimeout);
+		dataLoader.setTimeoutSocket(dataLoaderSocketTimeout);
+		dataLoader.setContentType("application/json");
+		return dataLoader;
+	}
+
 	@Bean
 	public OCSPDataLoader ocspDataLoader() {
 		OCSPDataLoader ocspDataLoader = new OCSPDataLoader();
 		ocspDataLoader.setProxyConfig(proxyConfig);
+		ocspDataLoader.setTimeoutConnection(dataLoaderConnectionTimeout);
+		ocspDataLoader.setTimeoutSocket(dataLoaderSocketTimeout);
 		return ocspDataLoader;
 	}
 
@@ -197,13 +242,31 @@ public class DSSBeanConfig {
 		return new TrustedListsCertificateSource();
 	}
 
+	/**
+	 * Trust anchors added to the trusted lists (eg: the root CA of the mock PKI to test the revocation stack offline).
+	 * Empty if no keystore is configured.
+	 */
+	@Bean
+	public CommonTrustedCertificateSource additionalTrustedCertificateSource() throws IOException {
+		CommonTrustedCertificateSource trustedCertificateSource = new CommonTrustedCertificateSource();
+		if (!additionalTrustedKeystoreFilename.trim().isEmpty()) {
+			Resource resource = new DefaultResourceLoader().getResource(additionalTrustedKeystoreFilename.trim());
+			try (InputStream is = resource.getInputStream()) {
+				trustedCertificateSource.importAsTrusted(new KeyStoreCertificateSource(is, additionalTrustedKeystoreType, additionalTrustedKeystorePassword));
+			}
+			LOG.info("{} additional trusted certificate(s) loaded from {}", trustedCertificateSource.getNumberOfCertificates(),
+					additionalTrustedKeystoreFilename);
+		}
+		return trustedCertificateSource;
+	}
+
 	@Bean
 	public CertificateVerifier certificateVerifier() throws Exception {
 		CommonCertificateVerifier certificateVerifier = new CommonCertificateVerifier();
 		certificateVerifier.setCrlSource(cachedCRLSource());
 		certificateVerifier.setOcspSource(cachedOCSPSource());
 		certificateVerifier.setDataLoader(dataLoader());
-		certificateVerifier.setTrustedCertSources(trustedListSource());
+		certificateVerifier.setTrustedCertSources(trustedListSource(), additionalTrustedCertificateSource());
 
 		// Default configs
 		certificateVerifier.setAlertOnMissingRevocationData(new ExceptionOnStatusAlert());
@@ -273,8 +336,9 @@ public class DSSBeanConfig {
 	}
 
 	@Bean
-	public RemoteDocumentValidationService remoteValidationService() throws Exception {
-		RemoteDocumentValidationService service = new RemoteDocumentValidationService();
+	public RemoteDocumentValidationService remoteValidationService(ValidationResultCache validationResultCache, ValidationPolicyCache validationPolicyCache,
+			ObjectMapper objectMapper) throws Exception {
+		RemoteDocumentValidationService service = new CachingRemoteDocumentValidationService(validationResultCache, validationPolicyCache, objectMapper);
 		service.setVerifier(certificateVerifier());
 		return service;
 	}
@@ -287,9 +351,13 @@ public class DSSBeanConfig {
 	}
 
 	@Bean
-	public KeyStoreSignatureTokenConnection remoteToken() throws IOException {
-		return new KeyStoreSignatureTokenConnection(new ClassPathResource(serverSigningKeystoreFilename).getFile(), serverSigningKeystoreType,
-				new PasswordProtection(serverSigningKeystorePassword.toCharArray()));
+	public PooledSignatureTokenConnection remoteToken() throws IOException {
+		List<File> keystores = new ArrayList<File>();
+		for (String filename : serverSigningKeystoreFilename.split(",")) {
+			// classpath by default, file: prefix for an external keystore
+			keystores.add(new DefaultResourceLoader().getResource(filename.trim()).getFile());
+		}
+		return new PooledSignatureTokenConnection(keystores, serverSigningKeystoreType, new PasswordProtection(serverSigningKeystorePassword.toCharArray()));
 	}
 
 	@Bean
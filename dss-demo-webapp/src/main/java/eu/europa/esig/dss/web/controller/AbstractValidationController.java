@@ -3,6 +3,8 @@ package eu.europa.esig.dss.web.controller;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.servlet.http.HttpSession;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.ui.Model;
 
@@ -13,19 +15,23 @@ import eu.europa.esig.dss.validation.CertificateVerifier;
 import eu.europa.esig.dss.validation.reports.AbstractReports;
 import eu.europa.esig.dss.validation.reports.CertificateReports;
 import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.ReportType;
 import eu.europa.esig.dss.web.model.TokenDTO;
+import eu.europa.esig.dss.web.service.ValidationReportStore;
 import eu.europa.esig.dss.web.service.XSLTService;
-import eu.europa.esig.validationreport.jaxb.ValidationReportType;
 
 public abstract class AbstractValidationController {
 
+	/* Id of the reports in the ValidationReportStore, kept in session until the other views are requested */
+	protected static final String REPORTS_ID_ATTRIBUTE = "reportsId";
+
 	protected static final String SIMPLE_REPORT_ATTRIBUTE = "simpleReport";
 	protected static final String DETAILED_REPORT_ATTRIBUTE = "detailedReport";
 	
-	protected static final String XML_SIMPLE_REPORT_ATTRIBUTE = "simpleReportXml";
-	protected static final String XML_DETAILED_REPORT_ATTRIBUTE = "detailedReportXml";
 	protected static final String XML_DIAGNOSTIC_DATA_ATTRIBUTE = "diagnosticDataXml";
 	protected static final String ETSI_VALIDATION_REPORT_ATTRIBUTE = "etsiValidationReport";
+	protected static final String HAS_ETSI_VALIDATION_REPORT_ATTRIBUTE = "hasEtsiValidationReport";
 	
 	protected static final String ALL_CERTIFICATES_ATTRIBUTE = "allCertificates";
 	protected static final String ALL_REVOCATION_DATA_ATTRIBUTE = "allRevocationData";
@@ -37,29 +43,45 @@ public abstract class AbstractValidationController {
 	@Autowired
 	protected XSLTService xsltService;
 
+	@Autowired
+	protected ValidationReportStore reportStore;
+
+	/**
+	 * Only the simple report (first displayed tab) is rendered here. The detailed report, the diagnostic tree and the
+	 * ETSI validation report are rendered on demand from the stored reports (see the fragment endpoints of
+	 * {@link ValidationController}).
+	 */
 	public void setAttributesModels(Model model, AbstractReports reports) {
+		model.addAttribute(REPORTS_ID_ATTRIBUTE, reportStore.store(reports));
+
 		String xmlSimpleReport = reports.getXmlSimpleReport();
-		model.addAttribute(XML_SIMPLE_REPORT_ATTRIBUTE, xmlSimpleReport);
 		if (reports instanceof CertificateReports) {
 			model.addAttribute(SIMPLE_REPORT_ATTRIBUTE, xsltService.generateSimpleCertificateReport(xmlSimpleReport));
 		} else {
 			model.addAttribute(SIMPLE_REPORT_ATTRIBUTE, xsltService.generateSimpleReport(xmlSimpleReport));
 		}
 
-		String xmlDetailedReport = reports.getXmlDetailedReport();
-		model.addAttribute(XML_DETAILED_REPORT_ATTRIBUTE, xmlDetailedReport);
-		model.addAttribute(DETAILED_REPORT_ATTRIBUTE, xsltService.generateDetailedReport(xmlDetailedReport));
-
-		DiagnosticData diagnosticData = reports.getDiagnosticData();
-		model.addAttribute(XML_DIAGNOSTIC_DATA_ATTRIBUTE, reports.getXmlDiagnosticData());
+		model.addAttribute(HAS_ETSI_VALIDATION_REPORT_ATTRIBUTE,
+				reports instanceof Reports && ((Reports) reports).getEtsiValidationReportJaxb() != null);
+	}
 
-		if (reports instanceof Reports) {
-			Reports sigReports = (Reports) reports;
-			ValidationReportType etsiValidationReportJaxb = sigReports.getEtsiValidationReportJaxb();
-			if (etsiValidationReportJaxb != null) {
-				model.addAttribute(ETSI_VALIDATION_REPORT_ATTRIBUTE, sigReports.getXmlValidationReport());
-			}
+	protected String getReportsId(HttpSession session) {
+		String reportsId = (String) session.getAttribute(REPORTS_ID_ATTRIBUTE);
+		if (reportsId == null) {
+			throw new SourceNotFoundException("No validation result in session");
 		}
+		return reportsId;
+	}
+
+	protected void setDetailedReportModel(Model model, String reportsId) {
+		model.addAttribute(DETAILED_REPORT_ATTRIBUTE,
+				xsltService.generateDetailedReport(reportStore.getXml(reportsId, ReportType.DETAILED_REPORT)));
+	}
+
+	protected void setDiagnosticTreeModel(Model model, String reportsId) {
+		model.addAttribute(XML_DIAGNOSTIC_DATA_ATTRIBUTE, reportStore.getXml(reportsId, ReportType.DIAGNOSTIC_DATA));
+
+		DiagnosticData diagnosticData = reportStore.getDiagnosticData(reportsId).getDiagnosticData();
 
 		// Get Certificates for which binaries are available
 		Set<CertificateWrapper> usedCertificates = new HashSet<CertificateWrapper>(diagnosticData.getUsedCertificates());
@@ -72,6 +94,10 @@ public abstract class AbstractValidationController {
 		model.addAttribute(ALL_TIMESTAMPS_ATTRIBUTE, buildTokenDtos(diagnosticData.getTimestampSet()));
 	}
 
+	protected void setEtsiValidationReportModel(Model model, String reportsId) {
+		model.addAttribute(ETSI_VALIDATION_REPORT_ATTRIBUTE, reportStore.getXml(reportsId, ReportType.ETSI_VALIDATION_REPORT));
+	}
+
 	private Set<TokenDTO> buildTokenDtos(Set<? extends AbstractTokenProxy> abstractTokens) {
 		Set<TokenDTO> tokenDtos = new HashSet<TokenDTO>();
 		for (AbstractTokenProxy token : abstractTokens) {
@@ -34,14 +34,14 @@ import eu.europa.esig.dss.spi.x509.CommonCertificateSource;
 import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.validation.CertificateValidator;
 import eu.europa.esig.dss.validation.CertificateVerifier;
-import eu.europa.esig.dss.validation.CertificateVerifierBuilder;
 import eu.europa.esig.dss.validation.reports.CertificateReports;
 import eu.europa.esig.dss.web.exception.BadRequestException;
 import eu.europa.esig.dss.web.model.CertificateForm;
 import eu.europa.esig.dss.web.model.CertificateValidationForm;
+import eu.europa.esig.dss.web.service.CertificateVerifierOverlay;
 
 @Controller
-@SessionAttributes({ "simpleReportXml", "detailedReportXml", "diagnosticDataXml" })
+@SessionAttributes({ "reportsId" })
 @RequestMapping(value = "/certificate-validation")
 public class CertificateValidationController extends AbstractValidationController {
 
@@ -108,8 +108,7 @@ public class CertificateValidationController extends AbstractValidationControlle
 			// reuse the default one
 			cv = certificateVerifier;
 		} else {
-			cv = new CertificateVerifierBuilder(certificateVerifier).buildCompleteCopy();
-			cv.addAdjunctCertSources(adjunctCertSource);
+			cv = CertificateVerifierOverlay.withAdjunctCertSource(certificateVerifier, adjunctCertSource);
 		}
 
 		CertificateValidator certificateValidator = CertificateValidator.fromCertificate(certificate);
@@ -9,6 +9,7 @@ import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,18 +17,25 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.InitBinder;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import eu.europa.esig.dss.enumerations.ASiCContainerType;
 import eu.europa.esig.dss.enumerations.SignatureForm;
 import eu.europa.esig.dss.enumerations.SignatureLevel;
 import eu.europa.esig.dss.enumerations.SignaturePackaging;
 import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.MimeType;
 import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.web.editor.ASiCContainerTypePropertyEditor;
 import eu.europa.esig.dss.web.editor.EnumPropertyEditor;
+import eu.europa.esig.dss.web.exception.BadRequestException;
+import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.AsyncJob;
 import eu.europa.esig.dss.web.model.ExtensionForm;
+import eu.europa.esig.dss.web.service.ExtensionJobService;
 import eu.europa.esig.dss.web.service.SigningService;
 
 @Controller
@@ -43,6 +51,9 @@ public class ExtensionController {
 	@Autowired
 	private SigningService signingService;
 
+	@Autowired
+	private ExtensionJobService extensionJobService;
+
 	@InitBinder
 	public void initBinder(WebDataBinder webDataBinder) {
 		webDataBinder.registerCustomEditor(ASiCContainerType.class, new ASiCContainerTypePropertyEditor());
@@ -88,6 +99,45 @@ public class ExtensionController {
 		return null;
 	}
 
+	@RequestMapping(value = "/async", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public AsyncJob submitExtension(@ModelAttribute("extensionForm") @Valid ExtensionForm extensionForm, BindingResult result) {
+		if (result.hasErrors()) {
+			throw new BadRequestException("Invalid extension parameters");
+		}
+		return extensionJobService.submit(extensionForm);
+	}
+
+	@RequestMapping(value = "/jobs/{id}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public AsyncJob getExtensionJob(@PathVariable("id") String id) {
+		AsyncJob job = extensionJobService.getJob(id);
+		if (job == null) {
+			throw new SourceNotFoundException("Extension job " + id + " not found");
+		}
+		return job;
+	}
+
+	@RequestMapping(value = "/jobs/{id}/download", method = RequestMethod.GET)
+	public String downloadExtendedFile(@PathVariable("id") String id, HttpServletResponse response) {
+		DSSDocument extendedDocument = extensionJobService.getResult(id);
+		if (extendedDocument == null) {
+			throw new SourceNotFoundException("No result available for the extension job " + id);
+		}
+
+		MimeType mimeType = extendedDocument.getMimeType();
+		if (mimeType != null) {
+			response.setContentType(mimeType.getMimeTypeString());
+		}
+		response.setHeader("Content-Disposition", "attachment; filename=\"" + extendedDocument.getName() + "\"");
+		try {
+			Utils.copy(extendedDocument.openStream(), response.getOutputStream());
+		} catch (Exception e) {
+			LOG.error(e.getMessage(), e);
+		}
+		return null;
+	}
+
 	@ModelAttribute("asicContainerTypes")
 	public ASiCContainerType[] getASiCContainerTypes() {
 		return ASiCContainerType.values();
@@ -28,12 +28,12 @@ import eu.europa.esig.dss.spi.x509.CommonCertificateSource;
 import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.validation.CertificateValidator;
 import eu.europa.esig.dss.validation.CertificateVerifier;
-import eu.europa.esig.dss.validation.CertificateVerifierBuilder;
 import eu.europa.esig.dss.validation.reports.CertificateReports;
 import eu.europa.esig.dss.web.model.QwacValidationForm;
+import eu.europa.esig.dss.web.service.CertificateVerifierOverlay;
 
 @Controller
-@SessionAttributes({ "simpleReportXml", "detailedReportXml", "diagnosticDataXml" })
+@SessionAttributes({ "reportsId" })
 @RequestMapping(value = "/qwac-validation")
 public class QwacValidationController extends AbstractValidationController {
 
@@ -82,13 +82,11 @@ public class QwacValidationController extends AbstractValidationController {
 			List<CertificateToken> certificateChain = certificateReorderer.getOrderedCertificates();
 			CertificateToken qwacCertificate = certificateChain.iterator().next();
 			
-			CertificateVerifier cv = new CertificateVerifierBuilder(certificateVerifier).buildCompleteCopy();
-	        
 	        CommonCertificateSource adjunctCertificateSource = new CommonCertificateSource();
 	        for (CertificateToken certificateToken : certificateChain) {
 	        	adjunctCertificateSource.addCertificate(certificateToken);
 	        }
-	        cv.addAdjunctCertSources(adjunctCertificateSource);
+			CertificateVerifier cv = CertificateVerifierOverlay.withAdjunctCertSource(certificateVerifier, adjunctCertificateSource);
 			
 			CertificateValidator certificateValidator = CertificateValidator.fromCertificate(qwacCertificate);
 			certificateValidator.setCertificateVerifier(cv);
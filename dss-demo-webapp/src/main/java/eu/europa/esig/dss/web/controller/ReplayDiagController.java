@@ -10,6 +10,7 @@ import javax.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -24,8 +25,6 @@ import org.springframework.web.bind.annotation.SessionAttributes;
 import eu.europa.esig.dss.diagnostic.DiagnosticDataFacade;
 import eu.europa.esig.dss.diagnostic.jaxb.XmlCertificate;
 import eu.europa.esig.dss.diagnostic.jaxb.XmlDiagnosticData;
-import eu.europa.esig.dss.policy.EtsiValidationPolicy;
-import eu.europa.esig.dss.policy.ValidationPolicyFacade;
 import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.validation.executor.ProcessExecutor;
 import eu.europa.esig.dss.validation.executor.ValidationLevel;
@@ -35,10 +34,11 @@ import eu.europa.esig.dss.validation.executor.signature.DefaultSignatureProcessE
 import eu.europa.esig.dss.validation.reports.AbstractReports;
 import eu.europa.esig.dss.web.exception.InternalServerException;
 import eu.europa.esig.dss.web.model.ReplayDiagForm;
+import eu.europa.esig.dss.web.service.ValidationPolicyCache;
 
 
 @Controller
-@SessionAttributes({ "simpleReportXml", "detailedReportXml", "diagnosticDataXml" })
+@SessionAttributes({ "reportsId" })
 @RequestMapping(value = "/replay-diagnostic-data")
 public class ReplayDiagController extends AbstractValidationController {
 
@@ -48,6 +48,9 @@ public class ReplayDiagController extends AbstractValidationController {
 	private static final String VALIDATION_RESULT_TILE = "validation-result";
 	
 	private static final String[] ALLOWED_FIELDS = { "diagnosticFile", "resetDate", "validationLevel", "defaultPolicy", "policyFile" };
+
+	@Autowired
+	private ValidationPolicyCache validationPolicyCache;
 	
 	@InitBinder
 	public void setAllowedFields(WebDataBinder webDataBinder) {
@@ -105,19 +108,15 @@ public class ReplayDiagController extends AbstractValidationController {
 		
 		// Set policy
 		if (!replayDiagForm.isDefaultPolicy() && ((replayDiagForm.getPolicyFile() != null) && !replayDiagForm.getPolicyFile().isEmpty())) {
-			try (InputStream policyIs = replayDiagForm.getPolicyFile().getInputStream()) {
-				executor.setValidationPolicy(new EtsiValidationPolicy(ValidationPolicyFacade.newFacade().unmarshall(policyIs)));
+			try {
+				executor.setValidationPolicy(validationPolicyCache.getPolicy(replayDiagForm.getPolicyFile().getBytes()));
 			} catch (Exception e) {
 				LOG.warn("Unable to parse the provided validation policy", e);
 				throw new InternalServerException("Error while loading the provided validation policy");
 			}
 		} else {
-			try {
-				executor.setValidationPolicy(ValidationPolicyFacade.newFacade().getDefaultValidationPolicy());
-			} catch (Exception e) {
-				LOG.warn("Unable to parse the default validation policy", e);
-				throw new InternalServerException("Error while loading the default validation policy");
-			}
+			// parsed once at startup (default.validation.policy, the DSS default policy)
+			executor.setValidationPolicy(validationPolicyCache.getDefaultPolicy());
 		}
 		
 		// If applicable, set certificate id
@@ -153,4 +152,4 @@ public class ReplayDiagController extends AbstractValidationController {
 		return new ValidationLevel[] { ValidationLevel.BASIC_SIGNATURES, ValidationLevel.LONG_TERM_DATA, ValidationLevel.ARCHIVAL_DATA };
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
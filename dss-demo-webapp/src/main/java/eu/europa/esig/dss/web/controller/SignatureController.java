@@ -1,6 +1,5 @@
 package eu.europa.esig.dss.web.controller;
 
-import java.io.ByteArrayInputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -34,11 +33,7 @@ import eu.europa.esig.dss.enumerations.SignatureForm;
 import eu.europa.esig.dss.enumerations.SignatureLevel;
 import eu.europa.esig.dss.enumerations.SignaturePackaging;
 import eu.europa.esig.dss.model.DSSDocument;
-import eu.europa.esig.dss.model.InMemoryDocument;
-import eu.europa.esig.dss.model.MimeType;
 import eu.europa.esig.dss.model.ToBeSigned;
-import eu.europa.esig.dss.spi.DSSUtils;
-import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.web.WebAppUtils;
 import eu.europa.esig.dss.web.editor.ASiCContainerTypePropertyEditor;
 import eu.europa.esig.dss.web.editor.EnumPropertyEditor;
@@ -47,6 +42,8 @@ import eu.europa.esig.dss.web.model.GetDataToSignResponse;
 import eu.europa.esig.dss.web.model.SignDocumentResponse;
 import eu.europa.esig.dss.web.model.SignatureDocumentForm;
 import eu.europa.esig.dss.web.model.SignatureValueAsString;
+import eu.europa.esig.dss.web.model.StoredDocument;
+import eu.europa.esig.dss.web.service.SignedDocumentStore;
 import eu.europa.esig.dss.web.service.SigningService;
 
 @Controller
@@ -74,6 +71,9 @@ public class SignatureController {
 	@Autowired
 	private SigningService signingService;
 
+	@Autowired
+	private SignedDocumentStore signedDocumentStore;
+
 	@InitBinder
 	public void initBinder(WebDataBinder webDataBinder) {
 		webDataBinder.registerCustomEditor(SignatureForm.class, new EnumPropertyEditor(SignatureForm.class));
@@ -150,7 +150,7 @@ public class SignatureController {
 		signatureDocumentForm.setBase64SignatureValue(signatureValue.getSignatureValue());
 
 		DSSDocument document = signingService.signDocument(signatureDocumentForm);
-		InMemoryDocument signedDocument = new InMemoryDocument(DSSUtils.toByteArray(document), document.getName(), document.getMimeType());
+		StoredDocument signedDocument = signedDocumentStore.store(document);
 		model.addAttribute("signedDocument", signedDocument);
 
 		SignDocumentResponse signedDocumentResponse = new SignDocumentResponse();
@@ -159,19 +159,9 @@ public class SignatureController {
 	}
 
 	@RequestMapping(value = "/download", method = RequestMethod.GET)
-	public String downloadSignedFile(@ModelAttribute("signedDocument") InMemoryDocument signedDocument, HttpServletResponse response) {
-		try {
-			MimeType mimeType = signedDocument.getMimeType();
-			if (mimeType != null) {
-				response.setContentType(mimeType.getMimeTypeString());
-			}
-			response.setHeader("Content-Transfer-Encoding", "binary");
-			response.setHeader("Content-Disposition", "attachment; filename=\"" + signedDocument.getName() + "\"");
-			Utils.copy(new ByteArrayInputStream(signedDocument.getBytes()), response.getOutputStream());
-
-		} catch (Exception e) {
-			LOG.error("An error occurred while pushing file in response : " + e.getMessage(), e);
-		}
+	public String downloadSignedFile(@ModelAttribute("signedDocument") StoredDocument signedDocument, HttpServletRequest request,
+			HttpServletResponse response) {
+		signedDocumentStore.download(signedDocument, request, response);
 		return null;
 	}
 
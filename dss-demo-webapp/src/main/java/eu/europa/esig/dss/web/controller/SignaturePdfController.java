@@ -1,6 +1,5 @@
 package eu.europa.esig.dss.web.controller;
 
-import java.io.ByteArrayInputStream;
 import java.util.Date;
 import java.util.List;
 
@@ -32,16 +31,14 @@ import eu.europa.esig.dss.enumerations.SignatureForm;
 import eu.europa.esig.dss.enumerations.SignatureLevel;
 import eu.europa.esig.dss.enumerations.SignaturePackaging;
 import eu.europa.esig.dss.model.DSSDocument;
-import eu.europa.esig.dss.model.InMemoryDocument;
-import eu.europa.esig.dss.model.MimeType;
 import eu.europa.esig.dss.model.ToBeSigned;
-import eu.europa.esig.dss.spi.DSSUtils;
-import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.web.model.DataToSignParams;
 import eu.europa.esig.dss.web.model.GetDataToSignResponse;
 import eu.europa.esig.dss.web.model.SignDocumentResponse;
 import eu.europa.esig.dss.web.model.SignatureDocumentForm;
 import eu.europa.esig.dss.web.model.SignatureValueAsString;
+import eu.europa.esig.dss.web.model.StoredDocument;
+import eu.europa.esig.dss.web.service.SignedDocumentStore;
 import eu.europa.esig.dss.web.service.SigningService;
 
 @Controller
@@ -64,6 +61,9 @@ public class SignaturePdfController {
 
 	@Autowired
 	private SigningService signingService;
+
+	@Autowired
+	private SignedDocumentStore signedDocumentStore;
 	
 	@InitBinder
 	public void setAllowedFields(WebDataBinder webDataBinder) {
@@ -135,7 +135,7 @@ public class SignaturePdfController {
 		signaturePdfForm.setBase64SignatureValue(signatureValue.getSignatureValue());
 
 		DSSDocument document = signingService.signDocument(signaturePdfForm);
-		InMemoryDocument signedPdfDocument = new InMemoryDocument(DSSUtils.toByteArray(document), document.getName(), document.getMimeType());
+		StoredDocument signedPdfDocument = signedDocumentStore.store(document);
 		model.addAttribute("signedPdfDocument", signedPdfDocument);
 
 		SignDocumentResponse signedDocumentResponse = new SignDocumentResponse();
@@ -144,19 +144,9 @@ public class SignaturePdfController {
 	}
 
 	@RequestMapping(value = "/download", method = RequestMethod.GET)
-	public String downloadSignedFile(@ModelAttribute("signedPdfDocument") InMemoryDocument signedDocument, HttpServletResponse response) {
-		try {
-			MimeType mimeType = signedDocument.getMimeType();
-			if (mimeType != null) {
-				response.setContentType(mimeType.getMimeTypeString());
-			}
-			response.setHeader("Content-Transfer-Encoding", "binary");
-			response.setHeader("Content-Disposition", "attachment; filename=\"" + signedDocument.getName() + "\"");
-			Utils.copy(new ByteArrayInputStream(signedDocument.getBytes()), response.getOutputStream());
-
-		} catch (Exception e) {
-			LOG.error("An error occurred while pushing file in response : " + e.getMessage(), e);
-		}
+	public String downloadSignedFile(@ModelAttribute("signedPdfDocument") StoredDocument signedDocument, HttpServletRequest request,
+			HttpServletResponse response) {
+		signedDocumentStore.download(signedDocument, request, response);
 		return null;
 	}
 
@@ -4,7 +4,6 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Locale;
 
@@ -16,7 +15,6 @@ import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -35,17 +33,16 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.SessionAttributes;
 
 import eu.europa.esig.dss.diagnostic.CertificateWrapper;
-import eu.europa.esig.dss.diagnostic.DiagnosticData;
-import eu.europa.esig.dss.diagnostic.DiagnosticDataFacade;
 import eu.europa.esig.dss.diagnostic.RevocationWrapper;
 import eu.europa.esig.dss.diagnostic.TimestampWrapper;
-import eu.europa.esig.dss.diagnostic.jaxb.XmlDiagnosticData;
 import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.enumerations.RevocationType;
 import eu.europa.esig.dss.enumerations.TimestampType;
 import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
 import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
 import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.policy.ValidationPolicy;
 import eu.europa.esig.dss.spi.DSSUtils;
 import eu.europa.esig.dss.utils.Utils;
 import eu.europa.esig.dss.validation.SignedDocumentValidator;
@@ -53,12 +50,20 @@ import eu.europa.esig.dss.validation.executor.ValidationLevel;
 import eu.europa.esig.dss.validation.reports.Reports;
 import eu.europa.esig.dss.web.WebAppUtils;
 import eu.europa.esig.dss.web.editor.EnumPropertyEditor;
+import eu.europa.esig.dss.web.exception.BadRequestException;
+import eu.europa.esig.dss.web.exception.ServiceUnavailableException;
 import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.IndexedDiagnosticData;
+import eu.europa.esig.dss.web.model.OriginalFile;
+import eu.europa.esig.dss.web.model.ReportType;
 import eu.europa.esig.dss.web.model.ValidationForm;
 import eu.europa.esig.dss.web.service.FOPService;
+import eu.europa.esig.dss.web.service.RevocationPrefetchService;
+import eu.europa.esig.dss.web.service.ValidationPolicyCache;
+import eu.europa.esig.dss.web.service.ValidationResultCache;
 
 @Controller
-@SessionAttributes({ "simpleReportXml", "detailedReportXml", "diagnosticDataXml" })
+@SessionAttributes({ "reportsId" })
 @RequestMapping(value = "/validation")
 public class ValidationController extends AbstractValidationController {
 
@@ -66,6 +71,7 @@ public class ValidationController extends AbstractValidationController {
 
 	private static final String VALIDATION_TILE = "validation";
 	private static final String VALIDATION_RESULT_TILE = "validation-result";
+	private static final String VALIDATION_RESULT_FRAGMENTS = "fragment/validation-result-fragments";
 	
 	private static final String[] ALLOWED_FIELDS = { "signedFile", "originalFiles[*].*", "digestToSend", "validationLevel", "defaultPolicy",
 			"policyFile", "includeCertificateTokens", "includeTimestampTokens", "includeRevocationTokens",
@@ -75,7 +81,13 @@ public class ValidationController extends AbstractValidationController {
 	private FOPService fopService;
 
 	@Autowired
-	private Resource defaultPolicy;
+	private ValidationPolicyCache validationPolicyCache;
+
+	@Autowired
+	private RevocationPrefetchService revocationPrefetchService;
+
+	@Autowired
+	private ValidationResultCache validationResultCache;
 
 	@InitBinder
 	public void initBinder(WebDataBinder webDataBinder) {
@@ -110,19 +122,51 @@ public class ValidationController extends AbstractValidationController {
 			return VALIDATION_TILE;
 		}
 
-		SignedDocumentValidator documentValidator = SignedDocumentValidator
-				.fromDocument(WebAppUtils.toDSSDocument(validationForm.getSignedFile()));
-		documentValidator.setCertificateVerifier(certificateVerifier);
-		documentValidator.setTokenExtractionStategy(TokenExtractionStategy.fromParameters(validationForm.isIncludeCertificateTokens(),
-				validationForm.isIncludeTimestampTokens(), validationForm.isIncludeRevocationTokens()));
-		documentValidator.setIncludeSemantics(validationForm.isIncludeSemantics());
-		
 		Locale locale = request.getLocale();
 		LOG.trace("Requested locale : {}", locale);
 		if (locale == null) {
 			locale = Locale.getDefault();
 			LOG.warn("The request locale is null! Use the default one : {}", locale);
 		}
+
+		DSSDocument signedFile = WebAppUtils.toDSSDocument(validationForm.getSignedFile());
+		DSSDocument policyFile = WebAppUtils.toDSSDocument(validationForm.getPolicyFile());
+		boolean customPolicy = !validationForm.isDefaultPolicy() && (policyFile != null);
+
+		ValidationResultCache.Key cacheKey = validationResultCache.newKey("document-validation")
+				.add(signedFile)
+				.add(customPolicy ? policyFile : null)
+				.add(validationForm.getValidationLevel())
+				.add(validationForm.isIncludeCertificateTokens())
+				.add(validationForm.isIncludeTimestampTokens())
+				.add(validationForm.isIncludeRevocationTokens())
+				.add(validationForm.isIncludeSemantics())
+				.add(locale.toString());
+		if (validationForm.getOriginalFiles() != null) {
+			for (OriginalFile originalFile : validationForm.getOriginalFiles()) {
+				if (originalFile.isNotEmpty()) {
+					cacheKey.add(originalFile.getFilename()).add(originalFile.getBase64Complete())
+							.add(originalFile.getDigestAlgorithm()).add(originalFile.getBase64Digest());
+				}
+			}
+		}
+
+		final Locale validationLocale = locale;
+		Reports reports = validationResultCache.get(cacheKey,
+				() -> validateDocument(validationForm, signedFile, customPolicy ? policyFile : null, validationLocale), this::estimateSize);
+
+		// reports.print();
+
+		setAttributesModels(model, reports);
+
+		return VALIDATION_RESULT_TILE;
+	}
+
+	private Reports validateDocument(ValidationForm validationForm, DSSDocument signedFile, DSSDocument policyFile, Locale locale) {
+		SignedDocumentValidator documentValidator = SignedDocumentValidator.fromDocument(signedFile);
+		documentValidator.setTokenExtractionStategy(TokenExtractionStategy.fromParameters(validationForm.isIncludeCertificateTokens(),
+				validationForm.isIncludeTimestampTokens(), validationForm.isIncludeRevocationTokens()));
+		documentValidator.setIncludeSemantics(validationForm.isIncludeSemantics());
 		documentValidator.setLocale(locale);
 
 		List<DSSDocument> originalFiles = WebAppUtils.originalFilesToDSSDocuments(validationForm.getOriginalFiles());
@@ -130,42 +174,64 @@ public class ValidationController extends AbstractValidationController {
 			documentValidator.setDetachedContents(originalFiles);
 		}
 		documentValidator.setValidationLevel(validationForm.getValidationLevel());
+		revocationPrefetchService.setCertificateVerifier(documentValidator);
 
-		Reports reports = null;
+		ValidationPolicy validationPolicy;
+		try {
+			validationPolicy = policyFile != null ? validationPolicyCache.getPolicy(policyFile) : validationPolicyCache.getDefaultPolicy();
+		} catch (DSSException e) {
+			LOG.warn("Unable to parse the provided validation policy", e);
+			throw new BadRequestException("Error while loading the provided validation policy");
+		}
+		Reports reports = documentValidator.validateDocument(validationPolicy);
+		return reports;
+	}
 
-		DSSDocument policyFile = WebAppUtils.toDSSDocument(validationForm.getPolicyFile());
-		if (!validationForm.isDefaultPolicy() && (policyFile != null)) {
-			try (InputStream is = policyFile.openStream()) {
-				reports = documentValidator.validateDocument(is);
-			} catch (IOException e) {
-				LOG.error(e.getMessage(), e);
-			}
-		} else if (defaultPolicy != null) {
-			try (InputStream is = defaultPolicy.getInputStream()) {
-				reports = documentValidator.validateDocument(is);
-			} catch (IOException e) {
-				LOG.error("Unable to parse policy : " + e.getMessage(), e);
-			}
-		} else {
-			LOG.error("Not correctly initialized");
+	/*
+	 * the XML reports, also needed by the report store, are kept by the reports once computed : UTF-16 strings and a
+	 * JAXB graph of the same order
+	 */
+	private long estimateSize(Reports reports) {
+		long length = (long) reports.getXmlSimpleReport().length() + reports.getXmlDetailedReport().length() + reports.getXmlDiagnosticData().length();
+		if (reports.getEtsiValidationReportJaxb() != null) {
+			length += reports.getXmlValidationReport().length();
 		}
+		return 4 * length;
+	}
 
-		// reports.print();
+	@RequestMapping(value = "/fragment/detailed-report", method = RequestMethod.GET)
+	public String detailedReportFragment(HttpSession session, Model model) {
+		String reportsId = getReportsId(session);
+		setDetailedReportModel(model, reportsId);
+		// the PDF export is only available for the detailed report of a signature
+		model.addAttribute("displayDownloadPdf", !reportStore.isCertificateReports(reportsId));
+		return VALIDATION_RESULT_FRAGMENTS + " :: detailed-report";
+	}
 
-		setAttributesModels(model, reports);
+	@RequestMapping(value = "/fragment/diagnostic-tree", method = RequestMethod.GET)
+	public String diagnosticTreeFragment(HttpSession session, Model model) {
+		setDiagnosticTreeModel(model, getReportsId(session));
+		return VALIDATION_RESULT_FRAGMENTS + " :: diagnostic-tree";
+	}
 
-		return VALIDATION_RESULT_TILE;
+	@RequestMapping(value = "/fragment/etsi-validation-report", method = RequestMethod.GET)
+	public String etsiValidationReportFragment(HttpSession session, Model model) {
+		setEtsiValidationReportModel(model, getReportsId(session));
+		return VALIDATION_RESULT_FRAGMENTS + " :: etsi-validation-report";
 	}
 
 	@RequestMapping(value = "/download-simple-report")
 	public void downloadSimpleReport(HttpSession session, HttpServletResponse response) {
 		try {
-			String simpleReport = (String) session.getAttribute(XML_SIMPLE_REPORT_ATTRIBUTE);
+			String reportsId = getReportsId(session);
 
 			response.setContentType(MimeType.PDF.getMimeTypeString());
 			response.setHeader("Content-Disposition", "attachment; filename=DSS-Simple-report.pdf");
 
-			fopService.generateSimpleReport(simpleReport, response.getOutputStream());
+			fopService.generateSimpleReport(reportsId, () -> reportStore.openStream(reportsId, ReportType.SIMPLE_REPORT),
+					response.getOutputStream());
+		} catch (ServiceUnavailableException | SourceNotFoundException e) {
+			throw e;
 		} catch (Exception e) {
 			LOG.error("An error occurred while generating pdf for simple report : " + e.getMessage(), e);
 		}
@@ -174,25 +240,36 @@ public class ValidationController extends AbstractValidationController {
 	@RequestMapping(value = "/download-detailed-report")
 	public void downloadDetailedReport(HttpSession session, HttpServletResponse response) {
 		try {
-			String detailedReport = (String) session.getAttribute(XML_DETAILED_REPORT_ATTRIBUTE);
+			String reportsId = getReportsId(session);
 
 			response.setContentType(MimeType.PDF.getMimeTypeString());
 			response.setHeader("Content-Disposition", "attachment; filename=DSS-Detailed-report.pdf");
 
-			fopService.generateDetailedReport(detailedReport, response.getOutputStream());
+			fopService.generateDetailedReport(reportsId, () -> reportStore.openStream(reportsId, ReportType.DETAILED_REPORT),
+					response.getOutputStream());
+		} catch (ServiceUnavailableException | SourceNotFoundException e) {
+			throw e;
 		} catch (Exception e) {
 			LOG.error("An error occurred while generating pdf for detailed report : " + e.getMessage(), e);
 		}
 	}
 
 	@RequestMapping(value = "/download-diagnostic-data")
-	public void downloadDiagnosticData(HttpSession session, HttpServletResponse response) {
-		String report = (String) session.getAttribute(XML_DIAGNOSTIC_DATA_ATTRIBUTE);
-
-		response.setContentType(MimeType.XML.getMimeTypeString());
-		response.setHeader("Content-Disposition", "attachment; filename=DSS-Diagnotic-data.xml");
-		try {
-			Utils.write(report.getBytes(StandardCharsets.UTF_8), response.getOutputStream());
+	public void downloadDiagnosticData(HttpSession session, HttpServletRequest request, HttpServletResponse response) {
+		String reportsId = getReportsId(session);
+
+		// the report is stored compressed : it is sent as is to the clients which accept gzip
+		boolean gzip = WebAppUtils.isGzipAccepted(request);
+		// opened before setting the headers : an error response must not be declared as gzip
+		try (InputStream is = gzip ? reportStore.openCompressedStream(reportsId, ReportType.DIAGNOSTIC_DATA)
+				: reportStore.openStream(reportsId, ReportType.DIAGNOSTIC_DATA)) {
+			response.setContentType(MimeType.XML.getMimeTypeString());
+			response.setHeader("Content-Disposition", "attachment; filename=DSS-Diagnotic-data.xml");
+			response.setHeader("Vary", "Accept-Encoding");
+			if (gzip) {
+				response.setHeader("Content-Encoding", "gzip");
+			}
+			Utils.copy(is, response.getOutputStream());
 		} catch (IOException e) {
 			LOG.error("An error occured while outputing diagnostic data : " + e.getMessage(), e);
 		}
@@ -200,19 +277,27 @@ public class ValidationController extends AbstractValidationController {
 	
     @RequestMapping(value = "/diag-data.svg")
     public @ResponseBody ResponseEntity<String> downloadSVG(HttpSession session, HttpServletResponse response) {
-        String report = (String) session.getAttribute(XML_DIAGNOSTIC_DATA_ATTRIBUTE);
+        String reportsId = getReportsId(session);
+        // the SVG is generated on first display, then kept with the reports
+        String svg = reportStore.getXml(reportsId, ReportType.DIAGNOSTIC_DATA_SVG);
+        if (svg == null) {
+            svg = xsltService.generateSVG(reportStore.getXml(reportsId, ReportType.DIAGNOSTIC_DATA));
+            if (svg != null) {
+                reportStore.add(reportsId, ReportType.DIAGNOSTIC_DATA_SVG, svg);
+            }
+        }
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.valueOf(MimeType.SVG.getMimeTypeString()));
-        ResponseEntity<String> svgEntity = new ResponseEntity<String>(xsltService.generateSVG(report), headers,
+        ResponseEntity<String> svgEntity = new ResponseEntity<String>(svg, headers,
                 HttpStatus.OK);
         return svgEntity;
     }
 
 	@RequestMapping(value = "/download-certificate")
 	public void downloadCertificate(@RequestParam(value = "id") String id, HttpSession session, HttpServletResponse response) {
-		DiagnosticData diagnosticData = getDiagnosticData(session);
-        CertificateWrapper certificate = diagnosticData.getUsedCertificateById(id);
+		IndexedDiagnosticData diagnosticData = getDiagnosticData(session);
+        CertificateWrapper certificate = diagnosticData.getCertificate(id);
         if (certificate == null) {
             String message = "Certificate " + id + " not found";
             LOG.warn(message);
@@ -227,8 +312,8 @@ public class ValidationController extends AbstractValidationController {
 	@RequestMapping(value = "/download-revocation")
 	public void downloadRevocationData(@RequestParam(value = "id") String id, @RequestParam(value = "format") String format, HttpSession session,
 			HttpServletResponse response) {
-		DiagnosticData diagnosticData = getDiagnosticData(session);
-        RevocationWrapper revocationData = diagnosticData.getRevocationById(id);
+		IndexedDiagnosticData diagnosticData = getDiagnosticData(session);
+        RevocationWrapper revocationData = diagnosticData.getRevocationData(id);
         if (revocationData == null) {
             String message = "Revocation data " + id + " not found";
             LOG.warn(message);
@@ -262,8 +347,8 @@ public class ValidationController extends AbstractValidationController {
 	@RequestMapping(value = "/download-timestamp")
 	public void downloadTimestamp(@RequestParam(value = "id") String id, @RequestParam(value = "format") String format, HttpSession session,
 			HttpServletResponse response) {
-		DiagnosticData diagnosticData = getDiagnosticData(session);
-        TimestampWrapper timestamp = diagnosticData.getTimestampById(id);
+		IndexedDiagnosticData diagnosticData = getDiagnosticData(session);
+        TimestampWrapper timestamp = diagnosticData.getTimestamp(id);
         if (timestamp == null) {
             String message = "Timestamp " + id + " not found";
             LOG.warn(message);
@@ -285,15 +370,8 @@ public class ValidationController extends AbstractValidationController {
         addTokenToResponse(response, filename, MimeType.TST, binaries);
 	}
 
-	public DiagnosticData getDiagnosticData(HttpSession session) {
-		String diagnosticDataXml = (String) session.getAttribute(XML_DIAGNOSTIC_DATA_ATTRIBUTE);
-		try {
-			XmlDiagnosticData xmlDiagData = DiagnosticDataFacade.newFacade().unmarshall(diagnosticDataXml);
-			return new DiagnosticData(xmlDiagData);
-		} catch (Exception e) {
-			LOG.error("An error occured while generating DiagnosticData from XML : " + e.getMessage(), e);
-		}
-		return null;
+	public IndexedDiagnosticData getDiagnosticData(HttpSession session) {
+		return reportStore.getDiagnosticData(getReportsId(session));
 	}
     
     protected void addTokenToResponse(HttpServletResponse response, String filename, MimeType mimeType, byte[] binaries) {
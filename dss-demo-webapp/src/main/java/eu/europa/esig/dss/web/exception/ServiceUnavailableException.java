@@ -0,0 +1,15 @@
+package eu.europa.esig.dss.web.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = -1409519327815284427L;
+
+	public ServiceUnavailableException(String message) {
+		super(message);
+	}
+
+}
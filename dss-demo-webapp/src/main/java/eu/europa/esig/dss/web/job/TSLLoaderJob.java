@@ -8,6 +8,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import eu.europa.esig.dss.tsl.job.TLValidationJob;
+import eu.europa.esig.dss.web.service.ValidationResultCache;
 
 @Service
 public class TSLLoaderJob {
@@ -18,15 +19,21 @@ public class TSLLoaderJob {
 	@Autowired
 	private TLValidationJob job;
 
+	@Autowired
+	private ValidationResultCache validationResultCache;
+
 	@PostConstruct
 	public void init() {
 		job.offlineRefresh();
+		validationResultCache.onTrustedListsRefresh();
 	}
 
 	@Scheduled(initialDelayString = "${cron.initial.delay.tl.loader}", fixedDelayString = "${cron.delay.tl.loader}")
 	public void refresh() {
 		if (enable) {
 			job.onlineRefresh();
+			// cached validation results are obsolete if the trust data changed
+			validationResultCache.onTrustedListsRefresh();
 		}
 	}
 
@@ -0,0 +1,65 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+
+/**
+ * Timestamp obtained on the root of a Merkle tree, with the inclusion proof of the requested digest.
+ * 
+ * The tree nodes are computed in the evidence record style (RFC 4998) : the hash of the binary sorted concatenation of
+ * the children. The root is obtained by hashing successively the digest with each hash of the proof.
+ */
+public class AggregatedTimestamp {
+
+	private DigestAlgorithm digestAlgorithm;
+
+	private byte[] digest;
+
+	private List<byte[]> proof;
+
+	private byte[] root;
+
+	private byte[] timestampBinaries;
+
+	public DigestAlgorithm getDigestAlgorithm() {
+		return digestAlgorithm;
+	}
+
+	public void setDigestAlgorithm(DigestAlgorithm digestAlgorithm) {
+		this.digestAlgorithm = digestAlgorithm;
+	}
+
+	public byte[] getDigest() {
+		return digest;
+	}
+
+	public void setDigest(byte[] digest) {
+		this.digest = digest;
+	}
+
+	public List<byte[]> getProof() {
+		return proof;
+	}
+
+	public void setProof(List<byte[]> proof) {
+		this.proof = proof;
+	}
+
+	public byte[] getRoot() {
+		return root;
+	}
+
+	public void setRoot(byte[] root) {
+		this.root = root;
+	}
+
+	public byte[] getTimestampBinaries() {
+		return timestampBinaries;
+	}
+
+	public void setTimestampBinaries(byte[] timestampBinaries) {
+		this.timestampBinaries = timestampBinaries;
+	}
+
+}
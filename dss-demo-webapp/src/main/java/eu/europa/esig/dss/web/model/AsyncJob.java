@@ -0,0 +1,87 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.Date;
+
+public class AsyncJob {
+
+	private String id;
+
+	private AsyncJobStatus status;
+
+	private Date creationDate;
+
+	private Date updateDate;
+
+	private Integer processed;
+
+	private Integer total;
+
+	private String resultName;
+
+	private String errorMessage;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public AsyncJobStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(AsyncJobStatus status) {
+		this.status = status;
+	}
+
+	public Date getCreationDate() {
+		return creationDate;
+	}
+
+	public void setCreationDate(Date creationDate) {
+		this.creationDate = creationDate;
+	}
+
+	public Date getUpdateDate() {
+		return updateDate;
+	}
+
+	public void setUpdateDate(Date updateDate) {
+		this.updateDate = updateDate;
+	}
+
+	public Integer getProcessed() {
+		return processed;
+	}
+
+	public void setProcessed(Integer processed) {
+		this.processed = processed;
+	}
+
+	public Integer getTotal() {
+		return total;
+	}
+
+	public void setTotal(Integer total) {
+		this.total = total;
+	}
+
+	public String getResultName() {
+		return resultName;
+	}
+
+	public void setResultName(String resultName) {
+		this.resultName = resultName;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+}
@@ -0,0 +1,11 @@
+package eu.europa.esig.dss.web.model;
+
+public enum AsyncJobStatus {
+
+	PENDING, RUNNING, COMPLETED, FAILED;
+
+	public boolean isFinished() {
+		return COMPLETED == this || FAILED == this;
+	}
+
+}
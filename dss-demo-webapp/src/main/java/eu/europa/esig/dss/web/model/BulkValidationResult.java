@@ -0,0 +1,100 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.Indication;
+import eu.europa.esig.dss.enumerations.SubIndication;
+
+/**
+ * Compact result of the validation of one document of a bulk validation (one NDJSON line)
+ */
+public class BulkValidationResult {
+
+	private String documentName;
+
+	private Integer signaturesCount;
+
+	private Integer validSignaturesCount;
+
+	private List<TokenResult> tokens;
+
+	private String errorMessage;
+
+	public String getDocumentName() {
+		return documentName;
+	}
+
+	public void setDocumentName(String documentName) {
+		this.documentName = documentName;
+	}
+
+	public Integer getSignaturesCount() {
+		return signaturesCount;
+	}
+
+	public void setSignaturesCount(Integer signaturesCount) {
+		this.signaturesCount = signaturesCount;
+	}
+
+	public Integer getValidSignaturesCount() {
+		return validSignaturesCount;
+	}
+
+	public void setValidSignaturesCount(Integer validSignaturesCount) {
+		this.validSignaturesCount = validSignaturesCount;
+	}
+
+	public List<TokenResult> getTokens() {
+		return tokens;
+	}
+
+	public void setTokens(List<TokenResult> tokens) {
+		this.tokens = tokens;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	/**
+	 * Conclusion of a signature or a timestamp of the simple report
+	 */
+	public static class TokenResult {
+
+		private String id;
+
+		private Indication indication;
+
+		private SubIndication subIndication;
+
+		public String getId() {
+			return id;
+		}
+
+		public void setId(String id) {
+			this.id = id;
+		}
+
+		public Indication getIndication() {
+			return indication;
+		}
+
+		public void setIndication(Indication indication) {
+			this.indication = indication;
+		}
+
+		public SubIndication getSubIndication() {
+			return subIndication;
+		}
+
+		public void setSubIndication(SubIndication subIndication) {
+			this.subIndication = subIndication;
+		}
+
+	}
+
+}
@@ -0,0 +1,36 @@
+package eu.europa.esig.dss.web.model;
+
+/**
+ * Line of a certificate batch validation (NDJSON) written instead of the reports when a certificate cannot be validated
+ */
+public class CertificateBatchError {
+
+	private String certificateId;
+
+	private String errorMessage;
+
+	public CertificateBatchError() {
+	}
+
+	public CertificateBatchError(String certificateId, String errorMessage) {
+		this.certificateId = certificateId;
+		this.errorMessage = errorMessage;
+	}
+
+	public String getCertificateId() {
+		return certificateId;
+	}
+
+	public void setCertificateId(String certificateId) {
+		this.certificateId = certificateId;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+}
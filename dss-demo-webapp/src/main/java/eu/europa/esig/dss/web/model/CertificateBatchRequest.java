@@ -0,0 +1,56 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.Date;
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
+import eu.europa.esig.dss.ws.dto.RemoteCertificate;
+
+/**
+ * Request of a batch certificate validation (REST)
+ */
+public class CertificateBatchRequest {
+
+	private List<RemoteCertificate> certificates;
+
+	/* intermediate certificates, common to the certificates of the batch */
+	private List<RemoteCertificate> certificateChain;
+
+	/* the current time if null */
+	private Date validationTime;
+
+	private TokenExtractionStategy tokenExtractionStrategy = TokenExtractionStategy.NONE;
+
+	public List<RemoteCertificate> getCertificates() {
+		return certificates;
+	}
+
+	public void setCertificates(List<RemoteCertificate> certificates) {
+		this.certificates = certificates;
+	}
+
+	public List<RemoteCertificate> getCertificateChain() {
+		return certificateChain;
+	}
+
+	public void setCertificateChain(List<RemoteCertificate> certificateChain) {
+		this.certificateChain = certificateChain;
+	}
+
+	public Date getValidationTime() {
+		return validationTime;
+	}
+
+	public void setValidationTime(Date validationTime) {
+		this.validationTime = validationTime;
+	}
+
+	public TokenExtractionStategy getTokenExtractionStrategy() {
+		return tokenExtractionStrategy;
+	}
+
+	public void setTokenExtractionStrategy(TokenExtractionStategy tokenExtractionStrategy) {
+		this.tokenExtractionStrategy = tokenExtractionStrategy;
+	}
+
+}
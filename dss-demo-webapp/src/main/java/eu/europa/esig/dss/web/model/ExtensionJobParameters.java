@@ -0,0 +1,70 @@
+package eu.europa.esig.dss.web.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.ASiCContainerType;
+import eu.europa.esig.dss.enumerations.SignatureForm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.model.DSSDocument;
+
+/**
+ * Contains everything needed to run an extension outside of the HTTP request (the multipart files are no more
+ * available once the request is completed). The object is serialized in the job table in order to be able to
+ * restart the pending jobs.
+ */
+public class ExtensionJobParameters implements Serializable {
+
+	private static final long serialVersionUID = -2829317375385185537L;
+
+	private DSSDocument signedDocument;
+
+	private List<DSSDocument> originalDocuments;
+
+	private ASiCContainerType containerType;
+
+	private SignatureForm signatureForm;
+
+	private SignatureLevel signatureLevel;
+
+	public DSSDocument getSignedDocument() {
+		return signedDocument;
+	}
+
+	public void setSignedDocument(DSSDocument signedDocument) {
+		this.signedDocument = signedDocument;
+	}
+
+	public List<DSSDocument> getOriginalDocuments() {
+		return originalDocuments;
+	}
+
+	public void setOriginalDocuments(List<DSSDocument> originalDocuments) {
+		this.originalDocuments = originalDocuments;
+	}
+
+	public ASiCContainerType getContainerType() {
+		return containerType;
+	}
+
+	public void setContainerType(ASiCContainerType containerType) {
+		this.containerType = containerType;
+	}
+
+	public SignatureForm getSignatureForm() {
+		return signatureForm;
+	}
+
+	public void setSignatureForm(SignatureForm signatureForm) {
+		this.signatureForm = signatureForm;
+	}
+
+	public SignatureLevel getSignatureLevel() {
+		return signatureLevel;
+	}
+
+	public void setSignatureLevel(SignatureLevel signatureLevel) {
+		this.signatureLevel = signatureLevel;
+	}
+
+}
@@ -0,0 +1,55 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import eu.europa.esig.dss.diagnostic.AbstractTokenProxy;
+import eu.europa.esig.dss.diagnostic.CertificateWrapper;
+import eu.europa.esig.dss.diagnostic.DiagnosticData;
+import eu.europa.esig.dss.diagnostic.RevocationWrapper;
+import eu.europa.esig.dss.diagnostic.TimestampWrapper;
+
+/**
+ * A parsed {@link DiagnosticData} with its certificates, revocation data and timestamps indexed by id (the lookups of
+ * {@link DiagnosticData} iterate over all the tokens).
+ */
+public class IndexedDiagnosticData {
+
+	private final DiagnosticData diagnosticData;
+
+	private final Map<String, CertificateWrapper> certificates;
+	private final Map<String, RevocationWrapper> revocationData;
+	private final Map<String, TimestampWrapper> timestamps;
+
+	public IndexedDiagnosticData(DiagnosticData diagnosticData) {
+		this.diagnosticData = diagnosticData;
+		this.certificates = index(diagnosticData.getUsedCertificates());
+		this.revocationData = index(diagnosticData.getAllRevocationData());
+		this.timestamps = index(diagnosticData.getTimestampSet());
+	}
+
+	private static <T extends AbstractTokenProxy> Map<String, T> index(Iterable<T> tokens) {
+		Map<String, T> index = new HashMap<String, T>();
+		for (T token : tokens) {
+			index.put(token.getId(), token);
+		}
+		return index;
+	}
+
+	public DiagnosticData getDiagnosticData() {
+		return diagnosticData;
+	}
+
+	public CertificateWrapper getCertificate(String id) {
+		return certificates.get(id);
+	}
+
+	public RevocationWrapper getRevocationData(String id) {
+		return revocationData.get(id);
+	}
+
+	public TimestampWrapper getTimestamp(String id) {
+		return timestamps.get(id);
+	}
+
+}
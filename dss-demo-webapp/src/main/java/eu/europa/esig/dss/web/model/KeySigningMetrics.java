@@ -0,0 +1,68 @@
+package eu.europa.esig.dss.web.model;
+
+/**
+ * Snapshot of the signing activity of a server signing key
+ */
+public class KeySigningMetrics {
+
+	private String alias;
+
+	private long nbSignatures;
+
+	private long nbErrors;
+
+	private double averageLatencyMs;
+
+	private double maxLatencyMs;
+
+	private double throughputPerSecond;
+
+	public String getAlias() {
+		return alias;
+	}
+
+	public void setAlias(String alias) {
+		this.alias = alias;
+	}
+
+	public long getNbSignatures() {
+		return nbSignatures;
+	}
+
+	public void setNbSignatures(long nbSignatures) {
+		this.nbSignatures = nbSignatures;
+	}
+
+	public long getNbErrors() {
+		return nbErrors;
+	}
+
+	public void setNbErrors(long nbErrors) {
+		this.nbErrors = nbErrors;
+	}
+
+	public double getAverageLatencyMs() {
+		return averageLatencyMs;
+	}
+
+	public void setAverageLatencyMs(double averageLatencyMs) {
+		this.averageLatencyMs = averageLatencyMs;
+	}
+
+	public double getMaxLatencyMs() {
+		return maxLatencyMs;
+	}
+
+	public void setMaxLatencyMs(double maxLatencyMs) {
+		this.maxLatencyMs = maxLatencyMs;
+	}
+
+	public double getThroughputPerSecond() {
+		return throughputPerSecond;
+	}
+
+	public void setThroughputPerSecond(double throughputPerSecond) {
+		this.throughputPerSecond = throughputPerSecond;
+	}
+
+}
@@ -0,0 +1,10 @@
+package eu.europa.esig.dss.web.model;
+
+public enum ReportType {
+
+	SIMPLE_REPORT, DETAILED_REPORT, DIAGNOSTIC_DATA, ETSI_VALIDATION_REPORT,
+
+	/* SVG representation of the diagnostic data, generated on first display */
+	DIAGNOSTIC_DATA_SVG;
+
+}
@@ -8,6 +8,7 @@ import javax.validation.constraints.NotNull;
 import org.springframework.web.multipart.MultipartFile;
 
 import eu.europa.esig.dss.enumerations.ASiCContainerType;
+import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.utils.Utils;
 
 public class SignatureMultipleDocumentsForm extends AbstractSignatureForm {
@@ -17,6 +18,9 @@ public class SignatureMultipleDocumentsForm extends AbstractSignatureForm {
 
 	private List<MultipartFile> documentsToSign;
 
+	// converted documents, kept between the getDataToSign and signDocument steps to reuse the computed digests
+	private List<DSSDocument> dssDocumentsToSign;
+
 	public ASiCContainerType getContainerType() {
 		return containerType;
 	}
@@ -31,6 +35,15 @@ public class SignatureMultipleDocumentsForm extends AbstractSignatureForm {
 
 	public void setDocumentsToSign(List<MultipartFile> documentsToSign) {
 		this.documentsToSign = documentsToSign;
+		this.dssDocumentsToSign = null;
+	}
+
+	public List<DSSDocument> getDssDocumentsToSign() {
+		return dssDocumentsToSign;
+	}
+
+	public void setDssDocumentsToSign(List<DSSDocument> dssDocumentsToSign) {
+		this.dssDocumentsToSign = dssDocumentsToSign;
 	}
 
 	@AssertTrue(message = "{error.to.sign.files.mandatory}")
@@ -0,0 +1,43 @@
+package eu.europa.esig.dss.web.model;
+
+import java.io.Serializable;
+
+/**
+ * Handle of a document written in the {@code SignedDocumentStore}. Only this handle is kept in the HTTP session.
+ */
+public class StoredDocument implements Serializable {
+
+	private static final long serialVersionUID = 3305468208386339741L;
+
+	private final String id;
+
+	private final String name;
+
+	private final String mimeType;
+
+	private final long size;
+
+	public StoredDocument(String id, String name, String mimeType, long size) {
+		this.id = id;
+		this.name = name;
+		this.mimeType = mimeType;
+		this.size = size;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getMimeType() {
+		return mimeType;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+}
@@ -0,0 +1,68 @@
+package eu.europa.esig.dss.web.model;
+
+import java.io.Serializable;
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
+import eu.europa.esig.dss.model.DSSDocument;
+
+/**
+ * Contains everything needed to run a validation outside of the HTTP request. The object is serialized in the job
+ * table in order to be able to restart the pending jobs.
+ */
+public class ValidationJobParameters implements Serializable {
+
+	private static final long serialVersionUID = 4419718853604617215L;
+
+	private DSSDocument signedDocument;
+
+	private List<DSSDocument> originalDocuments;
+
+	/* null for the default policy */
+	private DSSDocument policy;
+
+	private TokenExtractionStategy tokenExtractionStrategy;
+
+	private String callbackUrl;
+
+	public DSSDocument getSignedDocument() {
+		return signedDocument;
+	}
+
+	public void setSignedDocument(DSSDocument signedDocument) {
+		this.signedDocument = signedDocument;
+	}
+
+	public List<DSSDocument> getOriginalDocuments() {
+		return originalDocuments;
+	}
+
+	public void setOriginalDocuments(List<DSSDocument> originalDocuments) {
+		this.originalDocuments = originalDocuments;
+	}
+
+	public DSSDocument getPolicy() {
+		return policy;
+	}
+
+	public void setPolicy(DSSDocument policy) {
+		this.policy = policy;
+	}
+
+	public TokenExtractionStategy getTokenExtractionStrategy() {
+		return tokenExtractionStrategy;
+	}
+
+	public void setTokenExtractionStrategy(TokenExtractionStategy tokenExtractionStrategy) {
+		this.tokenExtractionStrategy = tokenExtractionStrategy;
+	}
+
+	public String getCallbackUrl() {
+		return callbackUrl;
+	}
+
+	public void setCallbackUrl(String callbackUrl) {
+		this.callbackUrl = callbackUrl;
+	}
+
+}
@@ -0,0 +1,64 @@
+package eu.europa.esig.dss.web.model;
+
+import java.util.List;
+
+import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
+import eu.europa.esig.dss.ws.dto.RemoteDocument;
+
+/**
+ * Request of an asynchronous validation (REST)
+ */
+public class ValidationJobRequest {
+
+	private RemoteDocument signedDocument;
+
+	private List<RemoteDocument> originalDocuments;
+
+	private RemoteDocument policy;
+
+	private TokenExtractionStategy tokenExtractionStrategy = TokenExtractionStategy.NONE;
+
+	/* optional, the finished job is posted (JSON) to this URL */
+	private String callbackUrl;
+
+	public RemoteDocument getSignedDocument() {
+		return signedDocument;
+	}
+
+	public void setSignedDocument(RemoteDocument signedDocument) {
+		this.signedDocument = signedDocument;
+	}
+
+	public List<RemoteDocument> getOriginalDocuments() {
+		return originalDocuments;
+	}
+
+	public void setOriginalDocuments(List<RemoteDocument> originalDocuments) {
+		this.originalDocuments = originalDocuments;
+	}
+
+	public RemoteDocument getPolicy() {
+		return policy;
+	}
+
+	public void setPolicy(RemoteDocument policy) {
+		this.policy = policy;
+	}
+
+	public TokenExtractionStategy getTokenExtractionStrategy() {
+		return tokenExtractionStrategy;
+	}
+
+	public void setTokenExtractionStrategy(TokenExtractionStategy tokenExtractionStrategy) {
+		this.tokenExtractionStrategy = tokenExtractionStrategy;
+	}
+
+	public String getCallbackUrl() {
+		return callbackUrl;
+	}
+
+	public void setCallbackUrl(String callbackUrl) {
+		this.callbackUrl = callbackUrl;
+	}
+
+}
@@ -0,0 +1,467 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.exception.ServiceUnavailableException;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.AsyncJobStatus;
+
+/**
+ * Executes long running operations in a bounded worker pool. The state of the jobs (parameters, status and result) is
+ * stored in the application {@code DataSource}, the unfinished jobs of a stopped node are restarted.
+ *
+ * Several nodes can share the database : a job is claimed by one node (OWNER column) with a conditional update before
+ * it is executed, and only the owner stores its result. The owner renews the lease of its unfinished jobs (UPDATE_DATE)
+ * every {@code async.jobs.heartbeat.delay} ms. A job whose lease is older than {@code async.jobs.lease.timeout} ms
+ * belongs to a stopped node : it is taken over (on startup and then with the heartbeat) as long as the queue has room,
+ * its parameters are only loaded when a worker executes it.
+ *
+ * The jobs only survive a restart with a persistent database : the default {@code datasource.url} is an in-memory
+ * HSQLDB ({@code jdbc:hsqldb:mem:}).
+ *
+ * @param <P> the parameters of a job
+ */
+public abstract class AbstractAsyncJobService<P extends Serializable> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AbstractAsyncJobService.class);
+
+	private static final int MAX_ERROR_MESSAGE_LENGTH = 1024;
+
+	private static final String SQL_CREATE_TABLE = "CREATE TABLE %s (ID VARCHAR(64) NOT NULL PRIMARY KEY, STATUS VARCHAR(16) NOT NULL, "
+			+ "CREATION_DATE TIMESTAMP NOT NULL, UPDATE_DATE TIMESTAMP NOT NULL, OWNER VARCHAR(64), PROCESSED INT, TOTAL INT, REQUEST_DATA BLOB, RESULT_NAME VARCHAR(256), "
+			+ "RESULT_MIMETYPE VARCHAR(128), RESULT_DATA BLOB, ERROR_MESSAGE VARCHAR(" + MAX_ERROR_MESSAGE_LENGTH + "))";
+
+	/* Columns added after the first version of the tables (name and type), created when missing */
+	private static final String[][] ADDED_COLUMNS = { { "OWNER", "VARCHAR(64)" }, { "PROCESSED", "INT" }, { "TOTAL", "INT" } };
+
+	private static final String SQL_ADD_COLUMN = "ALTER TABLE %s ADD COLUMN %s %s";
+
+	private static final String SQL_INSERT = "INSERT INTO %s (ID, STATUS, CREATION_DATE, UPDATE_DATE, OWNER, REQUEST_DATA) VALUES (?, ?, ?, ?, ?, ?)";
+
+	/* Compare-and-set of the status and the owner : only one node gets an update count of 1 */
+	private static final String SQL_CLAIM = "UPDATE %s SET STATUS = ?, OWNER = ?, UPDATE_DATE = ? WHERE ID = ? AND STATUS = ? AND COALESCE(OWNER, '') = ?";
+
+	private static final String SQL_UPDATE_PROGRESS = "UPDATE %s SET PROCESSED = ?, TOTAL = ?, UPDATE_DATE = ? WHERE ID = ?";
+
+	private static final String SQL_UPDATE_RESULT = "UPDATE %s SET STATUS = ?, UPDATE_DATE = ?, REQUEST_DATA = NULL, RESULT_NAME = ?, RESULT_MIMETYPE = ?, "
+			+ "RESULT_DATA = ? WHERE ID = ? AND OWNER = ?";
+
+	private static final String SQL_UPDATE_ERROR = "UPDATE %s SET STATUS = ?, UPDATE_DATE = ?, REQUEST_DATA = NULL, ERROR_MESSAGE = ? WHERE ID = ? "
+			+ "AND OWNER = ?";
+
+	private static final String SQL_FIND_JOB = "SELECT ID, STATUS, CREATION_DATE, UPDATE_DATE, PROCESSED, TOTAL, RESULT_NAME, ERROR_MESSAGE FROM %s "
+			+ "WHERE ID = ?";
+
+	private static final String SQL_FIND_RESULT = "SELECT RESULT_NAME, RESULT_MIMETYPE, RESULT_DATA FROM %s WHERE ID = ? AND STATUS = ?";
+
+	/* Lease renewal of the unfinished jobs of a node */
+	private static final String SQL_HEARTBEAT = "UPDATE %s SET UPDATE_DATE = ? WHERE OWNER = ? AND (STATUS = ? OR STATUS = ?)";
+
+	/* Unfinished jobs whose lease expired, oldest first (without their parameters) */
+	private static final String SQL_FIND_EXPIRED = "SELECT ID, STATUS, OWNER, UPDATE_DATE FROM %s WHERE (STATUS = ? OR STATUS = ?) "
+			+ "AND (OWNER IS NULL OR UPDATE_DATE < ?) ORDER BY UPDATE_DATE";
+
+	/* Compare-and-set including the lease : a heartbeat of the previous owner makes the take over fail */
+	private static final String SQL_TAKE_OVER = "UPDATE %s SET STATUS = ?, OWNER = ?, UPDATE_DATE = ? WHERE ID = ? AND STATUS = ? "
+			+ "AND COALESCE(OWNER, '') = ? AND UPDATE_DATE = ?";
+
+	/* A taken over job which cannot be queued is left to the next take over */
+	private static final String SQL_RELEASE = "UPDATE %s SET OWNER = NULL WHERE ID = ? AND OWNER = ?";
+
+	private static final String SQL_FIND_REQUEST = "SELECT REQUEST_DATA FROM %s WHERE ID = ?";
+
+	private static final String SQL_DELETE = "DELETE FROM %s WHERE ID = ?";
+
+	private static final String SQL_DELETE_EXPIRED = "DELETE FROM %s WHERE (STATUS = ? OR STATUS = ?) AND UPDATE_DATE < ?";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Value("${async.jobs.lease.timeout}")
+	private long leaseTimeout;
+
+	/* Identifies this instance in the OWNER column */
+	private final String owner = UUID.randomUUID().toString();
+
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Returns the name of the table which stores the jobs
+	 *
+	 * @return the table name
+	 */
+	protected abstract String getTableName();
+
+	/**
+	 * Returns the number of workers which process the jobs in parallel
+	 *
+	 * @return the pool size
+	 */
+	protected abstract int getPoolSize();
+
+	/**
+	 * Returns the maximum number of jobs waiting for a worker. Above this limit, new jobs are refused.
+	 *
+	 * @return the queue capacity
+	 */
+	protected abstract int getQueueCapacity();
+
+	/**
+	 * Returns the time (in milliseconds) during which a finished job is kept
+	 *
+	 * @return the retention time
+	 */
+	protected abstract long getRetentionTime();
+
+	/**
+	 * Executes the job
+	 *
+	 * @param id         the job id (see {@link #updateProgress(String, int, int)})
+	 * @param parameters the job parameters
+	 * @return the result document
+	 * @throws Exception if the job fails
+	 */
+	protected abstract DSSDocument process(String id, P parameters) throws Exception;
+
+	/**
+	 * Called once the job is completed or failed (eg: to notify the requester). Does nothing by default.
+	 *
+	 * @param parameters the job parameters
+	 * @param job        the finished job
+	 */
+	protected void onFinished(P parameters, AsyncJob job) {
+		// nothing by default
+	}
+
+	@PostConstruct
+	public void init() throws SQLException {
+		createTableIfNotExists();
+		executor = new ThreadPoolExecutor(getPoolSize(), getPoolSize(), 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(getQueueCapacity()));
+		takeOverExpiredJobs();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		// running jobs stay with the RUNNING status and will be restarted once their lease expired
+		executor.shutdownNow();
+	}
+
+	public AsyncJob submit(P parameters) {
+		String id = UUID.randomUUID().toString();
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		executeUpdate(SQL_INSERT, id, AsyncJobStatus.PENDING.name(), now, now, owner, serialize(parameters));
+		try {
+			executor.execute(new JobRunnable(id, parameters));
+		} catch (RejectedExecutionException e) {
+			executeUpdate(SQL_DELETE, id);
+			throw new ServiceUnavailableException("Too many pending jobs, please retry later");
+		}
+		LOG.info("Job {} submitted in table {}", id, getTableName());
+		return getJob(id);
+	}
+
+	public AsyncJob getJob(String id) {
+		try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement(sql(SQL_FIND_JOB))) {
+			s.setString(1, id);
+			try (ResultSet rs = s.executeQuery()) {
+				if (rs.next()) {
+					AsyncJob job = new AsyncJob();
+					job.setId(rs.getString("ID"));
+					job.setStatus(AsyncJobStatus.valueOf(rs.getString("STATUS")));
+					job.setCreationDate(rs.getTimestamp("CREATION_DATE"));
+					job.setUpdateDate(rs.getTimestamp("UPDATE_DATE"));
+					job.setProcessed(getInteger(rs, "PROCESSED"));
+					job.setTotal(getInteger(rs, "TOTAL"));
+					job.setResultName(rs.getString("RESULT_NAME"));
+					job.setErrorMessage(rs.getString("ERROR_MESSAGE"));
+					return job;
+				}
+			}
+		} catch (SQLException e) {
+			throw new DSSException("Unable to retrieve the job " + id, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the result of a completed job
+	 *
+	 * @param id the job id
+	 * @return the result document or null if the job is unknown or not completed
+	 */
+	public DSSDocument getResult(String id) {
+		try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement(sql(SQL_FIND_RESULT))) {
+			s.setString(1, id);
+			s.setString(2, AsyncJobStatus.COMPLETED.name());
+			try (ResultSet rs = s.executeQuery()) {
+				if (rs.next()) {
+					String mimeType = rs.getString("RESULT_MIMETYPE");
+					return new InMemoryDocument(rs.getBytes("RESULT_DATA"), rs.getString("RESULT_NAME"),
+							mimeType != null ? MimeType.fromMimeTypeString(mimeType) : null);
+				}
+			}
+		} catch (SQLException e) {
+			throw new DSSException("Unable to retrieve the result of the job " + id, e);
+		}
+		return null;
+	}
+
+	/**
+	 * Stores the progress of a running job
+	 *
+	 * @param id        the job id
+	 * @param processed the number of processed items
+	 * @param total     the total number of items
+	 */
+	protected void updateProgress(String id, int processed, int total) {
+		executeUpdate(SQL_UPDATE_PROGRESS, processed, total, new Timestamp(System.currentTimeMillis()), id);
+	}
+
+	@Scheduled(initialDelayString = "${async.jobs.purge.delay}", fixedDelayString = "${async.jobs.purge.delay}")
+	public void purgeExpiredJobs() {
+		Timestamp limit = new Timestamp(System.currentTimeMillis() - getRetentionTime());
+		int nbDeleted = executeUpdate(SQL_DELETE_EXPIRED, AsyncJobStatus.COMPLETED.name(), AsyncJobStatus.FAILED.name(), limit);
+		if (nbDeleted > 0) {
+			LOG.info("{} expired job(s) removed from table {}", nbDeleted, getTableName());
+		}
+	}
+
+	/**
+	 * Renews the lease of the jobs of this node and takes over the jobs of the stopped nodes
+	 */
+	@Scheduled(initialDelayString = "${async.jobs.heartbeat.delay}", fixedDelayString = "${async.jobs.heartbeat.delay}")
+	public void heartbeat() {
+		executeUpdate(SQL_HEARTBEAT, new Timestamp(System.currentTimeMillis()), owner, AsyncJobStatus.PENDING.name(), AsyncJobStatus.RUNNING.name());
+		takeOverExpiredJobs();
+	}
+
+	private void createTableIfNotExists() throws SQLException {
+		try (Connection c = dataSource.getConnection()) {
+			try (ResultSet rs = c.getMetaData().getTables(null, null, getTableName(), null)) {
+				if (rs.next()) {
+					addMissingColumns(c);
+					return;
+				}
+			}
+			try (Statement s = c.createStatement()) {
+				s.execute(sql(SQL_CREATE_TABLE));
+			}
+			c.commit();
+			LOG.info("Table {} created", getTableName());
+		}
+	}
+
+	private void addMissingColumns(Connection c) throws SQLException {
+		boolean altered = false;
+		for (String[] column : ADDED_COLUMNS) {
+			try (ResultSet rs = c.getMetaData().getColumns(null, null, getTableName(), column[0])) {
+				if (rs.next()) {
+					continue;
+				}
+			}
+			try (Statement s = c.createStatement()) {
+				s.execute(String.format(SQL_ADD_COLUMN, getTableName(), column[0], column[1]));
+			}
+			altered = true;
+			LOG.info("Column {} added in table {}", column[0], getTableName());
+		}
+		if (altered) {
+			c.commit();
+		}
+	}
+
+	private void takeOverExpiredJobs() {
+		int capacity = executor.getQueue().remainingCapacity();
+		if (capacity == 0) {
+			return;
+		}
+		List<Object[]> jobs = new ArrayList<Object[]>();
+		try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement(sql(SQL_FIND_EXPIRED))) {
+			s.setString(1, AsyncJobStatus.PENDING.name());
+			s.setString(2, AsyncJobStatus.RUNNING.name());
+			s.setTimestamp(3, new Timestamp(System.currentTimeMillis() - leaseTimeout));
+			s.setMaxRows(capacity);
+			try (ResultSet rs = s.executeQuery()) {
+				while (rs.next()) {
+					String previousOwner = rs.getString("OWNER");
+					jobs.add(new Object[] { rs.getString("ID"), rs.getString("STATUS"), previousOwner != null ? previousOwner : "", rs.getTimestamp("UPDATE_DATE") });
+				}
+			}
+		} catch (SQLException e) {
+			throw new DSSException("Unable to retrieve the expired jobs", e);
+		}
+
+		for (Object[] job : jobs) {
+			String id = (String) job[0];
+			if (executeUpdate(SQL_TAKE_OVER, AsyncJobStatus.PENDING.name(), owner, new Timestamp(System.currentTimeMillis()), id, job[1], job[2], job[3]) == 0) {
+				LOG.info("Job {} already taken over or still alive", id);
+				continue;
+			}
+			try {
+				// the parameters are loaded by the worker
+				executor.execute(new JobRunnable(id, null));
+				LOG.info("Job {} restarted", id);
+			} catch (RejectedExecutionException e) {
+				executeUpdate(SQL_RELEASE, id, owner);
+				LOG.info("Job {} not restarted, the queue is full", id);
+				return;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private P loadParameters(String id) {
+		try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement(sql(SQL_FIND_REQUEST))) {
+			s.setString(1, id);
+			try (ResultSet rs = s.executeQuery()) {
+				if (rs.next()) {
+					return (P) deserialize(rs.getBytes("REQUEST_DATA"));
+				}
+			}
+		} catch (SQLException e) {
+			throw new DSSException("Unable to retrieve the parameters of the job " + id, e);
+		}
+		return null;
+	}
+
+	private Integer getInteger(ResultSet rs, String column) throws SQLException {
+		int value = rs.getInt(column);
+		return rs.wasNull() ? null : value;
+	}
+
+	private void fail(String id, String message) {
+		String errorMessage = message;
+		if (errorMessage == null) {
+			errorMessage = "Unknown error";
+		} else if (errorMessage.length() > MAX_ERROR_MESSAGE_LENGTH) {
+			errorMessage = errorMessage.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+		}
+		executeUpdate(SQL_UPDATE_ERROR, AsyncJobStatus.FAILED.name(), new Timestamp(System.currentTimeMillis()), errorMessage, id, owner);
+	}
+
+	private int executeUpdate(String query, Object... parameters) {
+		try (Connection c = dataSource.getConnection(); PreparedStatement s = c.prepareStatement(sql(query))) {
+			for (int i = 0; i < parameters.length; i++) {
+				if (parameters[i] instanceof byte[]) {
+					s.setBytes(i + 1, (byte[]) parameters[i]);
+				} else {
+					s.setObject(i + 1, parameters[i]);
+				}
+			}
+			int result = s.executeUpdate();
+			c.commit();
+			return result;
+		} catch (SQLException e) {
+			throw new DSSException("Unable to update the table " + getTableName(), e);
+		}
+	}
+
+	private String sql(String query) {
+		return String.format(query, getTableName());
+	}
+
+	private byte[] serialize(P parameters) {
+		try (ByteArrayOutputStream baos = new ByteArrayOutputStream(); ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(parameters);
+			oos.flush();
+			return baos.toByteArray();
+		} catch (IOException e) {
+			throw new DSSException("Unable to serialize the job parameters", e);
+		}
+	}
+
+	private Object deserialize(byte[] binaries) {
+		if (Utils.isArrayEmpty(binaries)) {
+			return null;
+		}
+		try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(binaries))) {
+			return ois.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new DSSException("Unable to deserialize the job parameters", e);
+		}
+	}
+
+	private class JobRunnable implements Runnable {
+
+		private final String id;
+
+		/* null for a restarted job : loaded when the job is executed */
+		private P parameters;
+
+		JobRunnable(String id, P parameters) {
+			this.id = id;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (parameters == null) {
+					parameters = loadParameters(id);
+				}
+				if (parameters == null) {
+					throw new DSSException("The job parameters are missing");
+				}
+				if (executeUpdate(SQL_CLAIM, AsyncJobStatus.RUNNING.name(), owner, new Timestamp(System.currentTimeMillis()), id,
+						AsyncJobStatus.PENDING.name(), owner) == 0) {
+					LOG.info("Job {} taken over by another node", id);
+					return;
+				}
+				DSSDocument result = process(id, parameters);
+				String mimeType = result.getMimeType() != null ? result.getMimeType().getMimeTypeString() : null;
+				if (executeUpdate(SQL_UPDATE_RESULT, AsyncJobStatus.COMPLETED.name(), new Timestamp(System.currentTimeMillis()), result.getName(),
+						mimeType, DSSUtils.toByteArray(result), id, owner) == 0) {
+					LOG.info("Job {} taken over by another node, result discarded", id);
+					return;
+				}
+				LOG.info("Job {} completed", id);
+			} catch (Exception e) {
+				LOG.warn("Job {} failed : {}", id, e.getMessage(), e);
+				fail(id, e.getMessage());
+			}
+			if (parameters != null) {
+				try {
+					onFinished(parameters, getJob(id));
+				} catch (Exception e) {
+					LOG.warn("Unable to notify the end of the job {} : {}", id, e.getMessage());
+				}
+			}
+		}
+
+	}
+
+}
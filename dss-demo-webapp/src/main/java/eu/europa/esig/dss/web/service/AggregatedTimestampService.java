@@ -0,0 +1,295 @@
+package eu.europa.esig.dss.web.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.TimestampBinary;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+import eu.europa.esig.dss.web.model.AggregatedTimestamp;
+
+/**
+ * Aggregates the timestamp requests received within a short time window : the digests are combined into a Merkle tree
+ * and only the root is timestamped. Each caller receives the timestamp with the inclusion proof of its digest.
+ * 
+ * The scheduler only triggers the flushes, the TSA calls of the batches closed by the timer are executed in a separate
+ * pool.
+ */
+@Component
+public class AggregatedTimestampService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AggregatedTimestampService.class);
+
+	@Autowired
+	private TSPSource tspSource;
+
+	@Value("${timestamp.aggregation.max.wait}")
+	private long maxWait;
+
+	@Value("${timestamp.aggregation.max.batch.size}")
+	private int maxBatchSize;
+
+	@Value("${timestamp.aggregation.pool.size}")
+	private int poolSize;
+
+	@Value("${timestamp.aggregation.timeout}")
+	private long timeout;
+
+	private final Map<DigestAlgorithm, Batch> openBatches = new EnumMap<DigestAlgorithm, Batch>(DigestAlgorithm.class);
+
+	/* Requests not completed yet, failed on shutdown */
+	private final Set<Request> pendingRequests = ConcurrentHashMap.newKeySet();
+
+	private ScheduledExecutorService scheduler;
+
+	private ExecutorService tsaExecutor;
+
+	@PostConstruct
+	public void init() {
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		tsaExecutor = Executors.newFixedThreadPool(poolSize);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		scheduler.shutdownNow();
+		tsaExecutor.shutdownNow();
+		DSSException stopped = new DSSException("The aggregated timestamp service is stopped");
+		for (Request request : pendingRequests) {
+			request.result.completeExceptionally(stopped);
+		}
+	}
+
+	/**
+	 * Returns a timestamp on a Merkle tree which contains the given digest. The call is blocked at most
+	 * timestamp.aggregation.max.wait milliseconds plus the TSA response time, and never more than
+	 * timestamp.aggregation.timeout milliseconds
+	 * 
+	 * @param digestAlgorithm
+	 *            the algorithm used to compute the digest (and the tree)
+	 * @param digest
+	 *            the digest to timestamp
+	 * @return the timestamp with the inclusion proof
+	 */
+	public AggregatedTimestamp timestamp(DigestAlgorithm digestAlgorithm, byte[] digest) {
+		if (digestAlgorithm == null || digest == null) {
+			throw new DSSException("The digest algorithm and the digest are required");
+		}
+		// a malformed digest would be merged in the tree of the other callers
+		int expectedLength = DSSUtils.digest(digestAlgorithm, new byte[0]).length;
+		if (digest.length != expectedLength) {
+			throw new DSSException("Invalid digest length for " + digestAlgorithm.getName() + " : " + digest.length + " bytes instead of " + expectedLength);
+		}
+
+		Request request = new Request(digest);
+		Batch toFlush = null;
+		synchronized (openBatches) {
+			Batch batch = openBatches.get(digestAlgorithm);
+			if (batch == null) {
+				batch = new Batch(digestAlgorithm);
+				final Batch scheduled = batch;
+				// the batch is only published with its timer
+				try {
+					scheduler.schedule(() -> flush(scheduled), maxWait, TimeUnit.MILLISECONDS);
+				} catch (RejectedExecutionException e) {
+					throw new DSSException("The aggregated timestamp service is stopped", e);
+				}
+				openBatches.put(digestAlgorithm, batch);
+			}
+			pendingRequests.add(request);
+			request.result.whenComplete((result, error) -> pendingRequests.remove(request));
+			batch.requests.add(request);
+			if (batch.requests.size() >= maxBatchSize) {
+				openBatches.remove(digestAlgorithm);
+				toFlush = batch;
+			}
+		}
+		if (toFlush != null) {
+			process(toFlush);
+		}
+
+		try {
+			return request.result.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DSSException("Interrupted while waiting for the aggregated timestamp", e);
+		} catch (ExecutionException e) {
+			throw new DSSException("Unable to obtain the aggregated timestamp : " + e.getCause().getMessage(), e.getCause());
+		} catch (TimeoutException e) {
+			request.result.completeExceptionally(e);
+			throw new DSSException("No aggregated timestamp after " + timeout + " ms", e);
+		}
+	}
+
+	private void flush(Batch batch) {
+		synchronized (openBatches) {
+			if (openBatches.get(batch.digestAlgorithm) != batch) {
+				// already flushed because full
+				return;
+			}
+			openBatches.remove(batch.digestAlgorithm);
+		}
+		// the TSA call must not block the timer thread
+		try {
+			tsaExecutor.execute(() -> process(batch));
+		} catch (RejectedExecutionException e) {
+			for (Request request : batch.requests) {
+				request.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	private void process(Batch batch) {
+		DigestAlgorithm digestAlgorithm = batch.digestAlgorithm;
+		try {
+			List<byte[]> leaves = new ArrayList<byte[]>(batch.requests.size());
+			for (Request request : batch.requests) {
+				leaves.add(request.digest);
+			}
+			List<List<byte[]>> levels = buildTree(digestAlgorithm, leaves);
+			byte[] root = levels.get(levels.size() - 1).get(0);
+
+			TimestampBinary timestampBinary = tspSource.getTimeStampResponse(digestAlgorithm, root);
+			LOG.debug("{} digest(s) timestamped with one TSA request", leaves.size());
+
+			for (int i = 0; i < batch.requests.size(); i++) {
+				Request request = batch.requests.get(i);
+				AggregatedTimestamp result = new AggregatedTimestamp();
+				result.setDigestAlgorithm(digestAlgorithm);
+				result.setDigest(request.digest);
+				result.setProof(getProof(levels, i));
+				result.setRoot(root);
+				result.setTimestampBinaries(timestampBinary.getBytes());
+				request.result.complete(result);
+			}
+		} catch (Exception e) {
+			LOG.warn("Unable to timestamp the aggregated digests : {}", e.getMessage());
+			for (Request request : batch.requests) {
+				request.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	private List<List<byte[]>> buildTree(DigestAlgorithm digestAlgorithm, List<byte[]> leaves) {
+		List<List<byte[]>> levels = new ArrayList<List<byte[]>>();
+		List<byte[]> current = leaves;
+		levels.add(current);
+		while (current.size() > 1) {
+			List<byte[]> parents = new ArrayList<byte[]>((current.size() + 1) / 2);
+			for (int i = 0; i < current.size(); i += 2) {
+				if (i + 1 < current.size()) {
+					parents.add(computeNode(digestAlgorithm, current.get(i), current.get(i + 1)));
+				} else {
+					// odd node promoted to the next level
+					parents.add(current.get(i));
+				}
+			}
+			levels.add(parents);
+			current = parents;
+		}
+		return levels;
+	}
+
+	private List<byte[]> getProof(List<List<byte[]>> levels, int leafIndex) {
+		List<byte[]> proof = new ArrayList<byte[]>();
+		int index = leafIndex;
+		for (int level = 0; level < levels.size() - 1; level++) {
+			List<byte[]> nodes = levels.get(level);
+			int sibling = index ^ 1;
+			if (sibling < nodes.size()) {
+				proof.add(nodes.get(sibling));
+			}
+			index /= 2;
+		}
+		return proof;
+	}
+
+	/**
+	 * Recomputes the root of the Merkle tree from a digest and its inclusion proof
+	 * 
+	 * @param digestAlgorithm
+	 *            the digest algorithm used in the tree
+	 * @param digest
+	 *            the timestamped digest
+	 * @param proof
+	 *            the inclusion proof
+	 * @return the root which has to match the message imprint of the timestamp
+	 */
+	public static byte[] computeRoot(DigestAlgorithm digestAlgorithm, byte[] digest, List<byte[]> proof) {
+		byte[] current = digest;
+		for (byte[] sibling : proof) {
+			current = computeNode(digestAlgorithm, current, sibling);
+		}
+		return current;
+	}
+
+	private static byte[] computeNode(DigestAlgorithm digestAlgorithm, byte[] first, byte[] second) {
+		byte[] left = first;
+		byte[] right = second;
+		if (compare(first, second) > 0) {
+			left = second;
+			right = first;
+		}
+		byte[] concatenation = new byte[left.length + right.length];
+		System.arraycopy(left, 0, concatenation, 0, left.length);
+		System.arraycopy(right, 0, concatenation, left.length, right.length);
+		return DSSUtils.digest(digestAlgorithm, concatenation);
+	}
+
+	private static int compare(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		for (int i = 0; i < length; i++) {
+			int diff = (a[i] & 0xff) - (b[i] & 0xff);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return a.length - b.length;
+	}
+
+	private static class Batch {
+
+		private final DigestAlgorithm digestAlgorithm;
+		private final List<Request> requests = new ArrayList<Request>();
+
+		Batch(DigestAlgorithm digestAlgorithm) {
+			this.digestAlgorithm = digestAlgorithm;
+		}
+
+	}
+
+	private static class Request {
+
+		private final byte[] digest;
+		private final CompletableFuture<AggregatedTimestamp> result = new CompletableFuture<AggregatedTimestamp>();
+
+		Request(byte[] digest) {
+			this.digest = digest;
+		}
+
+	}
+
+}
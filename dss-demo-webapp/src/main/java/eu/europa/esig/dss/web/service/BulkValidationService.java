@@ -0,0 +1,262 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.simplereport.jaxb.XmlToken;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.web.model.BulkValidationResult;
+import eu.europa.esig.dss.web.model.BulkValidationResult.TokenResult;
+
+/**
+ * Validates the documents of a ZIP archive in parallel and writes one compact JSON line (NDJSON) per document, as soon
+ * as its validation is completed (the lines are not in the order of the archive).
+ *
+ * The archive is read while the results are written : at most {@code bulk.validation.max.pending} documents per
+ * request are read and not yet written, a client which reads slowly slows down the reading of its archive. The read
+ * documents of all the requests hold at most {@code bulk.validation.max.memory} bytes : the maximum document size is
+ * reserved while an entry is read, the reading waits for the validations in progress otherwise. If the results cannot
+ * be written (eg: client disconnected), the pending validations of the request are cancelled.
+ *
+ * An entry bigger than {@code bulk.validation.max.document.size} gets an error line and ends the reading of the
+ * archive : the rest of the entry is not inflated.
+ */
+@Component
+public class BulkValidationService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BulkValidationService.class);
+
+	private static final byte NEW_LINE = '\n';
+
+	@Value("${bulk.validation.pool.size}")
+	private int poolSize;
+
+	@Value("${bulk.validation.max.pending}")
+	private int maxPending;
+
+	@Value("${bulk.validation.max.document.size}")
+	private int maxDocumentSize;
+
+	@Value("${bulk.validation.max.memory}")
+	private int maxMemory;
+
+	@Autowired
+	private CertificateVerifier certificateVerifier;
+
+	@Autowired
+	private ValidationPolicyCache validationPolicyCache;
+
+	/* compact output, without the null values */
+	private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+	private ExecutorService executor;
+
+	/* bytes of the read documents, shared by all the requests */
+	private Semaphore memory;
+
+	@PostConstruct
+	public void init() {
+		if (maxDocumentSize > maxMemory) {
+			throw new DSSException("bulk.validation.max.document.size cannot be greater than bulk.validation.max.memory");
+		}
+		executor = Executors.newFixedThreadPool(poolSize);
+		memory = new Semaphore(maxMemory);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Validates the documents of the ZIP archive
+	 *
+	 * @param zip the ZIP archive
+	 * @param os  the stream where the results are written (one line per document)
+	 * @throws IOException if the archive cannot be read or the results cannot be written
+	 */
+	public void validate(InputStream zip, OutputStream os) throws IOException {
+		CompletionService<BulkValidationResult> completionService = new ExecutorCompletionService<BulkValidationResult>(executor);
+		/* submitted and not yet written, with the memory held by their document */
+		Map<Future<BulkValidationResult>, Reservation> pending = new HashMap<Future<BulkValidationResult>, Reservation>();
+		int nbDocuments = 0;
+		try (ZipInputStream zis = new ZipInputStream(zip)) {
+			ZipEntry entry;
+			while ((entry = zis.getNextEntry()) != null) {
+				if (entry.isDirectory()) {
+					continue;
+				}
+				while (pending.size() >= maxPending) {
+					write(completionService.take(), pending, os);
+				}
+
+				String name = entry.getName();
+				Reservation reservation = new Reservation(maxDocumentSize);
+				byte[] content;
+				try {
+					content = readEntry(zis, name);
+				} catch (IOException | RuntimeException e) {
+					reservation.release();
+					throw e;
+				}
+				nbDocuments++;
+				if (content == null) {
+					reservation.release();
+					write(error(name, "The document exceeds the maximum size of " + maxDocumentSize + " bytes, the rest of the archive is ignored"), os);
+					break;
+				}
+				reservation.keep(content.length);
+
+				DSSDocument document = new InMemoryDocument(content, name);
+				pending.put(completionService.submit(() -> {
+					try {
+						return validate(document);
+					} finally {
+						reservation.release();
+					}
+				}), reservation);
+
+				Future<BulkValidationResult> completed;
+				while ((completed = completionService.poll()) != null) {
+					write(completed, pending, os);
+				}
+			}
+			while (!pending.isEmpty()) {
+				write(completionService.take(), pending, os);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DSSException("Bulk validation interrupted", e);
+		} finally {
+			// empty unless the archive could not be read or the results could not be written
+			for (Map.Entry<Future<BulkValidationResult>, Reservation> validation : pending.entrySet()) {
+				if (validation.getKey().cancel(true)) {
+					// not started or interrupted : the document is not used anymore
+					validation.getValue().release();
+				}
+			}
+		}
+		LOG.info("Bulk validation of {} document(s) completed", nbDocuments);
+	}
+
+	private BulkValidationResult validate(DSSDocument document) {
+		try {
+			SignedDocumentValidator documentValidator = SignedDocumentValidator.fromDocument(document);
+			documentValidator.setCertificateVerifier(certificateVerifier);
+			Reports reports = documentValidator.validateDocument(validationPolicyCache.getDefaultPolicy());
+
+			BulkValidationResult result = new BulkValidationResult();
+			result.setDocumentName(document.getName());
+			result.setSignaturesCount(reports.getSimpleReport().getSignaturesCount());
+			result.setValidSignaturesCount(reports.getSimpleReport().getValidSignaturesCount());
+			List<TokenResult> tokens = new ArrayList<TokenResult>();
+			for (XmlToken token : reports.getSimpleReportJaxb().getSignatureOrTimestamp()) {
+				TokenResult tokenResult = new TokenResult();
+				tokenResult.setId(token.getId());
+				tokenResult.setIndication(token.getIndication());
+				tokenResult.setSubIndication(token.getSubIndication());
+				tokens.add(tokenResult);
+			}
+			result.setTokens(tokens);
+			return result;
+		} catch (Exception e) {
+			LOG.debug("Unable to validate the document {} : {}", document.getName(), e.getMessage());
+			return error(document.getName(), e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+		}
+	}
+
+	/* null if the entry is too large */
+	private byte[] readEntry(ZipInputStream zis, String name) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		long size = 0;
+		int n;
+		while ((n = zis.read(buffer)) != -1) {
+			size += n;
+			if (size > maxDocumentSize) {
+				LOG.warn("The document {} exceeds the maximum size", name);
+				return null;
+			}
+			baos.write(buffer, 0, n);
+		}
+		return baos.toByteArray();
+	}
+
+	private BulkValidationResult error(String documentName, String message) {
+		BulkValidationResult result = new BulkValidationResult();
+		result.setDocumentName(documentName);
+		result.setErrorMessage(message);
+		return result;
+	}
+
+	private void write(Future<BulkValidationResult> completed, Map<Future<BulkValidationResult>, Reservation> pending, OutputStream os)
+			throws IOException, InterruptedException {
+		pending.remove(completed);
+		try {
+			write(completed.get(), os);
+		} catch (ExecutionException e) {
+			throw new DSSException("Unexpected error during the bulk validation", e);
+		}
+	}
+
+	private void write(BulkValidationResult result, OutputStream os) throws IOException {
+		os.write(objectMapper.writeValueAsBytes(result));
+		os.write(NEW_LINE);
+		os.flush();
+	}
+
+	/* bytes of the global memory held by one document */
+	private final class Reservation {
+
+		private final AtomicInteger permits;
+
+		private Reservation(int permits) throws InterruptedException {
+			memory.acquire(permits);
+			this.permits = new AtomicInteger(permits);
+		}
+
+		/* releases the reserved bytes which are not used by the document */
+		private void keep(int size) {
+			memory.release(permits.getAndSet(size) - size);
+		}
+
+		private void release() {
+			memory.release(permits.getAndSet(0));
+		}
+
+	}
+
+}
@@ -0,0 +1,146 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.ws.converter.RemoteDocumentConverter;
+import eu.europa.esig.dss.ws.dto.RemoteDocument;
+import eu.europa.esig.dss.ws.validation.common.RemoteDocumentValidationService;
+import eu.europa.esig.dss.ws.validation.dto.DataToValidateDTO;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+/**
+ * {@link RemoteDocumentValidationService} (REST and SOAP validation) which reuses the results of the
+ * {@link ValidationResultCache}. The key is computed from the serialized request : all its fields (documents, policy,
+ * token extraction, signature id,...) are part of the key.
+ *
+ * The validation policies (default or provided) are taken from the {@link ValidationPolicyCache} instead of being
+ * parsed for each request. The size of a cached result is estimated with its JSON serialization.
+ */
+public class CachingRemoteDocumentValidationService extends RemoteDocumentValidationService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CachingRemoteDocumentValidationService.class);
+
+	private final ValidationResultCache cache;
+
+	private final ValidationPolicyCache validationPolicyCache;
+
+	private final ObjectMapper objectMapper;
+
+	private CertificateVerifier verifier;
+
+	public CachingRemoteDocumentValidationService(ValidationResultCache cache, ValidationPolicyCache validationPolicyCache, ObjectMapper objectMapper) {
+		this.cache = cache;
+		this.validationPolicyCache = validationPolicyCache;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void setVerifier(CertificateVerifier verifier) {
+		super.setVerifier(verifier);
+		this.verifier = verifier;
+	}
+
+	@Override
+	public WSReportsDTO validateDocument(DataToValidateDTO dataToValidate) {
+		if (!cache.isEnabled()) {
+			return validate(dataToValidate);
+		}
+		ValidationResultCache.Key key = cache.newKey("ws-document-validation");
+		try (ObjectOutputStream oos = new ObjectOutputStream(new KeyOutputStream(key))) {
+			oos.writeObject(dataToValidate);
+		} catch (IOException e) {
+			LOG.warn("Unable to compute the cache key, the document is validated : {}", e.getMessage());
+			return validate(dataToValidate);
+		}
+		return cache.get(key, () -> validate(dataToValidate), this::estimateSize);
+	}
+
+	/* size of the JSON reports (bytes), without keeping them in memory */
+	private long estimateSize(WSReportsDTO reports) {
+		CountingOutputStream cos = new CountingOutputStream();
+		try {
+			objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValue(cos, reports);
+		} catch (IOException e) {
+			LOG.warn("Unable to estimate the size of the reports, they are not cached : {}", e.getMessage());
+			return Long.MAX_VALUE;
+		}
+		return cos.count;
+	}
+
+	/* same as the parent class, with the cached policies */
+	private WSReportsDTO validate(DataToValidateDTO dataToValidate) {
+		LOG.info("ValidateDocument in process...");
+		SignedDocumentValidator documentValidator = SignedDocumentValidator.fromDocument(RemoteDocumentConverter.toDSSDocument(dataToValidate.getSignedDocument()));
+		if (Utils.isCollectionNotEmpty(dataToValidate.getOriginalDocuments())) {
+			List<DSSDocument> originalDocuments = new ArrayList<DSSDocument>();
+			for (RemoteDocument originalDocument : dataToValidate.getOriginalDocuments()) {
+				originalDocuments.add(RemoteDocumentConverter.toDSSDocument(originalDocument));
+			}
+			documentValidator.setDetachedContents(originalDocuments);
+		}
+		documentValidator.setCertificateVerifier(verifier);
+		if (dataToValidate.getTokenExtractionStategy() != null) {
+			documentValidator.setTokenExtractionStategy(dataToValidate.getTokenExtractionStategy());
+		}
+
+		RemoteDocument policy = dataToValidate.getPolicy();
+		Reports reports = documentValidator.validateDocument(policy != null ? validationPolicyCache.getPolicy(policy.getBytes())
+				: validationPolicyCache.getDefaultPolicy());
+		LOG.info("ValidateDocument is finished");
+		return new WSReportsDTO(reports.getDiagnosticDataJaxb(), reports.getSimpleReportJaxb(), reports.getDetailedReportJaxb(),
+				reports.getEtsiValidationReportJaxb());
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+
+	}
+
+	/* feeds the key without keeping the serialized request in memory */
+	private static class KeyOutputStream extends OutputStream {
+
+		private final ValidationResultCache.Key key;
+
+		private KeyOutputStream(ValidationResultCache.Key key) {
+			this.key = key;
+		}
+
+		@Override
+		public void write(int b) {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			key.update(b, off, len);
+		}
+
+	}
+
+}
@@ -0,0 +1,209 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.spi.x509.CommonCertificateSource;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.CertificateValidator;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.reports.CertificateReports;
+import eu.europa.esig.dss.web.model.CertificateBatchError;
+import eu.europa.esig.dss.web.model.CertificateBatchRequest;
+import eu.europa.esig.dss.ws.cert.validation.dto.CertificateReportsDTO;
+import eu.europa.esig.dss.ws.converter.RemoteCertificateConverter;
+import eu.europa.esig.dss.ws.dto.RemoteCertificate;
+
+/**
+ * Validates a batch of certificates with the same validation time. The certificates of the batch and the provided
+ * chain are gathered in one adjunct certificate source (the common issuers are only present once) and the revocation
+ * data are kept for the whole batch, so that the chain building and the revocation requests of the common issuers are
+ * shared. A certificate present twice in the batch is only validated once.
+ *
+ * The reports (the same as the ones of the certificate validation service) are written as NDJSON, in the order of the
+ * request. At most {@code certificate.batch.max.pending} validations are in progress or not yet written per request,
+ * a validation is released once the last line of its certificate is written.
+ * A certificate which cannot be validated gets a {@link CertificateBatchError} line. If the response cannot be written
+ * (eg: client disconnected), the remaining validations of the request are cancelled.
+ */
+@Component
+public class CertificateBatchValidationService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CertificateBatchValidationService.class);
+
+	private static final byte NEW_LINE = '\n';
+
+	@Value("${certificate.batch.pool.size}")
+	private int poolSize;
+
+	@Value("${certificate.batch.max.pending}")
+	private int maxPending;
+
+	@Value("${certificate.batch.max.size}")
+	private int maxSize;
+
+	@Autowired
+	private CertificateVerifier certificateVerifier;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	public void init() {
+		executor = Executors.newFixedThreadPool(poolSize);
+	}
+
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Checks the request before the beginning of the response
+	 *
+	 * @param request the batch request
+	 */
+	public void checkRequest(CertificateBatchRequest request) {
+		if (request == null || Utils.isCollectionEmpty(request.getCertificates())) {
+			throw new DSSException("At least one certificate is required");
+		}
+		if (request.getCertificates().size() > maxSize) {
+			throw new DSSException("Too many certificates (maximum " + maxSize + ")");
+		}
+	}
+
+	/**
+	 * Validates the certificates of the batch
+	 *
+	 * @param request the batch request
+	 * @param os      the stream where the reports are written (one line per certificate)
+	 * @throws IOException if the reports cannot be written
+	 */
+	public void validate(CertificateBatchRequest request, OutputStream os) throws IOException {
+		checkRequest(request);
+
+		List<CertificateToken> certificates = toCertificateTokens(request.getCertificates());
+		CommonCertificateSource adjunctCertSource = new CommonCertificateSource();
+		for (CertificateToken certificate : certificates) {
+			adjunctCertSource.addCertificate(certificate);
+		}
+		for (CertificateToken certificate : toCertificateTokens(request.getCertificateChain())) {
+			adjunctCertSource.addCertificate(certificate);
+		}
+
+		MemoizedRevocationSources revocationSources = new MemoizedRevocationSources(certificateVerifier);
+		CertificateVerifier cv = CertificateVerifierOverlay.of(certificateVerifier, adjunctCertSource, revocationSources.getOcspSource(),
+				revocationSources.getCrlSource());
+		Date validationTime = request.getValidationTime() != null ? request.getValidationTime() : new Date();
+		TokenExtractionStategy tokenExtractionStrategy = request.getTokenExtractionStrategy() != null ? request.getTokenExtractionStrategy()
+				: TokenExtractionStategy.NONE;
+
+		// last position of each certificate in the batch : its validation is released once this line is written
+		List<String> ids = new ArrayList<String>(certificates.size());
+		Map<String, Integer> lastPositions = new HashMap<String, Integer>();
+		for (CertificateToken certificate : certificates) {
+			lastPositions.put(certificate.getDSSIdAsString(), ids.size());
+			ids.add(certificate.getDSSIdAsString());
+		}
+
+		ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+		// validations in progress or not yet written
+		Map<String, Future<Object>> validations = new HashMap<String, Future<Object>>();
+		Deque<Integer> pending = new ArrayDeque<Integer>();
+		try {
+			for (int position = 0; position < certificates.size(); position++) {
+				CertificateToken certificate = certificates.get(position);
+				String id = ids.get(position);
+				if (!validations.containsKey(id)) {
+					validations.put(id, executor.submit(() -> validate(certificate, cv, validationTime, tokenExtractionStrategy)));
+				}
+				pending.add(position);
+				while (pending.size() >= maxPending || (!pending.isEmpty() && validations.get(ids.get(pending.peek())).isDone())) {
+					write(writer, pending.poll(), ids, lastPositions, validations, os);
+				}
+			}
+			while (!pending.isEmpty()) {
+				write(writer, pending.poll(), ids, lastPositions, validations, os);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DSSException("Certificate batch validation interrupted", e);
+		} finally {
+			// empty once all the reports are written
+			for (Future<Object> validation : validations.values()) {
+				validation.cancel(true);
+			}
+		}
+		LOG.info("Batch validation of {} certificate(s) completed ({} distinct)", certificates.size(), lastPositions.size());
+	}
+
+	/* the reports or an error */
+	private Object validate(CertificateToken certificate, CertificateVerifier cv, Date validationTime, TokenExtractionStategy tokenExtractionStrategy) {
+		try {
+			CertificateValidator certificateValidator = CertificateValidator.fromCertificate(certificate);
+			certificateValidator.setCertificateVerifier(cv);
+			certificateValidator.setTokenExtractionStategy(tokenExtractionStrategy);
+			certificateValidator.setValidationTime(validationTime);
+			CertificateReports reports = certificateValidator.validate();
+			return new CertificateReportsDTO(reports.getDiagnosticDataJaxb(), reports.getSimpleReportJaxb(), reports.getDetailedReportJaxb());
+		} catch (Exception e) {
+			LOG.debug("Unable to validate the certificate {} : {}", certificate.getDSSIdAsString(), e.getMessage());
+			return new CertificateBatchError(certificate.getDSSIdAsString(), e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+		}
+	}
+
+	private List<CertificateToken> toCertificateTokens(List<RemoteCertificate> remoteCertificates) {
+		List<CertificateToken> certificates = new ArrayList<CertificateToken>();
+		if (remoteCertificates != null) {
+			for (RemoteCertificate remoteCertificate : remoteCertificates) {
+				certificates.add(RemoteCertificateConverter.toCertificateToken(remoteCertificate));
+			}
+		}
+		return certificates;
+	}
+
+	private void write(ObjectWriter writer, int position, List<String> ids, Map<String, Integer> lastPositions, Map<String, Future<Object>> validations,
+			OutputStream os) throws IOException, InterruptedException {
+		String id = ids.get(position);
+		try {
+			os.write(writer.writeValueAsBytes(validations.get(id).get()));
+		} catch (ExecutionException e) {
+			throw new DSSException("Unexpected error during the certificate batch validation", e);
+		}
+		if (lastPositions.get(id) == position) {
+			validations.remove(id);
+		}
+		os.write(NEW_LINE);
+		os.flush();
+	}
+
+}
@@ -0,0 +1,268 @@
+package eu.europa.esig.dss.web.service;
+
+import eu.europa.esig.dss.alert.StatusAlert;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.spi.client.http.DataLoader;
+import eu.europa.esig.dss.spi.x509.CertificateSource;
+import eu.europa.esig.dss.spi.x509.ListCertificateSource;
+import eu.europa.esig.dss.spi.x509.revocation.crl.CRLSource;
+import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPSource;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+
+/**
+ * Request scoped view of the shared {@link CertificateVerifier} : the configuration is read from the shared instance,
+ * only the request specific parts (adjunct certificates, revocation sources) are held by the overlay. Unlike a copy
+ * made with {@code CertificateVerifierBuilder}, nothing is duplicated.
+ *
+ * The shared instance cannot be modified through the overlay : the setters throw an
+ * {@link UnsupportedOperationException}, only {@link #addAdjunctCertSources(CertificateSource...)} is overlaid.
+ */
+public final class CertificateVerifierOverlay implements CertificateVerifier {
+
+	private final CertificateVerifier shared;
+
+	/* null : the shared values are used */
+	private ListCertificateSource adjunctCertSources;
+
+	private OCSPSource ocspSource;
+
+	private CRLSource crlSource;
+
+	private CertificateVerifierOverlay(CertificateVerifier shared) {
+		this.shared = shared;
+	}
+
+	/**
+	 * Returns a certificate verifier with the adjunct certificate source added to the shared ones
+	 *
+	 * @param shared            the shared certificate verifier
+	 * @param adjunctCertSource the request certificates (eg: the chain provided with the certificate)
+	 * @return the overlay
+	 */
+	public static CertificateVerifier withAdjunctCertSource(CertificateVerifier shared, CertificateSource adjunctCertSource) {
+		CertificateVerifierOverlay overlay = new CertificateVerifierOverlay(shared);
+		overlay.addAdjunctCertSource(adjunctCertSource);
+		return overlay;
+	}
+
+	/**
+	 * Returns a certificate verifier which uses the given revocation sources
+	 *
+	 * @param shared     the shared certificate verifier
+	 * @param ocspSource the OCSP source (null to keep the shared one)
+	 * @param crlSource  the CRL source (null to keep the shared one)
+	 * @return the overlay
+	 */
+	public static CertificateVerifier withRevocationSources(CertificateVerifier shared, OCSPSource ocspSource, CRLSource crlSource) {
+		CertificateVerifierOverlay overlay = new CertificateVerifierOverlay(shared);
+		overlay.ocspSource = ocspSource;
+		overlay.crlSource = crlSource;
+		return overlay;
+	}
+
+	/**
+	 * Returns a certificate verifier with the adjunct certificate source added to the shared ones and which uses the
+	 * given revocation sources
+	 *
+	 * @param shared            the shared certificate verifier
+	 * @param adjunctCertSource the request certificates
+	 * @param ocspSource        the OCSP source (null to keep the shared one)
+	 * @param crlSource         the CRL source (null to keep the shared one)
+	 * @return the overlay
+	 */
+	public static CertificateVerifier of(CertificateVerifier shared, CertificateSource adjunctCertSource, OCSPSource ocspSource, CRLSource crlSource) {
+		CertificateVerifierOverlay overlay = new CertificateVerifierOverlay(shared);
+		overlay.addAdjunctCertSource(adjunctCertSource);
+		overlay.ocspSource = ocspSource;
+		overlay.crlSource = crlSource;
+		return overlay;
+	}
+
+	@Override
+	public ListCertificateSource getAdjunctCertSources() {
+		return adjunctCertSources != null ? adjunctCertSources : shared.getAdjunctCertSources();
+	}
+
+	@Override
+	public void addAdjunctCertSources(CertificateSource... certSources) {
+		for (CertificateSource certSource : certSources) {
+			addAdjunctCertSource(certSource);
+		}
+	}
+
+	@Override
+	public OCSPSource getOcspSource() {
+		return ocspSource != null ? ocspSource : shared.getOcspSource();
+	}
+
+	@Override
+	public CRLSource getCrlSource() {
+		return crlSource != null ? crlSource : shared.getCrlSource();
+	}
+
+	@Override
+	public ListCertificateSource getTrustedCertSources() {
+		return shared.getTrustedCertSources();
+	}
+
+	@Override
+	public DataLoader getDataLoader() {
+		return shared.getDataLoader();
+	}
+
+	@Override
+	public boolean isIncludeCertificateTokenValues() {
+		return shared.isIncludeCertificateTokenValues();
+	}
+
+	@Override
+	public boolean isIncludeCertificateRevocationValues() {
+		return shared.isIncludeCertificateRevocationValues();
+	}
+
+	@Override
+	public boolean isIncludeTimestampTokenValues() {
+		return shared.isIncludeTimestampTokenValues();
+	}
+
+	@Override
+	public StatusAlert getAlertOnMissingRevocationData() {
+		return shared.getAlertOnMissingRevocationData();
+	}
+
+	@Override
+	public StatusAlert getAlertOnUncoveredPOE() {
+		return shared.getAlertOnUncoveredPOE();
+	}
+
+	@Override
+	public StatusAlert getAlertOnRevokedCertificate() {
+		return shared.getAlertOnRevokedCertificate();
+	}
+
+	@Override
+	public StatusAlert getAlertOnInvalidTimestamp() {
+		return shared.getAlertOnInvalidTimestamp();
+	}
+
+	@Override
+	public StatusAlert getAlertOnNoRevocationAfterBestSignatureTime() {
+		return shared.getAlertOnNoRevocationAfterBestSignatureTime();
+	}
+
+	@Override
+	public boolean isCheckRevocationForUntrustedChains() {
+		return shared.isCheckRevocationForUntrustedChains();
+	}
+
+	@Override
+	public DigestAlgorithm getDefaultDigestAlgorithm() {
+		return shared.getDefaultDigestAlgorithm();
+	}
+
+	@Override
+	public void setCrlSource(CRLSource crlSource) {
+		throw unsupported("setCrlSource");
+	}
+
+	@Override
+	public void setOcspSource(OCSPSource ocspSource) {
+		throw unsupported("setOcspSource");
+	}
+
+	@Override
+	public void setTrustedCertSources(CertificateSource... certSources) {
+		throw unsupported("setTrustedCertSources");
+	}
+
+	@Override
+	public void addTrustedCertSources(CertificateSource... certSources) {
+		throw unsupported("addTrustedCertSources");
+	}
+
+	@Override
+	public void setAdjunctCertSources(CertificateSource... certSources) {
+		throw unsupported("setAdjunctCertSources");
+	}
+
+	@Override
+	public void setDataLoader(DataLoader dataLoader) {
+		throw unsupported("setDataLoader");
+	}
+
+	@Override
+	public void setIncludeCertificateTokenValues(boolean include) {
+		throw unsupported("setIncludeCertificateTokenValues");
+	}
+
+	@Override
+	public void setIncludeCertificateRevocationValues(boolean include) {
+		throw unsupported("setIncludeCertificateRevocationValues");
+	}
+
+	@Override
+	public void setIncludeTimestampTokenValues(boolean include) {
+		throw unsupported("setIncludeTimestampTokenValues");
+	}
+
+	@Override
+	public void setAlertOnMissingRevocationData(StatusAlert alertOnMissingRevocationData) {
+		throw unsupported("setAlertOnMissingRevocationData");
+	}
+
+	@Override
+	public void setAlertOnUncoveredPOE(StatusAlert alertOnUncoveredPOE) {
+		throw unsupported("setAlertOnUncoveredPOE");
+	}
+
+	@Override
+	public void setAlertOnRevokedCertificate(StatusAlert alertOnRevokedCertificate) {
+		throw unsupported("setAlertOnRevokedCertificate");
+	}
+
+	@Override
+	public void setAlertOnInvalidTimestamp(StatusAlert alertOnInvalidTimestamp) {
+		throw unsupported("setAlertOnInvalidTimestamp");
+	}
+
+	@Override
+	public void setAlertOnNoRevocationAfterBestSignatureTime(StatusAlert alertOnNoRevocationAfterBestSignatureTime) {
+		throw unsupported("setAlertOnNoRevocationAfterBestSignatureTime");
+	}
+
+	@Override
+	public void setCheckRevocationForUntrustedChains(boolean enable) {
+		throw unsupported("setCheckRevocationForUntrustedChains");
+	}
+
+	@Override
+	public void setDefaultDigestAlgorithm(DigestAlgorithm digestAlgorithm) {
+		throw unsupported("setDefaultDigestAlgorithm");
+	}
+
+	@Override
+	public String toString() {
+		return "CertificateVerifierOverlay of " + shared;
+	}
+
+	private static UnsupportedOperationException unsupported(String method) {
+		return new UnsupportedOperationException("The shared certificate verifier cannot be modified (" + method + ")");
+	}
+
+	private void addAdjunctCertSource(CertificateSource source) {
+		if (source == null) {
+			return;
+		}
+		if (adjunctCertSources == null) {
+			adjunctCertSources = new ListCertificateSource();
+			ListCertificateSource sharedSources = shared.getAdjunctCertSources();
+			if (sharedSources != null) {
+				for (CertificateSource sharedSource : sharedSources.getSources()) {
+					adjunctCertSources.add(sharedSource);
+				}
+			}
+		}
+		adjunctCertSources.add(source);
+	}
+
+}
@@ -0,0 +1,66 @@
+package eu.europa.esig.dss.web.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.web.WebAppUtils;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.ExtensionForm;
+import eu.europa.esig.dss.web.model.ExtensionJobParameters;
+
+@Component
+public class ExtensionJobService extends AbstractAsyncJobService<ExtensionJobParameters> {
+
+	private static final String TABLE_NAME = "EXTENSION_JOBS";
+
+	@Value("${async.extension.pool.size}")
+	private int poolSize;
+
+	@Value("${async.extension.queue.capacity}")
+	private int queueCapacity;
+
+	@Value("${async.jobs.retention.time}")
+	private long retentionTime;
+
+	@Autowired
+	private SigningService signingService;
+
+	public AsyncJob submit(ExtensionForm extensionForm) {
+		ExtensionJobParameters parameters = new ExtensionJobParameters();
+		parameters.setSignedDocument(WebAppUtils.toDSSDocument(extensionForm.getSignedFile()));
+		parameters.setOriginalDocuments(WebAppUtils.toDSSDocuments(extensionForm.getOriginalFiles()));
+		parameters.setContainerType(extensionForm.getContainerType());
+		parameters.setSignatureForm(extensionForm.getSignatureForm());
+		parameters.setSignatureLevel(extensionForm.getSignatureLevel());
+		return submit(parameters);
+	}
+
+	@Override
+	protected DSSDocument process(String id, ExtensionJobParameters parameters) {
+		return signingService.extend(parameters.getSignedDocument(), parameters.getOriginalDocuments(), parameters.getContainerType(),
+				parameters.getSignatureForm(), parameters.getSignatureLevel());
+	}
+
+	@Override
+	protected String getTableName() {
+		return TABLE_NAME;
+	}
+
+	@Override
+	protected int getPoolSize() {
+		return poolSize;
+	}
+
+	@Override
+	protected int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	@Override
+	protected long getRetentionTime() {
+		return retentionTime;
+	}
+
+}
@@ -1,28 +1,77 @@
 package eu.europa.esig.dss.web.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 import javax.annotation.PostConstruct;
-import javax.xml.transform.Result;
+import javax.xml.transform.Templates;
 import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.stream.StreamSource;
 
 import org.apache.fop.apps.FOUserAgent;
 import org.apache.fop.apps.Fop;
 import org.apache.fop.apps.FopFactory;
 import org.apache.fop.apps.FopFactoryBuilder;
 import org.apache.fop.apps.MimeConstants;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import eu.europa.esig.dss.detailedreport.DetailedReportFacade;
-import eu.europa.esig.dss.simplereport.SimpleReportFacade;
-
+import eu.europa.esig.dss.detailedreport.DetailedReportXmlDefiner;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.simplereport.SimpleReportXmlDefiner;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.exception.ServiceUnavailableException;
 
+/**
+ * Renders the PDF reports with Apache FOP.
+ *
+ * The {@link FopFactory} is shared, but each rendering gets its own {@link FOUserAgent}. At most
+ * {@code fop.render.max.concurrent} renderings run in parallel, up to {@code fop.render.max.queued} requests wait for
+ * their turn and above this limit the request is refused. The generated PDFs are kept in a LRU cache, keyed by the
+ * digest of the report (or the id of the stored reports), so that a report downloaded again is not rendered twice.
+ * On a cache miss the PDF is streamed to the client while it is rendered, the copy for the cache is only kept while
+ * it is below {@code fop.pdf.cache.max.size}.
+ *
+ * The XML is transformed from a stream with the compiled PDF stylesheets of DSS, without unmarshalling the report.
+ */
 @Component
 public class FOPService {
 
+	@Value("${fop.render.max.concurrent}")
+	private int maxConcurrentRenderings;
+
+	@Value("${fop.render.max.queued}")
+	private int maxQueuedRenderings;
+
+	@Value("${fop.pdf.cache.max.size}")
+	private long maxCacheSize;
+
 	private FopFactory fopFactory;
-	private FOUserAgent foUserAgent;
+
+	private Templates simpleReportTemplates;
+
+	private Templates detailedReportTemplates;
+
+	/* Running and waiting renderings */
+	private Semaphore admissions;
+
+	/* Running renderings */
+	private Semaphore renderings;
+
+	/* access-ordered, synchronized on itself */
+	private final Map<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long cacheSize;
 
 	@PostConstruct
 	public void init() throws Exception {
@@ -31,21 +80,179 @@ public class FOPService {
 
 		fopFactory = builder.build();
 
-		foUserAgent = fopFactory.newFOUserAgent();
-		foUserAgent.setCreator("DSS Webapp");
-		foUserAgent.setAccessibility(true);
+		simpleReportTemplates = SimpleReportXmlDefiner.getPdfTemplates();
+		detailedReportTemplates = DetailedReportXmlDefiner.getPdfTemplates();
+
+		renderings = new Semaphore(maxConcurrentRenderings, true);
+		admissions = new Semaphore(maxConcurrentRenderings + maxQueuedRenderings);
 	}
 
 	public void generateSimpleReport(String simpleReport, OutputStream os) throws Exception {
-		Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, foUserAgent, os);
-		Result result = new SAXResult(fop.getDefaultHandler());
-		SimpleReportFacade.newFacade().generatePdfReport(simpleReport, result);
+		generateSimpleReport(getKey(simpleReport), toStreamProvider(simpleReport), os);
+	}
+
+	/**
+	 * Renders the simple report, the XML is read from the stream and transformed without being loaded in memory
+	 *
+	 * @param key          a unique key of the report content, for the PDF cache
+	 * @param simpleReport provides the XML of the simple report
+	 * @param os           the stream where the PDF is written
+	 * @throws Exception if the report cannot be rendered
+	 */
+	public void generateSimpleReport(String key, XmlStreamProvider simpleReport, OutputStream os) throws Exception {
+		render("simple:" + key, simpleReportTemplates, simpleReport, os);
 	}
 
 	public void generateDetailedReport(String detailedReport, OutputStream os) throws Exception {
-		Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, foUserAgent, os);
-		Result result = new SAXResult(fop.getDefaultHandler());
-		DetailedReportFacade.newFacade().generatePdfReport(detailedReport, result);
+		generateDetailedReport(getKey(detailedReport), toStreamProvider(detailedReport), os);
+	}
+
+	/**
+	 * Renders the detailed report, the XML is read from the stream and transformed without being loaded in memory
+	 *
+	 * @param key            a unique key of the report content, for the PDF cache
+	 * @param detailedReport provides the XML of the detailed report
+	 * @param os             the stream where the PDF is written
+	 * @throws Exception if the report cannot be rendered
+	 */
+	public void generateDetailedReport(String key, XmlStreamProvider detailedReport, OutputStream os) throws Exception {
+		render("detailed:" + key, detailedReportTemplates, detailedReport, os);
+	}
+
+	/**
+	 * @return the number of PDF reports in cache
+	 */
+	public int getNumberOfCachedReports() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	private void render(String key, Templates templates, XmlStreamProvider report, OutputStream os) throws Exception {
+		byte[] pdf = getCached(key);
+		if (pdf != null) {
+			Utils.write(pdf, os);
+			return;
+		}
+		if (!admissions.tryAcquire()) {
+			throw new ServiceUnavailableException("Too many PDF reports in progress, please retry later");
+		}
+		try {
+			renderings.acquire();
+			try {
+				// a report requested twice while waiting is only rendered once
+				pdf = getCached(key);
+				if (pdf != null) {
+					Utils.write(pdf, os);
+					return;
+				}
+				CachingOutputStream cos = new CachingOutputStream(os, maxCacheSize);
+				Fop fop = fopFactory.newFop(MimeConstants.MIME_PDF, newUserAgent(), cos);
+				try (InputStream is = report.open()) {
+					templates.newTransformer().transform(new StreamSource(is), new SAXResult(fop.getDefaultHandler()));
+				}
+				pdf = cos.getCopy();
+				if (pdf != null) {
+					putCached(key, pdf);
+				}
+			} finally {
+				renderings.release();
+			}
+		} finally {
+			admissions.release();
+		}
+	}
+
+	private FOUserAgent newUserAgent() {
+		FOUserAgent foUserAgent = fopFactory.newFOUserAgent();
+		foUserAgent.setCreator("DSS Webapp");
+		foUserAgent.setAccessibility(true);
+		return foUserAgent;
+	}
+
+	private byte[] getCached(String key) {
+		synchronized (cache) {
+			return cache.get(key);
+		}
+	}
+
+	private void putCached(String key, byte[] pdf) {
+		if (pdf.length > maxCacheSize) {
+			return;
+		}
+		synchronized (cache) {
+			byte[] previous = cache.put(key, pdf);
+			if (previous != null) {
+				cacheSize -= previous.length;
+			}
+			cacheSize += pdf.length;
+			Iterator<byte[]> eldest = cache.values().iterator();
+			while (cacheSize > maxCacheSize && eldest.hasNext()) {
+				cacheSize -= eldest.next().length;
+				eldest.remove();
+			}
+		}
+	}
+
+	private String getKey(String report) {
+		return Utils.toBase64(DSSUtils.digest(DigestAlgorithm.SHA256, report.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private XmlStreamProvider toStreamProvider(String report) {
+		return () -> new ByteArrayInputStream(report.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/* writes to the client and keeps a copy as long as it is not bigger than the limit */
+	private static class CachingOutputStream extends OutputStream {
+
+		private final OutputStream os;
+
+		private final long limit;
+
+		private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+		private CachingOutputStream(OutputStream os, long limit) {
+			this.os = os;
+			this.limit = limit;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			os.write(b, off, len);
+			if (copy != null) {
+				if (copy.size() + len > limit) {
+					copy = null;
+				} else {
+					copy.write(b, off, len);
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			os.flush();
+		}
+
+		/* null if the PDF is too big to be cached */
+		private byte[] getCopy() {
+			return copy != null ? copy.toByteArray() : null;
+		}
+
+	}
+
+	/**
+	 * Opens the XML report to be rendered
+	 */
+	@FunctionalInterface
+	public interface XmlStreamProvider {
+
+		InputStream open() throws IOException;
+
 	}
 
 }
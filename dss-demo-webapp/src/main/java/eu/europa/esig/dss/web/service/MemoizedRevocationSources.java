@@ -0,0 +1,127 @@
+package eu.europa.esig.dss.web.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.spi.x509.revocation.crl.CRLSource;
+import eu.europa.esig.dss.spi.x509.revocation.crl.CRLToken;
+import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPSource;
+import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPToken;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+
+/**
+ * OCSP and CRL sources which keep the responses of the shared sources for the duration of one validation (or one
+ * batch of validations). Concurrent requests for the same certificate wait for the first one.
+ *
+ * The map only holds the futures of the responses : the request itself runs outside of the map, so the requests for
+ * different certificates run in parallel even if their keys share a bin of the map. A failed request is not memoized.
+ */
+final class MemoizedRevocationSources {
+
+	private final MemoizedOCSPSource ocspSource;
+
+	private final MemoizedCRLSource crlSource;
+
+	MemoizedRevocationSources(CertificateVerifier certificateVerifier) {
+		this.ocspSource = certificateVerifier.getOcspSource() != null ? new MemoizedOCSPSource(certificateVerifier.getOcspSource()) : null;
+		this.crlSource = certificateVerifier.getCrlSource() != null ? new MemoizedCRLSource(certificateVerifier.getCrlSource()) : null;
+	}
+
+	/**
+	 * @return the memoized OCSP source or null if the certificate verifier has none
+	 */
+	OCSPSource getOcspSource() {
+		return ocspSource;
+	}
+
+	/**
+	 * @return the memoized CRL source or null if the certificate verifier has none
+	 */
+	CRLSource getCrlSource() {
+		return crlSource;
+	}
+
+	/**
+	 * Requests the revocation data in the same order as the validation : OCSP first, CRL if there is no OCSP response
+	 *
+	 * @param certificate the certificate
+	 * @param issuer      its issuer
+	 */
+	void prefetch(CertificateToken certificate, CertificateToken issuer) {
+		if (ocspSource == null || ocspSource.getRevocationToken(certificate, issuer) == null) {
+			if (crlSource != null) {
+				crlSource.getRevocationToken(certificate, issuer);
+			}
+		}
+	}
+
+	private static String key(CertificateToken certificate, CertificateToken issuer) {
+		return certificate.getDSSIdAsString() + (issuer != null ? issuer.getDSSIdAsString() : "");
+	}
+
+	private static <T> T get(ConcurrentMap<String, CompletableFuture<T>> cache, CertificateToken certificate, CertificateToken issuer,
+			BiFunction<CertificateToken, CertificateToken, T> source) {
+		String key = key(certificate, issuer);
+		CompletableFuture<T> created = new CompletableFuture<T>();
+		// only the (empty) future is created in the map, the request is sent outside of it
+		CompletableFuture<T> future = cache.computeIfAbsent(key, k -> created);
+		if (future == created) {
+			try {
+				created.complete(source.apply(certificate, issuer));
+			} catch (RuntimeException e) {
+				// the next call requests it again
+				cache.remove(key, created);
+				created.completeExceptionally(e);
+				throw e;
+			}
+		}
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+		}
+	}
+
+	private static class MemoizedOCSPSource implements OCSPSource {
+
+		private static final long serialVersionUID = -3521717232683101367L;
+
+		private final OCSPSource source;
+
+		private final ConcurrentMap<String, CompletableFuture<OCSPToken>> tokens = new ConcurrentHashMap<String, CompletableFuture<OCSPToken>>();
+
+		MemoizedOCSPSource(OCSPSource source) {
+			this.source = source;
+		}
+
+		@Override
+		public OCSPToken getRevocationToken(CertificateToken certificateToken, CertificateToken issuerCertificateToken) {
+			return get(tokens, certificateToken, issuerCertificateToken, source::getRevocationToken);
+		}
+
+	}
+
+	private static class MemoizedCRLSource implements CRLSource {
+
+		private static final long serialVersionUID = 6613342870218612094L;
+
+		private final CRLSource source;
+
+		private final ConcurrentMap<String, CompletableFuture<CRLToken>> tokens = new ConcurrentHashMap<String, CompletableFuture<CRLToken>>();
+
+		MemoizedCRLSource(CRLSource source) {
+			this.source = source;
+		}
+
+		@Override
+		public CRLToken getRevocationToken(CertificateToken certificateToken, CertificateToken issuerCertificateToken) {
+			return get(tokens, certificateToken, issuerCertificateToken, source::getRevocationToken);
+		}
+
+	}
+
+}
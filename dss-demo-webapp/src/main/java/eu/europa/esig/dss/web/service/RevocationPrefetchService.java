@@ -0,0 +1,218 @@
+package eu.europa.esig.dss.web.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.spi.x509.ListCertificateSource;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.AdvancedSignature;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.timestamp.TimestampToken;
+
+/**
+ * Speeds up the validation of the documents with several signatures. DSS validates the signatures one after another
+ * and most of the time is spent in the revocation requests (OCSP / CRL). Before the validation, the revocation data of
+ * all the certificates found in the signatures and their timestamps are requested in parallel. The results are kept in
+ * a per-validation cache (see {@link CertificateVerifierOverlay}), the validation then reads them from this cache instead
+ * of the network.
+ *
+ * Like the validation, only the chains which end in a trusted certificate are checked (unless the certificate verifier
+ * checks the untrusted chains) and the certificates with revocation data embedded in the signatures are skipped : the
+ * prefetch does not send requests that the validation would not send.
+ *
+ * Disabled by default, enabled with {@code validation.parallel.enabled}, for the documents with at least two
+ * signatures.
+ */
+@Component
+public class RevocationPrefetchService {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RevocationPrefetchService.class);
+
+	/* protection against the loops of cross-certified certificates */
+	private static final int MAX_CHAIN_LENGTH = 10;
+
+	@Value("${validation.parallel.enabled}")
+	private boolean enabled;
+
+	@Value("${validation.parallel.pool.size}")
+	private int poolSize;
+
+	@Value("${validation.parallel.timeout}")
+	private long timeout;
+
+	@Autowired
+	private CertificateVerifier certificateVerifier;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	public void init() {
+		if (enabled) {
+			executor = Executors.newFixedThreadPool(poolSize);
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Sets the certificate verifier of the validator. If several signatures are found, their revocation data are
+	 * requested in parallel and the validator receives an overlay of the certificate verifier which reuses them.
+	 *
+	 * @param documentValidator the validator of the document
+	 */
+	public void setCertificateVerifier(SignedDocumentValidator documentValidator) {
+		documentValidator.setCertificateVerifier(certificateVerifier);
+		if (!enabled) {
+			return;
+		}
+
+		List<AdvancedSignature> signatures = documentValidator.getSignatures();
+		if (signatures.size() < 2) {
+			return;
+		}
+
+		Map<String, CertificateToken[]> pairs = getCertificatesToCheck(signatures);
+		if (pairs.isEmpty()) {
+			return;
+		}
+
+		MemoizedRevocationSources revocationSources = new MemoizedRevocationSources(certificateVerifier);
+
+		long start = System.currentTimeMillis();
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (CertificateToken[] pair : pairs.values()) {
+			futures.add(executor.submit(() -> revocationSources.prefetch(pair[0], pair[1])));
+		}
+		waitFor(futures, start + timeout);
+		LOG.debug("Revocation data of {} certificate(s) prefetched in {} ms", pairs.size(), System.currentTimeMillis() - start);
+
+		documentValidator.setCertificateVerifier(CertificateVerifierOverlay.withRevocationSources(certificateVerifier, revocationSources.getOcspSource(),
+				revocationSources.getCrlSource()));
+	}
+
+	/*
+	 * certificate id -> { certificate, issuer }, for the certificates whose revocation data would be requested by the
+	 * validation : the chain ends in a trusted certificate (or the untrusted chains are checked too), the certificate is
+	 * not trusted itself and no revocation data is embedded in the signatures for it
+	 */
+	private Map<String, CertificateToken[]> getCertificatesToCheck(List<AdvancedSignature> signatures) {
+		Map<String, CertificateToken> certificates = new LinkedHashMap<String, CertificateToken>();
+		for (AdvancedSignature signature : signatures) {
+			addAll(certificates, signature.getCertificates());
+			for (TimestampToken timestamp : signature.getAllTimestamps()) {
+				addAll(certificates, timestamp.getCertificates());
+			}
+		}
+
+		ListCertificateSource trustedCertSources = certificateVerifier.getTrustedCertSources();
+		List<CertificateToken> candidates = new ArrayList<CertificateToken>(certificates.values());
+		if (trustedCertSources != null) {
+			candidates.addAll(trustedCertSources.getAllCertificateTokens());
+		}
+
+		Map<String, CertificateToken[]> pairs = new LinkedHashMap<String, CertificateToken[]>();
+		for (CertificateToken certificate : certificates.values()) {
+			List<CertificateToken[]> chain = new ArrayList<CertificateToken[]>();
+			boolean trustedChain = false;
+			CertificateToken current = certificate;
+			while (current != null && chain.size() < MAX_CHAIN_LENGTH) {
+				if (isTrusted(trustedCertSources, current)) {
+					trustedChain = true;
+					break;
+				}
+				if (current.isSelfSigned()) {
+					break;
+				}
+				CertificateToken issuer = getIssuer(current, candidates);
+				if (issuer != null) {
+					chain.add(new CertificateToken[] { current, issuer });
+				}
+				current = issuer;
+			}
+			if (!trustedChain && !certificateVerifier.isCheckRevocationForUntrustedChains()) {
+				continue;
+			}
+			for (CertificateToken[] pair : chain) {
+				if (!isRevocationDataEmbedded(signatures, pair[0], pair[1])) {
+					pairs.putIfAbsent(pair[0].getDSSIdAsString(), pair);
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private boolean isTrusted(ListCertificateSource trustedCertSources, CertificateToken certificate) {
+		return trustedCertSources != null && trustedCertSources.isTrusted(certificate);
+	}
+
+	private CertificateToken getIssuer(CertificateToken certificate, List<CertificateToken> candidates) {
+		for (CertificateToken candidate : candidates) {
+			if (candidate != certificate && certificate.getIssuerX500Principal().equals(candidate.getSubjectX500Principal())
+					&& certificate.isSignedBy(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private boolean isRevocationDataEmbedded(List<AdvancedSignature> signatures, CertificateToken certificate, CertificateToken issuer) {
+		for (AdvancedSignature signature : signatures) {
+			if (Utils.isCollectionNotEmpty(signature.getOCSPSource().getRevocationTokens(certificate, issuer))
+					|| Utils.isCollectionNotEmpty(signature.getCRLSource().getRevocationTokens(certificate, issuer))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addAll(Map<String, CertificateToken> certificates, Collection<CertificateToken> tokens) {
+		if (tokens != null) {
+			for (CertificateToken token : tokens) {
+				certificates.putIfAbsent(token.getDSSIdAsString(), token);
+			}
+		}
+	}
+
+	private void waitFor(List<Future<?>> futures, long deadline) {
+		for (Future<?> future : futures) {
+			try {
+				future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// the validation will request the missing data itself
+				LOG.warn("Revocation prefetch not completed after {} ms", timeout);
+				return;
+			} catch (ExecutionException e) {
+				LOG.debug("Revocation prefetch failed : {}", e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.StoredDocument;
+
+/**
+ * Keeps the signed documents on disk until their download. The files are removed after a configurable time to live.
+ * Single byte ranges are supported.
+ * 
+ * The content is sent by Tomcat with sendfile when the connector supports it. Otherwise it is copied from a
+ * {@link FileChannel} to the servlet output stream, which is not zero-copy.
+ * 
+ * The files are written in a private folder of this instance (readable by its owner only), removed when the
+ * application stops.
+ */
+@Component
+public class SignedDocumentStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SignedDocumentStore.class);
+
+	private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	@Value("${signed.document.store.ttl}")
+	private long timeToLive;
+
+	private File storeDirectory;
+
+	@PostConstruct
+	public void init() {
+		try {
+			if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+				FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+				storeDirectory = Files.createTempDirectory("dss-signed-documents", ownerOnly).toFile();
+			} else {
+				// in the temporary folder of the user
+				storeDirectory = Files.createTempDirectory("dss-signed-documents").toFile();
+			}
+		} catch (IOException e) {
+			throw new DSSException("Unable to create the signed documents folder", e);
+		}
+		LOG.info("Signed documents folder : {}", storeDirectory.getAbsolutePath());
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (storeDirectory != null) {
+			// the stored documents are only known by the sessions of this instance
+			File[] files = storeDirectory.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					delete(file.toPath());
+				}
+			}
+			delete(storeDirectory.toPath());
+		}
+	}
+
+	public StoredDocument store(DSSDocument document) {
+		String id = UUID.randomUUID().toString();
+		File file = getFile(id);
+		try (InputStream is = document.openStream(); OutputStream os = Files.newOutputStream(file.toPath())) {
+			Utils.copy(is, os);
+		} catch (IOException e) {
+			throw new DSSException("Unable to store the signed document", e);
+		}
+		String mimeType = document.getMimeType() != null ? document.getMimeType().getMimeTypeString() : null;
+		return new StoredDocument(id, document.getName(), mimeType, file.length());
+	}
+
+	public void download(StoredDocument storedDocument, HttpServletRequest request, HttpServletResponse response) {
+		File file = getFile(storedDocument.getId());
+		if (!file.exists()) {
+			throw new SourceNotFoundException("The signed document is not available anymore");
+		}
+
+		long size = file.length();
+		long start = 0;
+		long end = size - 1;
+
+		response.setHeader("Accept-Ranges", "bytes");
+		long[] range = parseRange(request.getHeader("Range"), size);
+		if (range != null) {
+			if (range.length == 0) {
+				response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				response.setHeader("Content-Range", "bytes */" + size);
+				return;
+			}
+			start = range[0];
+			end = range[1];
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+		}
+
+		if (storedDocument.getMimeType() != null) {
+			response.setContentType(storedDocument.getMimeType());
+		}
+		response.setHeader("Content-Transfer-Encoding", "binary");
+		response.setHeader("Content-Disposition", "attachment; filename=\"" + storedDocument.getName() + "\"");
+		long length = end - start + 1;
+		response.setContentLengthLong(length);
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			// the container sends the file after the request processing (no copy in the JVM)
+			request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				WritableByteChannel outChannel = Channels.newChannel(response.getOutputStream())) {
+			long position = start;
+			long remaining = length;
+			while (remaining > 0) {
+				long transferred = fileChannel.transferTo(position, remaining, outChannel);
+				if (transferred <= 0) {
+					break;
+				}
+				position += transferred;
+				remaining -= transferred;
+			}
+		} catch (IOException e) {
+			LOG.error("An error occurred while pushing file in response : " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Parses a Range header. Only a single byte range is supported, other values are ignored.
+	 * 
+	 * @param header
+	 *            the Range header (can be null)
+	 * @param size
+	 *            the size of the file
+	 * @return the first and the last (inclusive) positions, an empty array if the range is not satisfiable or null
+	 *         to send the complete file
+	 */
+	static long[] parseRange(String header, long size) {
+		if (header == null) {
+			return null;
+		}
+		Matcher matcher = RANGE_PATTERN.matcher(header.trim());
+		if (!matcher.matches()) {
+			// multiple ranges are not supported, the complete file is returned
+			return null;
+		}
+		String first = matcher.group(1);
+		String last = matcher.group(2);
+		if (Utils.isStringEmpty(first) && Utils.isStringEmpty(last)) {
+			// "bytes=-" is not a valid range
+			return null;
+		}
+		try {
+			long start;
+			long end = size - 1;
+			if (Utils.isStringNotEmpty(first)) {
+				start = Long.parseLong(first);
+				if (Utils.isStringNotEmpty(last)) {
+					long lastPosition = Long.parseLong(last);
+					if (lastPosition < start) {
+						// invalid range, ignored
+						return null;
+					}
+					end = Math.min(lastPosition, size - 1);
+				}
+			} else {
+				// suffix range : last n bytes
+				long suffixLength = Long.parseLong(last);
+				if (suffixLength == 0) {
+					return new long[0];
+				}
+				start = Math.max(0, size - suffixLength);
+			}
+			if (start > end) {
+				return new long[0];
+			}
+			return new long[] { start, end };
+		} catch (NumberFormatException e) {
+			// too large for a long : beyond the end of the file
+			return new long[0];
+		}
+	}
+
+	@Scheduled(initialDelayString = "${signed.document.store.ttl}", fixedDelayString = "${signed.document.store.ttl}")
+	public void purgeExpiredDocuments() {
+		File[] files = storeDirectory.listFiles();
+		if (files == null) {
+			return;
+		}
+		long limit = System.currentTimeMillis() - timeToLive;
+		for (File file : files) {
+			if (file.lastModified() < limit) {
+				delete(file.toPath());
+			}
+		}
+	}
+
+	private void delete(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			LOG.warn("Unable to delete {} : {}", path, e.getMessage());
+		}
+	}
+
+	private File getFile(String id) {
+		return new File(storeDirectory, id);
+	}
+
+}
@@ -1,12 +1,22 @@
 package eu.europa.esig.dss.web.service;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import eu.europa.esig.dss.AbstractSignatureParameters;
@@ -18,8 +28,10 @@ import eu.europa.esig.dss.asic.xades.signature.ASiCWithXAdESService;
 import eu.europa.esig.dss.cades.CAdESSignatureParameters;
 import eu.europa.esig.dss.cades.signature.CAdESService;
 import eu.europa.esig.dss.enumerations.ASiCContainerType;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
 import eu.europa.esig.dss.enumerations.SignatureAlgorithm;
 import eu.europa.esig.dss.enumerations.SignatureForm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
 import eu.europa.esig.dss.enumerations.SignaturePackaging;
 import eu.europa.esig.dss.model.DSSDocument;
 import eu.europa.esig.dss.model.DSSException;
@@ -43,6 +55,8 @@ import eu.europa.esig.dss.web.model.SignatureDigestForm;
 import eu.europa.esig.dss.web.model.SignatureDocumentForm;
 import eu.europa.esig.dss.web.model.SignatureMultipleDocumentsForm;
 import eu.europa.esig.dss.web.model.TimestampForm;
+import eu.europa.esig.dss.web.tsp.CompositeTSPSource;
+import eu.europa.esig.dss.web.tsp.WeightedTSPSource;
 import eu.europa.esig.dss.x509.tsp.MockTSPSource;
 import eu.europa.esig.dss.xades.XAdESSignatureParameters;
 import eu.europa.esig.dss.xades.signature.XAdESService;
@@ -70,24 +84,57 @@ public class SigningService {
 	@Autowired
 	private TSPSource tspSource;
 
-	public boolean isMockTSPSourceUsed() {
-		return tspSource instanceof MockTSPSource;
+	@Value("${signature.digest.pool.size}")
+	private int digestPoolSize;
+
+	private ExecutorService digestExecutor;
+
+	@PostConstruct
+	public void init() {
+		digestExecutor = Executors.newFixedThreadPool(digestPoolSize);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	public DSSDocument extend(ExtensionForm extensionForm) {
-		LOG.info("Start extend signature");
+	@PreDestroy
+	public void destroy() {
+		digestExecutor.shutdownNow();
+	}
 
-		ASiCContainerType containerType = extensionForm.getContainerType();
-		SignatureForm signatureForm = extensionForm.getSignatureForm();
+	public boolean isMockTSPSourceUsed() {
+		return isMockTSPSource(tspSource);
+	}
 
+	/* a composite source may return the timestamps of any of its TSAs */
+	private boolean isMockTSPSource(TSPSource source) {
+		if (source instanceof CompositeTSPSource) {
+			List<WeightedTSPSource> tspSources = ((CompositeTSPSource) source).getTspSources();
+			if (tspSources != null) {
+				for (WeightedTSPSource weighted : tspSources) {
+					if (isMockTSPSource(weighted.getTspSource())) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+		return source instanceof MockTSPSource;
+	}
+
+	public DSSDocument extend(ExtensionForm extensionForm) {
 		DSSDocument signedDocument = WebAppUtils.toDSSDocument(extensionForm.getSignedFile());
 		List<DSSDocument> originalDocuments = WebAppUtils.toDSSDocuments(extensionForm.getOriginalFiles());
+		return extend(signedDocument, originalDocuments, extensionForm.getContainerType(), extensionForm.getSignatureForm(),
+				extensionForm.getSignatureLevel());
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public DSSDocument extend(DSSDocument signedDocument, List<DSSDocument> originalDocuments, ASiCContainerType containerType,
+			SignatureForm signatureForm, SignatureLevel signatureLevel) {
+		LOG.info("Start extend signature");
 
 		DocumentSignatureService service = getSignatureService(containerType, signatureForm);
 
 		AbstractSignatureParameters parameters = getSignatureParameters(containerType, signatureForm);
-		parameters.setSignatureLevel(extensionForm.getSignatureLevel());
+		parameters.setSignatureLevel(signatureLevel);
 
 		if (Utils.isCollectionNotEmpty(originalDocuments)) {
 			parameters.setDetachedContents(originalDocuments);
@@ -131,7 +178,7 @@ public class SigningService {
 
 		AbstractSignatureParameters parameters = fillParameters(form);
 
-		List<DSSDocument> toSignDocuments = WebAppUtils.toDSSDocuments(form.getDocumentsToSign());
+		List<DSSDocument> toSignDocuments = getDocumentsToSign(form);
 		ToBeSigned toBeSigned = service.getDataToSign(toSignDocuments, parameters);
 		LOG.info("End getDataToSign with multiple documents");
 		return toBeSigned;
@@ -172,7 +219,7 @@ public class SigningService {
 		MultipleDocumentsSignatureService service = getASiCSignatureService(form.getSignatureForm());
 		AbstractSignatureParameters parameters = fillParameters(form);
 
-		TimestampToken contentTimestamp = service.getContentTimestamp(WebAppUtils.toDSSDocuments(form.getDocumentsToSign()), parameters);
+		TimestampToken contentTimestamp = service.getContentTimestamp(getDocumentsToSign(form), parameters);
 
 		LOG.info("End getContentTimestamp with  multiple documents");
 		return contentTimestamp;
@@ -201,6 +248,36 @@ public class SigningService {
 		return result;
 	}
 
+	/**
+	 * Returns the documents to be signed with their digests already computed. The digests are computed in parallel
+	 * and memoized in the documents, which are kept in the form until the signature to be reused by the next steps.
+	 */
+	private List<DSSDocument> getDocumentsToSign(SignatureMultipleDocumentsForm form) {
+		List<DSSDocument> documents = form.getDssDocumentsToSign();
+		if (documents == null) {
+			documents = WebAppUtils.toDSSDocuments(form.getDocumentsToSign());
+			form.setDssDocumentsToSign(documents);
+		}
+		final DigestAlgorithm digestAlgorithm = form.getDigestAlgorithm();
+		if (digestAlgorithm != null && documents.size() > 1) {
+			List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+			for (DSSDocument document : documents) {
+				tasks.add(() -> document.getDigest(digestAlgorithm));
+			}
+			try {
+				for (Future<String> future : digestExecutor.invokeAll(tasks)) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DSSException("Interrupted while computing the digests", e);
+			} catch (ExecutionException e) {
+				throw new DSSException("Unable to compute the digests : " + e.getCause().getMessage(), e.getCause());
+			}
+		}
+		return documents;
+	}
+
 	private AbstractSignatureParameters fillParameters(SignatureMultipleDocumentsForm form) {
 		AbstractSignatureParameters finalParameters = getASiCSignatureParameters(form.getContainerType(), form.getSignatureForm());
 
@@ -289,12 +366,17 @@ public class SigningService {
 
 		AbstractSignatureParameters parameters = fillParameters(form);
 
-		List<DSSDocument> toSignDocuments = WebAppUtils.toDSSDocuments(form.getDocumentsToSign());
-		SignatureAlgorithm sigAlgorithm = SignatureAlgorithm.getAlgorithm(form.getEncryptionAlgorithm(), form.getDigestAlgorithm());
-		SignatureValue signatureValue = new SignatureValue(sigAlgorithm, Utils.fromBase64(form.getBase64SignatureValue()));
-		DSSDocument signedDocument = service.signDocument(toSignDocuments, parameters, signatureValue);
-		LOG.info("End signDocument with multiple documents");
-		return signedDocument;
+		try {
+			List<DSSDocument> toSignDocuments = getDocumentsToSign(form);
+			SignatureAlgorithm sigAlgorithm = SignatureAlgorithm.getAlgorithm(form.getEncryptionAlgorithm(), form.getDigestAlgorithm());
+			SignatureValue signatureValue = new SignatureValue(sigAlgorithm, Utils.fromBase64(form.getBase64SignatureValue()));
+			DSSDocument signedDocument = service.signDocument(toSignDocuments, parameters, signatureValue);
+			LOG.info("End signDocument with multiple documents");
+			return signedDocument;
+		} finally {
+			// the form stays in the session : the converted documents are not needed anymore
+			form.setDssDocumentsToSign(null);
+		}
 	}
 
 	@SuppressWarnings("rawtypes")
@@ -0,0 +1,72 @@
+package eu.europa.esig.dss.web.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerException;
+
+/**
+ * Pool of reusable {@link Transformer}s created from compiled {@link Templates}, with their parameters preset.
+ * 
+ * A transformer is not thread-safe : it is borrowed for one transformation and given back afterwards. When the pool
+ * is empty a new transformer is created, and at most maxIdle transformers are kept.
+ */
+public class TransformerPool {
+
+	private final Templates templates;
+
+	private final Map<String, Object> parameters;
+
+	private final BlockingQueue<Transformer> idle;
+
+	public TransformerPool(Templates templates, int maxIdle) {
+		this(templates, maxIdle, Collections.<String, Object> emptyMap());
+	}
+
+	public TransformerPool(Templates templates, int maxIdle, Map<String, Object> parameters) {
+		this.templates = templates;
+		this.parameters = parameters;
+		this.idle = new ArrayBlockingQueue<>(maxIdle);
+	}
+
+	public void transform(Source source, Result result) throws TransformerException {
+		Transformer transformer = borrow();
+		boolean reusable = false;
+		try {
+			transformer.transform(source, result);
+			reusable = true;
+		} finally {
+			// a transformer which failed is discarded, its state is unknown
+			if (reusable) {
+				idle.offer(transformer);
+			}
+		}
+	}
+
+	private Transformer borrow() throws TransformerConfigurationException {
+		Transformer transformer = idle.poll();
+		if (transformer == null) {
+			transformer = templates.newTransformer();
+			for (Entry<String, Object> parameter : parameters.entrySet()) {
+				transformer.setParameter(parameter.getKey(), parameter.getValue());
+			}
+		}
+		return transformer;
+	}
+
+	/**
+	 * @return the number of transformers ready to be reused
+	 */
+	public int getNumberOfIdleTransformers() {
+		return idle.size();
+	}
+
+}
@@ -0,0 +1,224 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.europa.esig.dss.enumerations.TokenExtractionStategy;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.service.http.commons.CommonsDataLoader;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.SignedDocumentValidator;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.ValidationJobParameters;
+import eu.europa.esig.dss.web.model.ValidationJobRequest;
+import eu.europa.esig.dss.ws.converter.RemoteDocumentConverter;
+import eu.europa.esig.dss.ws.dto.RemoteDocument;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+/**
+ * Validation of large documents outside of the HTTP request. The progress is the number of signatures found in the
+ * document and the number of validated signatures, the reports are stored as JSON ({@link WSReportsDTO}).
+ *
+ * The callback URLs are restricted to the hosts of {@code async.validation.callback.allowed.hosts} (no callback by
+ * default) and must not resolve to a loopback, link-local or site-local address.
+ */
+@Component
+public class ValidationJobService extends AbstractAsyncJobService<ValidationJobParameters> {
+
+	private static final String TABLE_NAME = "VALIDATION_JOBS";
+
+	private static final String RESULT_NAME = "reports.json";
+
+	private static final String JSON_MIMETYPE = "application/json";
+
+	@Value("${async.validation.pool.size}")
+	private int poolSize;
+
+	@Value("${async.validation.queue.capacity}")
+	private int queueCapacity;
+
+	@Value("${async.jobs.retention.time}")
+	private long retentionTime;
+
+	@Value("${async.validation.callback.allowed.hosts}")
+	private String callbackAllowedHosts;
+
+	private final Set<String> allowedCallbackHosts = new HashSet<String>();
+
+	@Autowired
+	private RevocationPrefetchService revocationPrefetchService;
+
+	@Autowired
+	private ValidationPolicyCache validationPolicyCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	@Qualifier("callbackDataLoader")
+	private CommonsDataLoader callbackDataLoader;
+
+	@Override
+	@PostConstruct
+	public void init() throws SQLException {
+		if (Utils.isStringNotBlank(callbackAllowedHosts)) {
+			for (String host : callbackAllowedHosts.split(",")) {
+				if (Utils.isStringNotBlank(host)) {
+					allowedCallbackHosts.add(host.trim().toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+		super.init();
+	}
+
+	public AsyncJob submit(ValidationJobRequest request) {
+		if (request == null || request.getSignedDocument() == null) {
+			throw new DSSException("The signed document is required");
+		}
+		String callbackUrl = request.getCallbackUrl();
+		if (Utils.isStringNotBlank(callbackUrl)) {
+			checkCallbackUrl(callbackUrl);
+		}
+
+		ValidationJobParameters parameters = new ValidationJobParameters();
+		parameters.setSignedDocument(RemoteDocumentConverter.toDSSDocument(request.getSignedDocument()));
+		List<DSSDocument> originalDocuments = new ArrayList<DSSDocument>();
+		if (request.getOriginalDocuments() != null) {
+			for (RemoteDocument originalDocument : request.getOriginalDocuments()) {
+				originalDocuments.add(RemoteDocumentConverter.toDSSDocument(originalDocument));
+			}
+		}
+		parameters.setOriginalDocuments(originalDocuments);
+		if (request.getPolicy() != null) {
+			parameters.setPolicy(RemoteDocumentConverter.toDSSDocument(request.getPolicy()));
+		}
+		parameters.setTokenExtractionStrategy(request.getTokenExtractionStrategy() != null ? request.getTokenExtractionStrategy() : TokenExtractionStategy.NONE);
+		parameters.setCallbackUrl(Utils.isStringNotBlank(callbackUrl) ? callbackUrl : null);
+		return submit(parameters);
+	}
+
+	/**
+	 * Returns the reports of a completed validation job
+	 *
+	 * @param id the job id
+	 * @return the reports or null if the job is unknown or not completed
+	 */
+	public WSReportsDTO getReports(String id) {
+		DSSDocument result = getResult(id);
+		if (result == null) {
+			return null;
+		}
+		try (InputStream is = result.openStream()) {
+			return objectMapper.readValue(is, WSReportsDTO.class);
+		} catch (Exception e) {
+			throw new DSSException("Unable to read the reports of the job " + id, e);
+		}
+	}
+
+	@Override
+	protected DSSDocument process(String id, ValidationJobParameters parameters) throws Exception {
+		SignedDocumentValidator documentValidator = SignedDocumentValidator.fromDocument(parameters.getSignedDocument());
+		documentValidator.setTokenExtractionStategy(parameters.getTokenExtractionStrategy());
+		if (Utils.isCollectionNotEmpty(parameters.getOriginalDocuments())) {
+			documentValidator.setDetachedContents(parameters.getOriginalDocuments());
+		}
+
+		revocationPrefetchService.setCertificateVerifier(documentValidator);
+
+		int nbSignatures = documentValidator.getSignatures().size();
+		updateProgress(id, 0, nbSignatures);
+
+		Reports reports = documentValidator.validateDocument(parameters.getPolicy() != null ? validationPolicyCache.getPolicy(parameters.getPolicy())
+				: validationPolicyCache.getDefaultPolicy());
+		updateProgress(id, nbSignatures, nbSignatures);
+
+		WSReportsDTO reportsDTO = new WSReportsDTO(reports.getDiagnosticDataJaxb(), reports.getSimpleReportJaxb(), reports.getDetailedReportJaxb(),
+				reports.getEtsiValidationReportJaxb());
+		return new InMemoryDocument(objectMapper.writeValueAsBytes(reportsDTO), RESULT_NAME, MimeType.fromMimeTypeString(JSON_MIMETYPE));
+	}
+
+	@Override
+	protected void onFinished(ValidationJobParameters parameters, AsyncJob job) {
+		if (parameters.getCallbackUrl() != null && job != null) {
+			// checked again : the host may resolve to another address than at the submission
+			checkCallbackUrl(parameters.getCallbackUrl());
+			try {
+				callbackDataLoader.post(parameters.getCallbackUrl(), objectMapper.writeValueAsBytes(job));
+			} catch (Exception e) {
+				throw new DSSException("Unable to call " + parameters.getCallbackUrl() + " : " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private void checkCallbackUrl(String callbackUrl) {
+		URI uri;
+		try {
+			uri = new URI(callbackUrl);
+		} catch (URISyntaxException e) {
+			throw new DSSException("The callback URL is not valid");
+		}
+		if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+			throw new DSSException("The callback URL must be an http(s) URL");
+		}
+		if (allowedCallbackHosts.isEmpty()) {
+			throw new DSSException("The callbacks are disabled");
+		}
+		String host = uri.getHost();
+		if (host == null || !allowedCallbackHosts.contains(host.toLowerCase(Locale.ROOT))) {
+			throw new DSSException("The callback host is not allowed");
+		}
+		try {
+			for (InetAddress address : InetAddress.getAllByName(host)) {
+				if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress() || address.isAnyLocalAddress()
+						|| address.isMulticastAddress()) {
+					throw new DSSException("The callback host must not resolve to a local or private address");
+				}
+			}
+		} catch (UnknownHostException e) {
+			throw new DSSException("The callback host is unknown");
+		}
+	}
+
+	@Override
+	protected String getTableName() {
+		return TABLE_NAME;
+	}
+
+	@Override
+	protected int getPoolSize() {
+		return poolSize;
+	}
+
+	@Override
+	protected int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	@Override
+	protected long getRetentionTime() {
+		return retentionTime;
+	}
+
+}
@@ -0,0 +1,125 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.policy.EtsiValidationPolicy;
+import eu.europa.esig.dss.policy.ValidationPolicy;
+import eu.europa.esig.dss.policy.ValidationPolicyFacade;
+
+/**
+ * Parsed validation policies, shared between the validations. The default policy is loaded once at startup, the
+ * uploaded policies are kept (LRU, {@code validation.policy.cache.size} entries) by the SHA-256 of their content.
+ *
+ * The policies are only read during the validation process, the same instance can be used by concurrent validations.
+ */
+@Component
+public class ValidationPolicyCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ValidationPolicyCache.class);
+
+	@Value("${validation.policy.cache.size}")
+	private int cacheSize;
+
+	@Autowired
+	private Resource defaultPolicy;
+
+	private ValidationPolicy defaultValidationPolicy;
+
+	/* access-ordered, guarded by itself */
+	private Map<String, ValidationPolicy> policies;
+
+	@PostConstruct
+	public void init() {
+		try (InputStream is = defaultPolicy.getInputStream()) {
+			defaultValidationPolicy = parse(is);
+		} catch (IOException e) {
+			throw new DSSException("Unable to load the default validation policy " + defaultPolicy, e);
+		}
+		LOG.info("Default validation policy loaded from {}", defaultPolicy);
+
+		policies = new LinkedHashMap<String, ValidationPolicy>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ValidationPolicy> eldest) {
+				return size() > cacheSize;
+			}
+
+		};
+	}
+
+	public ValidationPolicy getDefaultPolicy() {
+		return defaultValidationPolicy;
+	}
+
+	/**
+	 * Returns the parsed policy, from the cache if the same content was already parsed
+	 *
+	 * @param policyDocument the validation policy (XML)
+	 * @return the validation policy
+	 */
+	public ValidationPolicy getPolicy(DSSDocument policyDocument) {
+		String key = policyDocument.getDigest(DigestAlgorithm.SHA256);
+		synchronized (policies) {
+			ValidationPolicy cached = policies.get(key);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		ValidationPolicy policy;
+		try (InputStream is = policyDocument.openStream()) {
+			policy = parse(is);
+		} catch (IOException e) {
+			throw new DSSException("Unable to read the validation policy", e);
+		}
+		synchronized (policies) {
+			policies.put(key, policy);
+		}
+		return policy;
+	}
+
+	/**
+	 * Returns the parsed policy, from the cache if the same content was already parsed
+	 *
+	 * @param policyBinaries the validation policy (XML)
+	 * @return the validation policy
+	 */
+	public ValidationPolicy getPolicy(byte[] policyBinaries) {
+		return getPolicy(new InMemoryDocument(policyBinaries));
+	}
+
+	/**
+	 * @return the number of cached (non default) policies
+	 */
+	public int size() {
+		synchronized (policies) {
+			return policies.size();
+		}
+	}
+
+	private ValidationPolicy parse(InputStream is) {
+		try {
+			return new EtsiValidationPolicy(ValidationPolicyFacade.newFacade().unmarshall(is));
+		} catch (Exception e) {
+			throw new DSSException("Unable to parse the validation policy : " + e.getMessage(), e);
+		}
+	}
+
+}
@@ -0,0 +1,552 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.diagnostic.DiagnosticData;
+import eu.europa.esig.dss.diagnostic.DiagnosticDataFacade;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.reports.AbstractReports;
+import eu.europa.esig.dss.validation.reports.CertificateReports;
+import eu.europa.esig.dss.validation.reports.Reports;
+import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.IndexedDiagnosticData;
+import eu.europa.esig.dss.web.model.ReportType;
+
+/**
+ * Keeps the validation reports between the validation and the display / download of their different views, so that
+ * the HTTP session only stores the report id.
+ *
+ * The reports are stored as GZIP compressed XML in direct (off-heap) buffers. The id is the SHA-256 of the reports
+ * content : the same validation stored twice is only kept once. When the buffers exceed
+ * {@code report.store.memory.max.size}, the least recently used reports are moved to disk (or dropped if
+ * {@code report.store.disk.spill} is disabled). Reports which are not accessed during {@code report.store.ttl} are
+ * removed.
+ *
+ * The reports to move are selected under the lock of the store, but the files are written outside of it : the reports
+ * are read from memory until their files are complete. Each instance uses its own temporary folder, removed on
+ * shutdown.
+ *
+ * The parsed diagnostic data of the {@code report.store.parsed.cache.size} most recently used reports are kept on heap,
+ * so that the token downloads do not unmarshal the diagnostic data again.
+ */
+@Component
+public class ValidationReportStore {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ValidationReportStore.class);
+
+	@Value("${report.store.ttl}")
+	private long timeToLive;
+
+	@Value("${report.store.memory.max.size}")
+	private long maxMemorySize;
+
+	@Value("${report.store.disk.spill}")
+	private boolean diskSpill;
+
+	@Value("${report.store.parsed.cache.size}")
+	private int parsedCacheSize;
+
+	private File spillDirectory;
+
+	/* access-ordered, guarded by this */
+	private final Map<String, StoredReports> storedReports = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long memorySize;
+
+	/* access-ordered, guarded by itself */
+	private Map<String, IndexedDiagnosticData> parsedCache;
+
+	@PostConstruct
+	public void init() {
+		parsedCache = new LinkedHashMap<String, IndexedDiagnosticData>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, IndexedDiagnosticData> eldest) {
+				return size() > parsedCacheSize;
+			}
+
+		};
+		if (diskSpill) {
+			try {
+				spillDirectory = Files.createTempDirectory("dss-validation-reports").toFile();
+			} catch (IOException e) {
+				throw new DSSException("Unable to create the validation reports folder", e);
+			}
+			LOG.info("Validation reports folder : {}", spillDirectory.getAbsolutePath());
+		}
+	}
+
+	@PreDestroy
+	public void destroy() {
+		if (spillDirectory != null) {
+			// the index is not persisted, the files cannot be reached after a restart
+			File[] files = spillDirectory.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					deleteFile(file);
+				}
+			}
+			deleteFile(spillDirectory);
+		}
+	}
+
+	/**
+	 * Stores the XML representations of the reports
+	 *
+	 * @param reports the validation reports
+	 * @return the id of the stored reports
+	 */
+	public String store(AbstractReports reports) {
+		Map<ReportType, String> xmls = new EnumMap<>(ReportType.class);
+		xmls.put(ReportType.SIMPLE_REPORT, reports.getXmlSimpleReport());
+		xmls.put(ReportType.DETAILED_REPORT, reports.getXmlDetailedReport());
+		xmls.put(ReportType.DIAGNOSTIC_DATA, reports.getXmlDiagnosticData());
+		if (reports instanceof Reports && ((Reports) reports).getEtsiValidationReportJaxb() != null) {
+			xmls.put(ReportType.ETSI_VALIDATION_REPORT, ((Reports) reports).getXmlValidationReport());
+		}
+		boolean certificateReports = reports instanceof CertificateReports;
+
+		String id = computeId(certificateReports, xmls);
+		synchronized (this) {
+			StoredReports existing = storedReports.get(id);
+			if (existing != null) {
+				existing.lastAccessTime = System.currentTimeMillis();
+				return id;
+			}
+		}
+
+		StoredReports stored = new StoredReports(certificateReports);
+		for (Entry<ReportType, String> xml : xmls.entrySet()) {
+			ByteBuffer buffer = toBuffer(xml.getValue());
+			stored.contents.put(xml.getKey(), buffer);
+			stored.types.add(xml.getKey());
+			stored.size += buffer.capacity();
+		}
+
+		List<Victim> victims = Collections.emptyList();
+		synchronized (this) {
+			if (!storedReports.containsKey(id)) {
+				storedReports.put(id, stored);
+				memorySize += stored.size;
+				victims = releaseMemory();
+			}
+		}
+		spill(victims);
+		return id;
+	}
+
+	/**
+	 * Returns the XML of a stored report
+	 *
+	 * @param id   the reports id
+	 * @param type the report type
+	 * @return the XML content or null if the report is not available for these reports (eg : no ETSI validation
+	 *         report)
+	 * @throws SourceNotFoundException if the reports are unknown or expired
+	 */
+	public String getXml(String id, ReportType type) {
+		if (!hasReport(id, type)) {
+			return null;
+		}
+		try (InputStream is = openStream(id, type); ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+			Utils.copy(is, baos);
+			return new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			LOG.warn("Unable to read the report {} of {} : {}", type, id, e.getMessage());
+			throw new SourceNotFoundException("The validation report is not available anymore");
+		}
+	}
+
+	/**
+	 * Opens a stream on the XML of a stored report, without loading it in memory
+	 *
+	 * @param id   the reports id
+	 * @param type the report type
+	 * @return the XML content (UTF-8)
+	 * @throws IOException             if the report cannot be read from disk
+	 * @throws SourceNotFoundException if the reports are unknown or expired, or the report is not available
+	 */
+	public InputStream openStream(String id, ReportType type) throws IOException {
+		return new GZIPInputStream(openCompressedStream(id, type));
+	}
+
+	/**
+	 * Opens a stream on the stored (GZIP compressed) XML of a report, the content can be sent as is to a client which
+	 * accepts the gzip encoding
+	 *
+	 * @param id   the reports id
+	 * @param type the report type
+	 * @return the GZIP compressed XML content
+	 * @throws IOException             if the report cannot be read from disk
+	 * @throws SourceNotFoundException if the reports are unknown or expired, or the report is not available
+	 */
+	public InputStream openCompressedStream(String id, ReportType type) throws IOException {
+		StoredReports stored = get(id);
+		if (!stored.types.contains(type)) {
+			throw new SourceNotFoundException("The report " + type + " is not available");
+		}
+		ByteBuffer buffer;
+		synchronized (this) {
+			buffer = stored.contents.get(type);
+		}
+		if (buffer != null) {
+			return new ByteBufferInputStream(buffer.duplicate());
+		}
+		return Files.newInputStream(getSpillFile(id, type).toPath());
+	}
+
+	/**
+	 * Adds a content computed from the reports (eg : the SVG of the diagnostic data)
+	 *
+	 * @param id      the reports id
+	 * @param type    the type of the content
+	 * @param content the content to store
+	 */
+	public void add(String id, ReportType type, String content) {
+		StoredReports stored = get(id);
+		ByteBuffer buffer = toBuffer(content);
+		List<Victim> victims;
+		synchronized (this) {
+			if (stored.types.contains(type) || storedReports.get(id) != stored) {
+				// already added by a concurrent request, or removed in the meantime
+				return;
+			}
+			if (stored.contents.isEmpty() || stored.spilling) {
+				victims = null;
+			} else {
+				stored.contents.put(type, buffer);
+				stored.size += buffer.capacity();
+				memorySize += buffer.capacity();
+				stored.types.add(type);
+				victims = releaseMemory();
+			}
+		}
+		if (victims == null) {
+			// the other reports are (being moved) on disk : the content is only visible once its file is written
+			if (spill(id, type, buffer)) {
+				synchronized (this) {
+					if (storedReports.get(id) == stored) {
+						stored.types.add(type);
+					} else {
+						deleteFile(getSpillFile(id, type));
+					}
+				}
+			}
+			return;
+		}
+		spill(victims);
+	}
+
+	/**
+	 * Returns the parsed and indexed diagnostic data. The result is cached.
+	 *
+	 * @param id the reports id
+	 * @return the diagnostic data
+	 */
+	public IndexedDiagnosticData getDiagnosticData(String id) {
+		// checks the reports are still available, outside of the parsed cache lock (lock order : store, parsed cache)
+		get(id);
+		synchronized (parsedCache) {
+			IndexedDiagnosticData cached = parsedCache.get(id);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		IndexedDiagnosticData indexed;
+		try (InputStream is = openStream(id, ReportType.DIAGNOSTIC_DATA)) {
+			indexed = new IndexedDiagnosticData(new DiagnosticData(DiagnosticDataFacade.newFacade().unmarshall(is)));
+		} catch (SourceNotFoundException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DSSException("Unable to parse the diagnostic data", e);
+		}
+		synchronized (parsedCache) {
+			parsedCache.put(id, indexed);
+		}
+		return indexed;
+	}
+
+	/**
+	 * @param id the reports id
+	 * @return true if the reports are the result of a certificate validation
+	 */
+	public boolean isCertificateReports(String id) {
+		return get(id).certificateReports;
+	}
+
+	/**
+	 * @param id   the reports id
+	 * @param type the report type
+	 * @return true if the report is available for these reports
+	 */
+	public boolean hasReport(String id, ReportType type) {
+		return get(id).types.contains(type);
+	}
+
+	/**
+	 * @return the size in bytes of the compressed reports held in memory
+	 */
+	public synchronized long getMemorySize() {
+		return memorySize;
+	}
+
+	@Scheduled(initialDelayString = "${report.store.ttl}", fixedDelayString = "${report.store.ttl}")
+	public void purgeExpiredReports() {
+		long limit = System.currentTimeMillis() - timeToLive;
+		int nbDeleted = 0;
+		synchronized (this) {
+			Iterator<Entry<String, StoredReports>> it = storedReports.entrySet().iterator();
+			while (it.hasNext()) {
+				Entry<String, StoredReports> entry = it.next();
+				StoredReports stored = entry.getValue();
+				if (stored.lastAccessTime < limit) {
+					if (stored.contents.isEmpty()) {
+						deleteSpillFiles(entry.getKey(), stored);
+					} else if (!stored.spilling) {
+						// the memory of the reports being moved is already released
+						memorySize -= stored.size;
+					}
+					it.remove();
+					removeParsed(entry.getKey());
+					nbDeleted++;
+				}
+			}
+		}
+		if (nbDeleted > 0) {
+			LOG.debug("{} expired validation report(s) removed", nbDeleted);
+		}
+	}
+
+	private synchronized StoredReports get(String id) {
+		StoredReports stored = id != null ? storedReports.get(id) : null;
+		if (stored == null) {
+			throw new SourceNotFoundException("The validation report is not available anymore");
+		}
+		stored.lastAccessTime = System.currentTimeMillis();
+		return stored;
+	}
+
+	/*
+	 * called with the lock held, drops the least recently used reports or returns them to be moved to disk once the
+	 * lock is released
+	 */
+	private List<Victim> releaseMemory() {
+		List<Victim> victims = new ArrayList<Victim>();
+		Iterator<Entry<String, StoredReports>> it = storedReports.entrySet().iterator();
+		while (memorySize > maxMemorySize && it.hasNext()) {
+			Entry<String, StoredReports> entry = it.next();
+			StoredReports stored = entry.getValue();
+			if (stored.contents.isEmpty() || stored.spilling) {
+				// already on disk or being moved
+				continue;
+			}
+			memorySize -= stored.size;
+			if (diskSpill) {
+				stored.spilling = true;
+				victims.add(new Victim(entry.getKey(), stored, new EnumMap<>(stored.contents)));
+			} else {
+				it.remove();
+				removeParsed(entry.getKey());
+			}
+		}
+		return victims;
+	}
+
+	/* called without the lock, writes the files then releases the buffers */
+	private void spill(List<Victim> victims) {
+		for (Victim victim : victims) {
+			boolean written = true;
+			for (Entry<ReportType, ByteBuffer> content : victim.contents.entrySet()) {
+				if (!spill(victim.id, content.getKey(), content.getValue())) {
+					written = false;
+					break;
+				}
+			}
+			synchronized (this) {
+				victim.stored.spilling = false;
+				if (storedReports.get(victim.id) != victim.stored) {
+					// expired in the meantime
+					written = false;
+				} else if (written) {
+					victim.stored.contents.clear();
+				} else {
+					storedReports.remove(victim.id);
+					removeParsed(victim.id);
+				}
+			}
+			if (!written) {
+				deleteSpillFiles(victim.id, victim.stored);
+			}
+		}
+	}
+
+	private void removeParsed(String id) {
+		synchronized (parsedCache) {
+			parsedCache.remove(id);
+		}
+	}
+
+	private boolean spill(String id, ReportType type, ByteBuffer content) {
+		ByteBuffer buffer = content.duplicate();
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		// written aside then moved : a reader never sees a partial file
+		Path tmp = new File(spillDirectory, id + "-" + type.name() + "-" + UUID.randomUUID() + ".tmp").toPath();
+		try {
+			Files.write(tmp, bytes);
+			Files.move(tmp, getSpillFile(id, type).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		} catch (IOException e) {
+			LOG.warn("Unable to move the validation report {} to disk : {}", id, e.getMessage());
+			deleteFile(tmp.toFile());
+			return false;
+		}
+	}
+
+	private void deleteSpillFiles(String id, StoredReports stored) {
+		for (ReportType type : stored.types) {
+			deleteFile(getSpillFile(id, type));
+		}
+	}
+
+	private void deleteFile(File file) {
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			LOG.warn("Unable to delete the file {} : {}", file, e.getMessage());
+		}
+	}
+
+	private File getSpillFile(String id, ReportType type) {
+		return new File(spillDirectory, id + "-" + type.name() + ".xml.gz");
+	}
+
+	private String computeId(boolean certificateReports, Map<ReportType, String> xmls) {
+		StringBuilder content = new StringBuilder();
+		content.append(certificateReports);
+		for (Entry<ReportType, String> xml : xmls.entrySet()) {
+			content.append('|').append(xml.getKey()).append('|').append(xml.getValue());
+		}
+		return Utils.toHex(DSSUtils.digest(DigestAlgorithm.SHA256, content.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private ByteBuffer toBuffer(String xml) {
+		byte[] compressed = compress(xml);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(compressed.length);
+		buffer.put(compressed);
+		buffer.flip();
+		return buffer;
+	}
+
+	private byte[] compress(String xml) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(baos), StandardCharsets.UTF_8)) {
+			writer.write(xml);
+		} catch (IOException e) {
+			throw new DSSException("Unable to compress the report", e);
+		}
+		return baos.toByteArray();
+	}
+
+	private static class StoredReports {
+
+		private final boolean certificateReports;
+
+		/* compressed contents, empty once moved to disk */
+		private final Map<ReportType, ByteBuffer> contents = new EnumMap<>(ReportType.class);
+
+		private final Set<ReportType> types = EnumSet.noneOf(ReportType.class);
+
+		private long size;
+
+		/* guarded by the store, true while the files are written */
+		private boolean spilling;
+
+		private volatile long lastAccessTime = System.currentTimeMillis();
+
+		private StoredReports(boolean certificateReports) {
+			this.certificateReports = certificateReports;
+		}
+
+	}
+
+	/* reports selected to be moved to disk, with their contents at the time of the selection */
+	private static class Victim {
+
+		private final String id;
+
+		private final StoredReports stored;
+
+		private final Map<ReportType, ByteBuffer> contents;
+
+		private Victim(String id, StoredReports stored, Map<ReportType, ByteBuffer> contents) {
+			this.id = id;
+			this.stored = stored;
+			this.contents = contents;
+		}
+
+	}
+
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+	}
+
+}
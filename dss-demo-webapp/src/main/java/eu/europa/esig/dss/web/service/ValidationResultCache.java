@@ -0,0 +1,286 @@
+package eu.europa.esig.dss.web.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.utils.Utils;
+
+/**
+ * Optional cache of validation results, for the documents which are validated again and again.
+ *
+ * The key is a digest of everything which determines the result : the documents, the policy, the validation
+ * parameters and the validation time truncated to {@code validation.cache.time.bucket} milliseconds. The cache is
+ * cleared when a refresh of the trusted lists changes their content.
+ *
+ * The results are whole report graphs : the cache is bounded by their estimated size ({@code validation.cache.max.size}
+ * bytes, given by the caller) and by their number ({@code validation.cache.max.entries}), the least recently used
+ * results are removed first.
+ */
+@Component
+public class ValidationResultCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ValidationResultCache.class);
+
+	@Value("${validation.cache.enabled}")
+	private boolean enabled;
+
+	@Value("${validation.cache.max.entries}")
+	private int maxEntries;
+
+	@Value("${validation.cache.max.size}")
+	private long maxSize;
+
+	@Value("${validation.cache.time.bucket}")
+	private long timeBucket;
+
+	@Autowired
+	@Qualifier("tlCacheDirectory")
+	private File tlCacheDirectory;
+
+	/* access-ordered, guarded by itself */
+	private final Map<String, CachedResult> results = new LinkedHashMap<String, CachedResult>(16, 0.75f, true);
+
+	/* estimated size of the cached results, guarded by the results */
+	private long size;
+
+	private String trustedListsFingerprint;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Creates a new key, bound to the current time bucket
+	 *
+	 * @param type the type of the result (results of different types never share a key)
+	 * @return the key, to be completed with the validation inputs
+	 */
+	public Key newKey(String type) {
+		return new Key(type, System.currentTimeMillis() / timeBucket);
+	}
+
+	/**
+	 * Returns the cached result or runs the validation. A null result, or a result bigger than the cache, is not
+	 * cached.
+	 *
+	 * @param key        the key of the validation
+	 * @param validation the validation to run if the result is not cached
+	 * @param weigher    estimates the size in bytes of a result
+	 * @return the validation result
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(Key key, Supplier<T> validation, ToLongFunction<T> weigher) {
+		if (!enabled) {
+			return validation.get();
+		}
+		String value = key.getValue();
+		synchronized (results) {
+			CachedResult cached = results.get(value);
+			if (cached != null) {
+				return (T) cached.result;
+			}
+		}
+		T result = validation.get();
+		if (result != null) {
+			long weight = weigher.applyAsLong(result);
+			if (weight <= maxSize) {
+				put(value, new CachedResult(result, weight));
+			} else {
+				LOG.debug("Validation result of {} bytes not cached", weight);
+			}
+		}
+		return result;
+	}
+
+	private void put(String value, CachedResult cached) {
+		synchronized (results) {
+			CachedResult previous = results.put(value, cached);
+			if (previous != null) {
+				size -= previous.weight;
+			}
+			size += cached.weight;
+			Iterator<CachedResult> eldest = results.values().iterator();
+			while ((size > maxSize || results.size() > maxEntries) && eldest.hasNext()) {
+				size -= eldest.next().weight;
+				eldest.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public int size() {
+		synchronized (results) {
+			return results.size();
+		}
+	}
+
+	/**
+	 * @return the estimated size in bytes of the cached results
+	 */
+	public long getEstimatedSize() {
+		synchronized (results) {
+			return size;
+		}
+	}
+
+	public void clear() {
+		synchronized (results) {
+			results.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * To be called after a refresh of the trusted lists : the cache is cleared if the content of the trusted lists
+	 * changed
+	 */
+	public void onTrustedListsRefresh() {
+		String fingerprint = computeTrustedListsFingerprint();
+		synchronized (results) {
+			if (trustedListsFingerprint != null && !trustedListsFingerprint.equals(fingerprint)) {
+				LOG.info("Trusted lists content changed, {} cached validation result(s) removed", results.size());
+				results.clear();
+				size = 0;
+			}
+			trustedListsFingerprint = fingerprint;
+		}
+	}
+
+	/* the trusted lists (LOTL, TLs and pivots) are the files of the TL loader cache */
+	private String computeTrustedListsFingerprint() {
+		Key fingerprint = new Key("trusted-lists", 0);
+		File[] files = tlCacheDirectory.listFiles();
+		if (files != null) {
+			Arrays.sort(files);
+			for (File file : files) {
+				if (file.isFile()) {
+					fingerprint.add(file.getName());
+					try (InputStream is = Files.newInputStream(file.toPath())) {
+						fingerprint.add(is);
+					} catch (IOException e) {
+						LOG.warn("Unable to read the trusted list {} : {}", file, e.getMessage());
+					}
+				}
+			}
+		}
+		return fingerprint.getValue();
+	}
+
+	private static class CachedResult {
+
+		private final Object result;
+
+		private final long weight;
+
+		private CachedResult(Object result, long weight) {
+			this.result = result;
+			this.weight = weight;
+		}
+
+	}
+
+	/**
+	 * Key of a validation result, a SHA-256 digest of the validation inputs
+	 */
+	public static class Key {
+
+		private final MessageDigest digest;
+
+		private String value;
+
+		private Key(String type, long timeBucket) {
+			try {
+				digest = MessageDigest.getInstance(DigestAlgorithm.SHA256.getJavaName());
+			} catch (Exception e) {
+				throw new DSSException("Unable to create the cache key", e);
+			}
+			add(type);
+			add(String.valueOf(timeBucket));
+		}
+
+		public Key add(String value) {
+			byte[] bytes = String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+			update(bytes, 0, bytes.length);
+			// separator, so that ("ab", "c") and ("a", "bc") give different keys
+			digest.update((byte) 0);
+			return this;
+		}
+
+		public Key add(Enum<?> value) {
+			return add(value != null ? value.name() : null);
+		}
+
+		public Key add(boolean value) {
+			return add(String.valueOf(value));
+		}
+
+		public Key add(DSSDocument document) {
+			if (document == null) {
+				return add((String) null);
+			}
+			add(document.getName());
+			try (InputStream is = document.openStream()) {
+				return add(is);
+			} catch (IOException e) {
+				throw new DSSException("Unable to read the document " + document.getName(), e);
+			}
+		}
+
+		public Key add(byte[] bytes) {
+			if (bytes == null) {
+				return add((String) null);
+			}
+			update(bytes, 0, bytes.length);
+			digest.update((byte) 0);
+			return this;
+		}
+
+		private Key add(InputStream is) throws IOException {
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = is.read(buffer)) != -1) {
+				update(buffer, 0, n);
+			}
+			digest.update((byte) 0);
+			return this;
+		}
+
+		void update(byte[] bytes, int offset, int length) {
+			if (value != null) {
+				throw new IllegalStateException("The key is already computed");
+			}
+			digest.update(bytes, offset, length);
+		}
+
+		public String getValue() {
+			if (value == null) {
+				value = Utils.toHex(digest.digest());
+			}
+			return value;
+		}
+
+	}
+
+}
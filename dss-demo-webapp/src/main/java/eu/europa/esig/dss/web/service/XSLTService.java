@@ -3,8 +3,10 @@ package eu.europa.esig.dss.web.service;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
 
-import javax.xml.transform.Transformer;
+import javax.annotation.PostConstruct;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -13,12 +15,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import eu.europa.esig.dss.detailedreport.DetailedReportFacade;
-import eu.europa.esig.dss.diagnostic.DiagnosticDataFacade;
-import eu.europa.esig.dss.diagnostic.jaxb.XmlDiagnosticData;
+import eu.europa.esig.dss.detailedreport.DetailedReportXmlDefiner;
+import eu.europa.esig.dss.diagnostic.DiagnosticDataXmlDefiner;
 import eu.europa.esig.dss.simplecertificatereport.SimpleCertificateReportXmlDefiner;
-import eu.europa.esig.dss.simplereport.SimpleReportFacade;
+import eu.europa.esig.dss.simplereport.SimpleReportXmlDefiner;
 
+/**
+ * HTML / SVG rendering of the reports. The XSLT are compiled once (Templates) and the transformers are reused through
+ * a pool, with their parameters preset.
+ */
 @Component
 public class XSLTService {
 
@@ -30,9 +35,32 @@ public class XSLTService {
 	@Value("${tl.browser.country.root.url}")
 	private String rootCountryUrlInTlBrowser;
 
+	@Value("${xslt.transformer.pool.size}")
+	private int poolSize;
+
+	private TransformerPool simpleReportPool;
+
+	private TransformerPool simpleCertificateReportPool;
+
+	private TransformerPool detailedReportPool;
+
+	private TransformerPool svgPool;
+
+	@PostConstruct
+	public void init() throws Exception {
+		simpleReportPool = new TransformerPool(SimpleReportXmlDefiner.getHtmlBootstrap4Templates(), poolSize);
+		detailedReportPool = new TransformerPool(DetailedReportXmlDefiner.getHtmlBootstrap4Templates(), poolSize);
+		svgPool = new TransformerPool(DiagnosticDataXmlDefiner.getSvgTemplates(), poolSize);
+
+		Map<String, Object> parameters = new HashMap<String, Object>();
+		parameters.put("rootTrustmarkUrlInTlBrowser", rootTrustmarkUrlInTlBrowser);
+		parameters.put("rootCountryUrlInTlBrowser", rootCountryUrlInTlBrowser);
+		simpleCertificateReportPool = new TransformerPool(SimpleCertificateReportXmlDefiner.getHtmlBootstrap4Templates(), poolSize, parameters);
+	}
+
 	public String generateSimpleReport(String simpleReport) {
 		try {
-			return SimpleReportFacade.newFacade().generateHtmlReport(simpleReport);
+			return transform(simpleReportPool, simpleReport);
 		} catch (Exception e) {
 			LOG.error("Error while generating simple report : " + e.getMessage(), e);
 			return null;
@@ -40,12 +68,8 @@ public class XSLTService {
 	}
 
 	public String generateSimpleCertificateReport(String simpleReport) {
-		try (Writer writer = new StringWriter()) {
-			Transformer transformer = SimpleCertificateReportXmlDefiner.getHtmlBootstrap4Templates().newTransformer();
-			transformer.setParameter("rootTrustmarkUrlInTlBrowser", rootTrustmarkUrlInTlBrowser);
-			transformer.setParameter("rootCountryUrlInTlBrowser", rootCountryUrlInTlBrowser);
-			transformer.transform(new StreamSource(new StringReader(simpleReport)), new StreamResult(writer));
-			return writer.toString();
+		try {
+			return transform(simpleCertificateReportPool, simpleReport);
 		} catch (Exception e) {
 			LOG.error("Error while generating simple certificate report : " + e.getMessage(), e);
 			return null;
@@ -54,7 +78,7 @@ public class XSLTService {
 
 	public  String generateDetailedReport(String detailedReport) {
 		try {
-			return DetailedReportFacade.newFacade().generateHtmlReport(detailedReport);
+			return transform(detailedReportPool, detailedReport);
 		} catch (Exception e) {
 			LOG.error("Error while generating detailed report : " + e.getMessage(), e);
 			return null;
@@ -62,14 +86,20 @@ public class XSLTService {
 	}
 
     public String generateSVG(String diagnosticDataXml) {
-        try (Writer writer = new StringWriter()) {
-            XmlDiagnosticData diagnosticData = DiagnosticDataFacade.newFacade().unmarshall(diagnosticDataXml);
-            DiagnosticDataFacade.newFacade().generateSVG(diagnosticData, new StreamResult(writer));
-            return writer.toString();
+        try {
+            // the XML is transformed as is, without the unmarshalling / marshalling of the facade
+            return transform(svgPool, diagnosticDataXml);
         } catch (Exception e) {
             LOG.error("Error while generating the SVG : " + e.getMessage(), e);
             return null;
         }
     }
 
-}
\ No newline at end of file
+	private String transform(TransformerPool pool, String xml) throws Exception {
+		try (Writer writer = new StringWriter()) {
+			pool.transform(new StreamSource(new StringReader(xml)), new StreamResult(writer));
+			return writer.toString();
+		}
+	}
+
+}
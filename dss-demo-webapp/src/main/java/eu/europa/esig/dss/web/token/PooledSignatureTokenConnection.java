@@ -0,0 +1,203 @@
+package eu.europa.esig.dss.web.token;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.KeyStore.PasswordProtection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.MaskGenerationFunction;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.Digest;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.web.model.KeySigningMetrics;
+
+/**
+ * Server signing token backed by one or more keystores of the same type and password.
+ * 
+ * The private key entries of all the keystores are resolved once at the creation and exposed by alias : each key is a
+ * distinct signing key (the client chooses the alias, and so the certificate). Entries with an already known alias are
+ * ignored. The token does not spread the signatures of one key : copies of a software key in several keystores would
+ * not sign faster, and the keys of a PKCS#11 token (HSM slots) are not supported by this class.
+ * 
+ * The number of signatures and the latency are recorded per alias.
+ */
+public class PooledSignatureTokenConnection extends KeyStoreSignatureTokenConnection {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PooledSignatureTokenConnection.class);
+
+	private final List<KeyStoreSignatureTokenConnection> additionalTokens = new ArrayList<KeyStoreSignatureTokenConnection>();
+
+	private final Map<String, KeyMetrics> keys = new LinkedHashMap<String, KeyMetrics>();
+
+	private final long creationTime = System.nanoTime();
+
+	public PooledSignatureTokenConnection(List<File> ksFiles, String ksType, PasswordProtection password) throws IOException {
+		super(ksFiles.get(0), ksType, password);
+		for (int i = 1; i < ksFiles.size(); i++) {
+			additionalTokens.add(new KeyStoreSignatureTokenConnection(ksFiles.get(i), ksType, password));
+		}
+
+		addKeys(super.getKeys());
+		for (KeyStoreSignatureTokenConnection token : additionalTokens) {
+			addKeys(token.getKeys());
+		}
+		LOG.info("Server signing token initialized with {} keystore(s) and {} key(s)", ksFiles.size(), keys.size());
+	}
+
+	private void addKeys(List<DSSPrivateKeyEntry> entries) {
+		for (DSSPrivateKeyEntry entry : entries) {
+			KSPrivateKeyEntry ksKey = (KSPrivateKeyEntry) entry;
+			if (keys.containsKey(ksKey.getAlias())) {
+				LOG.warn("The key with alias '{}' is ignored : the alias is already registered", ksKey.getAlias());
+			} else {
+				keys.put(ksKey.getAlias(), new KeyMetrics(ksKey));
+			}
+		}
+	}
+
+	@Override
+	public List<DSSPrivateKeyEntry> getKeys() {
+		List<DSSPrivateKeyEntry> entries = new ArrayList<DSSPrivateKeyEntry>();
+		for (KeyMetrics key : keys.values()) {
+			entries.add(key.getKey());
+		}
+		return entries;
+	}
+
+	@Override
+	public KSPrivateKeyEntry getKey(String alias) {
+		KeyMetrics key = keys.get(alias);
+		return key != null ? key.getKey() : null;
+	}
+
+	@Override
+	public SignatureValue sign(ToBeSigned toBeSigned, DigestAlgorithm digestAlgorithm, MaskGenerationFunction mgf, DSSPrivateKeyEntry keyEntry) {
+		KeyMetrics key = getKeyMetrics(keyEntry);
+		long start = System.nanoTime();
+		try {
+			SignatureValue signatureValue = super.sign(toBeSigned, digestAlgorithm, mgf, key.getKey());
+			key.recordSuccess(System.nanoTime() - start);
+			return signatureValue;
+		} catch (RuntimeException e) {
+			key.recordError();
+			throw e;
+		}
+	}
+
+	@Override
+	public SignatureValue signDigest(Digest digest, MaskGenerationFunction mgf, DSSPrivateKeyEntry keyEntry) {
+		KeyMetrics key = getKeyMetrics(keyEntry);
+		long start = System.nanoTime();
+		try {
+			SignatureValue signatureValue = super.signDigest(digest, mgf, key.getKey());
+			key.recordSuccess(System.nanoTime() - start);
+			return signatureValue;
+		} catch (RuntimeException e) {
+			key.recordError();
+			throw e;
+		}
+	}
+
+	/**
+	 * Signs a batch of digests with the same key, one after another : the batch saves the round trips of the client,
+	 * not the signing time
+	 * 
+	 * @param digests
+	 *            the digests to be signed
+	 * @param mgf
+	 *            the mask generation function (can be null)
+	 * @param keyEntry
+	 *            the key to use
+	 * @return the signature values in the same order than the digests
+	 */
+	public List<SignatureValue> signDigests(List<Digest> digests, MaskGenerationFunction mgf, DSSPrivateKeyEntry keyEntry) {
+		List<SignatureValue> signatureValues = new ArrayList<SignatureValue>(digests.size());
+		for (Digest digest : digests) {
+			signatureValues.add(signDigest(digest, mgf, keyEntry));
+		}
+		return signatureValues;
+	}
+
+	public List<KeySigningMetrics> getMetrics() {
+		double elapsedSeconds = (System.nanoTime() - creationTime) / 1e9;
+		List<KeySigningMetrics> metrics = new ArrayList<KeySigningMetrics>();
+		for (Map.Entry<String, KeyMetrics> entry : keys.entrySet()) {
+			metrics.add(entry.getValue().getMetrics(entry.getKey(), elapsedSeconds));
+		}
+		return metrics;
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		for (KeyStoreSignatureTokenConnection token : additionalTokens) {
+			token.close();
+		}
+	}
+
+	private KeyMetrics getKeyMetrics(DSSPrivateKeyEntry keyEntry) {
+		if (!(keyEntry instanceof KSPrivateKeyEntry)) {
+			throw new DSSException("Unsupported key entry");
+		}
+		KeyMetrics key = keys.get(((KSPrivateKeyEntry) keyEntry).getAlias());
+		if (key == null) {
+			throw new DSSException("The key is not managed by the server signing token");
+		}
+		return key;
+	}
+
+	private static class KeyMetrics {
+
+		private final KSPrivateKeyEntry key;
+
+		private final AtomicLong nbSignatures = new AtomicLong();
+		private final AtomicLong nbErrors = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		KeyMetrics(KSPrivateKeyEntry key) {
+			this.key = key;
+		}
+
+		KSPrivateKeyEntry getKey() {
+			return key;
+		}
+
+		void recordSuccess(long nanos) {
+			nbSignatures.incrementAndGet();
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulate(nanos);
+		}
+
+		void recordError() {
+			nbErrors.incrementAndGet();
+		}
+
+		KeySigningMetrics getMetrics(String alias, double elapsedSeconds) {
+			long count = nbSignatures.get();
+			KeySigningMetrics metrics = new KeySigningMetrics();
+			metrics.setAlias(alias);
+			metrics.setNbSignatures(count);
+			metrics.setNbErrors(nbErrors.get());
+			metrics.setAverageLatencyMs(count > 0 ? totalNanos.get() / 1e6 / count : 0);
+			metrics.setMaxLatencyMs(maxNanos.get() / 1e6);
+			metrics.setThroughputPerSecond(elapsedSeconds > 0 ? count / elapsedSeconds : 0);
+			return metrics;
+		}
+
+	}
+
+}
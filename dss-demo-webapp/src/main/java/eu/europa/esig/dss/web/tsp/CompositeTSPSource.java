@@ -0,0 +1,373 @@
+package eu.europa.esig.dss.web.tsp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.TimestampBinary;
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+
+/**
+ * TSPSource which spreads the requests between several TSAs.
+ * 
+ * The primary TSA is selected with a smooth weighted round-robin among the healthy TSAs. A TSA is considered as
+ * unhealthy after a number of consecutive failures and is skipped during a retry delay.
+ * 
+ * If the primary TSA has not answered within a delay based on a percentile of its recent latencies, the same request
+ * is sent to another TSA (hedged request) and the first valid token wins. The requests which lose the race are
+ * cancelled : their elapsed time is kept as a censored latency (the real latency is at least this value), otherwise
+ * only the fast answers of a slow TSA would be recorded and its hedging delay would be underestimated. The time is
+ * measured from the start of the request by a thread of the pool : a request cancelled while waiting for a thread has
+ * not reached its TSA and is not recorded.
+ * 
+ * The requests are sent by a pool of at most {@code poolSize} threads, shut down with the Spring context. At most
+ * {@code poolSize} requests wait for a thread, beyond that a new timestamp request is rejected and a hedged request is
+ * not sent.
+ */
+public class CompositeTSPSource implements TSPSource, DisposableBean {
+
+	private static final long serialVersionUID = 4542346392384117411L;
+
+	private static final Logger LOG = LoggerFactory.getLogger(CompositeTSPSource.class);
+
+	private List<WeightedTSPSource> tspSources;
+
+	/* Percentile of the latencies of the primary TSA used as hedging delay */
+	private double hedgePercentile = 0.95;
+
+	/* Bounds of the hedging delay (ms) */
+	private long minHedgeDelay = 50;
+	private long maxHedgeDelay = 5000;
+
+	/* Number of consecutive failures before considering a TSA as unhealthy */
+	private int failureThreshold = 3;
+
+	/* Delay (ms) before retrying an unhealthy TSA */
+	private long retryDelay = 30000;
+
+	/* Maximum time (ms) to obtain a timestamp */
+	private long timeout = 30000;
+
+	/* Maximum number of requests sent at the same time (hedged requests included), and of requests waiting for a thread */
+	private int poolSize = 16;
+
+	private transient List<Member> members;
+
+	private transient ExecutorService executor;
+
+	public void setTspSources(List<WeightedTSPSource> tspSources) {
+		this.tspSources = tspSources;
+		this.members = null;
+	}
+
+	public void setHedgePercentile(double hedgePercentile) {
+		this.hedgePercentile = hedgePercentile;
+	}
+
+	public void setMinHedgeDelay(long minHedgeDelay) {
+		this.minHedgeDelay = minHedgeDelay;
+	}
+
+	public void setMaxHedgeDelay(long maxHedgeDelay) {
+		this.maxHedgeDelay = maxHedgeDelay;
+	}
+
+	public void setFailureThreshold(int failureThreshold) {
+		this.failureThreshold = failureThreshold;
+	}
+
+	public void setRetryDelay(long retryDelay) {
+		this.retryDelay = retryDelay;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	public List<WeightedTSPSource> getTspSources() {
+		return tspSources;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public TimestampBinary getTimeStampResponse(DigestAlgorithm digestAlgorithm, byte[] digest) {
+		List<Member> allMembers = getMembers();
+		CompletionService<TimestampBinary> completionService = new ExecutorCompletionService<TimestampBinary>(getExecutor());
+		/* same index : the request, its TSA and its start time (ns, 0 while waiting for a thread) */
+		List<Future<TimestampBinary>> futures = new ArrayList<Future<TimestampBinary>>();
+		List<Member> used = new ArrayList<Member>();
+		List<AtomicLong> starts = new ArrayList<AtomicLong>();
+
+		long deadline = System.currentTimeMillis() + timeout;
+		try {
+			Member primary = select(allMembers, used);
+			if (primary == null) {
+				throw new DSSException("No TSA available");
+			}
+			AtomicLong primaryStart = new AtomicLong();
+			futures.add(submit(completionService, primary, primaryStart, digestAlgorithm, digest));
+			used.add(primary);
+			starts.add(primaryStart);
+
+			long hedgeDelay = primary.getHedgeDelay();
+			int pending = 1;
+			DSSException lastError = null;
+			while (pending > 0) {
+				long wait = deadline - System.currentTimeMillis();
+				boolean canHedge = used.size() < allMembers.size();
+				if (canHedge) {
+					wait = Math.min(wait, hedgeDelay);
+				}
+				Future<TimestampBinary> done = wait > 0 ? completionService.poll(wait, TimeUnit.MILLISECONDS) : null;
+				if (done != null) {
+					pending--;
+					try {
+						return done.get();
+					} catch (ExecutionException e) {
+						lastError = new DSSException("Unable to obtain a timestamp : " + e.getCause().getMessage(), e.getCause());
+					}
+				}
+				if (System.currentTimeMillis() >= deadline) {
+					break;
+				}
+				if ((done == null || pending == 0) && canHedge) {
+					// slow or failed request : another TSA is requested
+					Member other = select(allMembers, used);
+					if (other != null) {
+						try {
+							AtomicLong otherStart = new AtomicLong();
+							futures.add(submit(completionService, other, otherStart, digestAlgorithm, digest));
+							used.add(other);
+							starts.add(otherStart);
+							pending++;
+							LOG.debug("Hedged timestamp request sent to '{}'", other.name);
+						} catch (RejectedExecutionException e) {
+							// saturated pool : the pending request is still awaited
+							LOG.debug("Hedged timestamp request to '{}' not sent : {}", other.name, e.getMessage());
+						}
+					}
+				}
+			}
+			if (lastError != null) {
+				throw lastError;
+			}
+			throw new DSSException("No timestamp obtained within " + timeout + " ms");
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DSSException("Interrupted while waiting for a timestamp", e);
+		} catch (RejectedExecutionException e) {
+			if (getExecutor().isShutdown()) {
+				throw new DSSException("The TSP source is shut down", e);
+			}
+			throw new DSSException("Too many timestamp requests in progress", e);
+		} finally {
+			long now = System.nanoTime();
+			for (int i = 0; i < futures.size(); i++) {
+				long start = starts.get(i).get();
+				// only the requests sent to their TSA
+				if (futures.get(i).cancel(true) && start != 0) {
+					used.get(i).recordCensored(TimeUnit.NANOSECONDS.toMillis(now - start));
+				}
+			}
+		}
+	}
+
+	private Future<TimestampBinary> submit(CompletionService<TimestampBinary> completionService, Member member, AtomicLong startTime,
+			DigestAlgorithm digestAlgorithm, byte[] digest) {
+		return completionService.submit(() -> {
+			long start = System.nanoTime();
+			startTime.set(start);
+			try {
+				TimestampBinary timestampBinary = member.tspSource.getTimeStampResponse(digestAlgorithm, digest);
+				checkToken(timestampBinary, digest);
+				if (!Thread.currentThread().isInterrupted()) {
+					// a cancelled request is recorded by the caller
+					member.recordSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				}
+				return timestampBinary;
+			} catch (Exception e) {
+				if (!Thread.currentThread().isInterrupted()) {
+					LOG.warn("TSA '{}' failed : {}", member.name, e.getMessage());
+					member.recordFailure();
+				}
+				throw e;
+			}
+		});
+	}
+
+	private void checkToken(TimestampBinary timestampBinary, byte[] digest) throws Exception {
+		if (timestampBinary == null || timestampBinary.getBytes() == null) {
+			throw new DSSException("Empty timestamp response");
+		}
+		TimeStampToken timeStampToken = new TimeStampToken(new CMSSignedData(timestampBinary.getBytes()));
+		if (!Arrays.equals(digest, timeStampToken.getTimeStampInfo().getMessageImprintDigest())) {
+			throw new DSSException("The message imprint of the timestamp does not match the digest");
+		}
+	}
+
+	/**
+	 * Smooth weighted round-robin between the healthy TSAs which are not already used for the current request. If all
+	 * the TSAs are unhealthy, they are selected anyway.
+	 */
+	private Member select(List<Member> allMembers, List<Member> excluded) {
+		long now = System.currentTimeMillis();
+		Member selected = select(allMembers, excluded, now, true);
+		if (selected == null) {
+			selected = select(allMembers, excluded, now, false);
+		}
+		return selected;
+	}
+
+	private Member select(List<Member> allMembers, List<Member> excluded, long now, boolean healthyOnly) {
+		synchronized (allMembers) {
+			Member best = null;
+			int totalWeight = 0;
+			for (Member member : allMembers) {
+				if (excluded.contains(member) || (healthyOnly && !member.isHealthy(now))) {
+					continue;
+				}
+				member.currentWeight += member.weight;
+				totalWeight += member.weight;
+				if (best == null || member.currentWeight > best.currentWeight) {
+					best = member;
+				}
+			}
+			if (best != null) {
+				best.currentWeight -= totalWeight;
+			}
+			return best;
+		}
+	}
+
+	private synchronized List<Member> getMembers() {
+		if (members == null) {
+			if (tspSources == null || tspSources.isEmpty()) {
+				throw new DSSException("At least one TSPSource is required");
+			}
+			List<Member> list = new ArrayList<Member>();
+			for (WeightedTSPSource weighted : tspSources) {
+				list.add(new Member(weighted));
+			}
+			members = list;
+		}
+		return members;
+	}
+
+	private synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(poolSize), r -> {
+				Thread thread = new Thread(r, "composite-tsp-source");
+				thread.setDaemon(true);
+				return thread;
+			});
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/* current hedging delay of a TSA (ms) */
+	long getHedgeDelay(String name) {
+		for (Member member : getMembers()) {
+			if (member.name.equals(name)) {
+				return member.getHedgeDelay();
+			}
+		}
+		throw new DSSException("Unknown TSA '" + name + "'");
+	}
+
+	private class Member {
+
+		private static final int NB_SAMPLES = 128;
+
+		private final String name;
+		private final TSPSource tspSource;
+		private final int weight;
+
+		/* guarded by the list of members */
+		private int currentWeight;
+
+		private final long[] latencies = new long[NB_SAMPLES];
+		private int nbLatencies;
+		private int latencyIndex;
+
+		private int consecutiveFailures;
+		private long unhealthyUntil;
+
+		Member(WeightedTSPSource weighted) {
+			this.name = weighted.getName();
+			this.tspSource = weighted.getTspSource();
+			this.weight = Math.max(1, weighted.getWeight());
+		}
+
+		synchronized boolean isHealthy(long now) {
+			return consecutiveFailures < failureThreshold || now >= unhealthyUntil;
+		}
+
+		synchronized void recordSuccess(long latency) {
+			consecutiveFailures = 0;
+			recordLatency(latency);
+		}
+
+		/* cancelled request : its latency is at least the elapsed time, kept as a lower bound */
+		synchronized void recordCensored(long elapsed) {
+			recordLatency(elapsed);
+		}
+
+		private void recordLatency(long latency) {
+			latencies[latencyIndex] = latency;
+			latencyIndex = (latencyIndex + 1) % NB_SAMPLES;
+			nbLatencies = Math.min(nbLatencies + 1, NB_SAMPLES);
+		}
+
+		synchronized void recordFailure() {
+			consecutiveFailures++;
+			if (consecutiveFailures >= failureThreshold) {
+				unhealthyUntil = System.currentTimeMillis() + retryDelay;
+				LOG.warn("TSA '{}' is considered as unhealthy for {} ms", name, retryDelay);
+			}
+		}
+
+		synchronized long getHedgeDelay() {
+			if (nbLatencies == 0) {
+				return maxHedgeDelay;
+			}
+			long[] sorted = Arrays.copyOf(latencies, nbLatencies);
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(hedgePercentile * nbLatencies) - 1;
+			long delay = sorted[Math.max(0, Math.min(index, nbLatencies - 1))];
+			return Math.max(minHedgeDelay, Math.min(maxHedgeDelay, delay));
+		}
+
+	}
+
+}
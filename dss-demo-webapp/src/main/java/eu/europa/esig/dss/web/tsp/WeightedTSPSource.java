@@ -0,0 +1,53 @@
+package eu.europa.esig.dss.web.tsp;
+
+import java.io.Serializable;
+
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+
+/**
+ * A TSA used by the {@link CompositeTSPSource} with its weight in the round-robin
+ */
+public class WeightedTSPSource implements Serializable {
+
+	private static final long serialVersionUID = -2317326454386467212L;
+
+	private String name;
+
+	private TSPSource tspSource;
+
+	private int weight = 1;
+
+	public WeightedTSPSource() {
+	}
+
+	public WeightedTSPSource(String name, TSPSource tspSource, int weight) {
+		this.name = name;
+		this.tspSource = tspSource;
+		this.weight = weight;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public TSPSource getTspSource() {
+		return tspSource;
+	}
+
+	public void setTspSource(TSPSource tspSource) {
+		this.tspSource = tspSource;
+	}
+
+	public int getWeight() {
+		return weight;
+	}
+
+	public void setWeight(int weight) {
+		this.weight = weight;
+	}
+
+}
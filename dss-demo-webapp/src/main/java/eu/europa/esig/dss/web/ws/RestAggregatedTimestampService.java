@@ -0,0 +1,30 @@
+package eu.europa.esig.dss.web.ws;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import eu.europa.esig.dss.web.model.AggregatedTimestamp;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+
+/**
+ * REST service which timestamps digests in aggregated (Merkle tree) mode
+ */
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface RestAggregatedTimestampService {
+
+	/**
+	 * Timestamps the digest together with the other digests received in the same time window
+	 * 
+	 * @param digest
+	 *            the digest to be timestamped
+	 * @return the timestamp of the Merkle root with the inclusion proof of the digest
+	 */
+	@POST
+	@Path("timestamp")
+	AggregatedTimestamp timestamp(DigestDTO digest);
+
+}
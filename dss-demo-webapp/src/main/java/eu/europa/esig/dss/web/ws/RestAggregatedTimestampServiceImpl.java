@@ -0,0 +1,24 @@
+package eu.europa.esig.dss.web.ws;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.web.model.AggregatedTimestamp;
+import eu.europa.esig.dss.web.service.AggregatedTimestampService;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+
+public class RestAggregatedTimestampServiceImpl implements RestAggregatedTimestampService {
+
+	private AggregatedTimestampService timestampService;
+
+	public void setTimestampService(AggregatedTimestampService timestampService) {
+		this.timestampService = timestampService;
+	}
+
+	@Override
+	public AggregatedTimestamp timestamp(DigestDTO digest) {
+		if (digest == null) {
+			throw new DSSException("The digest is required");
+		}
+		return timestampService.timestamp(digest.getAlgorithm(), digest.getValue());
+	}
+
+}
@@ -0,0 +1,32 @@
+package eu.europa.esig.dss.web.ws;
+
+import java.io.InputStream;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * REST service which validates all the documents of a ZIP archive and streams the results
+ */
+public interface RestBulkValidationService {
+
+	String NDJSON = "application/x-ndjson";
+
+	/**
+	 * Validates the documents of the ZIP archive with the default policy. One JSON line with the conclusions of the
+	 * simple report is written per document, as soon as its validation is completed.
+	 * 
+	 * @param zip
+	 *            the ZIP archive with the documents to be validated
+	 * @return the results (NDJSON)
+	 */
+	@POST
+	@Path("validateDocuments")
+	@Consumes("application/zip")
+	@Produces(NDJSON)
+	StreamingOutput validateDocuments(InputStream zip);
+
+}
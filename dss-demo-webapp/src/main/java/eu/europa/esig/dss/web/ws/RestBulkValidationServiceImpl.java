@@ -0,0 +1,22 @@
+package eu.europa.esig.dss.web.ws;
+
+import java.io.InputStream;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import eu.europa.esig.dss.web.service.BulkValidationService;
+
+public class RestBulkValidationServiceImpl implements RestBulkValidationService {
+
+	private BulkValidationService validationService;
+
+	public void setValidationService(BulkValidationService validationService) {
+		this.validationService = validationService;
+	}
+
+	@Override
+	public StreamingOutput validateDocuments(InputStream zip) {
+		return os -> validationService.validate(zip, os);
+	}
+
+}
@@ -0,0 +1,31 @@
+package eu.europa.esig.dss.web.ws;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import eu.europa.esig.dss.web.model.CertificateBatchRequest;
+
+/**
+ * REST service which validates a batch of certificates, sharing the chain building and the revocation requests
+ */
+public interface RestCertificateBatchValidationService {
+
+	/**
+	 * Validates the certificates. One JSON line with the certificate reports is written per certificate, in the order
+	 * of the request.
+	 * 
+	 * @param request
+	 *            the certificates, the common chain and the validation time
+	 * @return the reports (NDJSON)
+	 */
+	@POST
+	@Path("validateCertificates")
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces(RestBulkValidationService.NDJSON)
+	StreamingOutput validateCertificates(CertificateBatchRequest request);
+
+}
@@ -0,0 +1,23 @@
+package eu.europa.esig.dss.web.ws;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import eu.europa.esig.dss.web.model.CertificateBatchRequest;
+import eu.europa.esig.dss.web.service.CertificateBatchValidationService;
+
+public class RestCertificateBatchValidationServiceImpl implements RestCertificateBatchValidationService {
+
+	private CertificateBatchValidationService validationService;
+
+	public void setValidationService(CertificateBatchValidationService validationService) {
+		this.validationService = validationService;
+	}
+
+	@Override
+	public StreamingOutput validateCertificates(CertificateBatchRequest request) {
+		// the errors of the request are reported before the beginning of the response
+		validationService.checkRequest(request);
+		return os -> validationService.validate(request, os);
+	}
+
+}
@@ -0,0 +1,46 @@
+package eu.europa.esig.dss.web.ws;
+
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import eu.europa.esig.dss.web.model.KeySigningMetrics;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+import eu.europa.esig.dss.ws.dto.SignatureValueDTO;
+
+/**
+ * REST extension of the server signing service : batch signature of digests and signing metrics
+ */
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface RestServerSigningPoolService {
+
+	/**
+	 * Signs a batch of digests with the key identified by the alias
+	 * 
+	 * @param alias
+	 *            the key alias
+	 * @param digests
+	 *            the digests to be signed
+	 * @return the signature values, in the same order than the digests
+	 */
+	@POST
+	@Path("signDigests/{alias}")
+	List<SignatureValueDTO> signDigests(@PathParam("alias") String alias, List<DigestDTO> digests);
+
+	/**
+	 * Returns the signing metrics per key
+	 * 
+	 * @return the list of metrics
+	 */
+	@GET
+	@Path("metrics")
+	List<KeySigningMetrics> getMetrics();
+
+}
@@ -0,0 +1,49 @@
+package eu.europa.esig.dss.web.ws;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.Digest;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.token.KSPrivateKeyEntry;
+import eu.europa.esig.dss.web.model.KeySigningMetrics;
+import eu.europa.esig.dss.web.token.PooledSignatureTokenConnection;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+import eu.europa.esig.dss.ws.dto.SignatureValueDTO;
+
+public class RestServerSigningPoolServiceImpl implements RestServerSigningPoolService {
+
+	private PooledSignatureTokenConnection token;
+
+	public void setToken(PooledSignatureTokenConnection token) {
+		this.token = token;
+	}
+
+	@Override
+	public List<SignatureValueDTO> signDigests(String alias, List<DigestDTO> digests) {
+		KSPrivateKeyEntry key = token.getKey(alias);
+		if (key == null) {
+			throw new DSSException("No key found for alias '" + alias + "'");
+		}
+
+		List<Digest> toSign = new ArrayList<Digest>();
+		if (digests != null) {
+			for (DigestDTO digestDTO : digests) {
+				toSign.add(new Digest(digestDTO.getAlgorithm(), digestDTO.getValue()));
+			}
+		}
+
+		List<SignatureValueDTO> result = new ArrayList<SignatureValueDTO>();
+		for (SignatureValue signatureValue : token.signDigests(toSign, null, key)) {
+			result.add(new SignatureValueDTO(signatureValue.getAlgorithm(), signatureValue.getValue()));
+		}
+		return result;
+	}
+
+	@Override
+	public List<KeySigningMetrics> getMetrics() {
+		return token.getMetrics();
+	}
+
+}
@@ -0,0 +1,56 @@
+package eu.europa.esig.dss.web.ws;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.ValidationJobRequest;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+/**
+ * REST service which validates the documents asynchronously : the validation runs in a bounded worker pool, the
+ * progress and the reports are polled with the job id (or the finished job is posted to the callback URL)
+ */
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface RestValidationJobService {
+
+	/**
+	 * Submits a validation
+	 * 
+	 * @param request
+	 *            the documents to be validated, the policy and the optional callback URL
+	 * @return the created job
+	 */
+	@POST
+	@Path("jobs")
+	AsyncJob submit(ValidationJobRequest request);
+
+	/**
+	 * Returns the status and the progress of a validation
+	 * 
+	 * @param id
+	 *            the job id
+	 * @return the job
+	 */
+	@GET
+	@Path("jobs/{id}")
+	AsyncJob getJob(@PathParam("id") String id);
+
+	/**
+	 * Returns the reports of a completed validation
+	 * 
+	 * @param id
+	 *            the job id
+	 * @return the validation reports
+	 */
+	@GET
+	@Path("jobs/{id}/reports")
+	WSReportsDTO getReports(@PathParam("id") String id);
+
+}
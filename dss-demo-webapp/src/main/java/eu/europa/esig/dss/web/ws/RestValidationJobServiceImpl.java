@@ -0,0 +1,40 @@
+package eu.europa.esig.dss.web.ws;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.ValidationJobRequest;
+import eu.europa.esig.dss.web.service.ValidationJobService;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+public class RestValidationJobServiceImpl implements RestValidationJobService {
+
+	private ValidationJobService validationJobService;
+
+	public void setValidationJobService(ValidationJobService validationJobService) {
+		this.validationJobService = validationJobService;
+	}
+
+	@Override
+	public AsyncJob submit(ValidationJobRequest request) {
+		return validationJobService.submit(request);
+	}
+
+	@Override
+	public AsyncJob getJob(String id) {
+		AsyncJob job = validationJobService.getJob(id);
+		if (job == null) {
+			throw new DSSException("Validation job " + id + " not found");
+		}
+		return job;
+	}
+
+	@Override
+	public WSReportsDTO getReports(String id) {
+		WSReportsDTO reports = validationJobService.getReports(id);
+		if (reports == null) {
+			throw new DSSException("No reports available for the validation job " + id);
+		}
+		return reports;
+	}
+
+}
@@ -0,0 +1,79 @@
+package eu.europa.esig.dss.web.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.AsyncJobStatus;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class, ExtensionController.class })
+@ExtendWith(SpringExtension.class)
+public class ExtensionControllerTest {
+
+	@Autowired
+	private ExtensionController extensionController;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	public void init() {
+		mockMvc = MockMvcBuilders.standaloneSetup(extensionController).build();
+	}
+
+	@Test
+	public void submitPollAndDownload() throws Exception {
+		MockMultipartFile signedFile = new MockMultipartFile("signedFile", "xades-detached.xml", "text/xml",
+				Files.readAllBytes(Paths.get("src/test/resources/xades-detached.xml")));
+		MockMultipartFile originalFile = new MockMultipartFile("originalFiles", "sample.xml", "text/xml",
+				Files.readAllBytes(Paths.get("src/test/resources/sample.xml")));
+
+		MvcResult submitted = mockMvc.perform(multipart("/extension/async").file(signedFile).file(originalFile).param("signatureForm", "XAdES")
+				.param("signatureLevel", "XAdES_BASELINE_T")).andExpect(status().isOk()).andReturn();
+		AsyncJob job = objectMapper.readValue(submitted.getResponse().getContentAsByteArray(), AsyncJob.class);
+		assertNotNull(job.getId());
+
+		long timeout = System.currentTimeMillis() + 60000;
+		while (!job.getStatus().isFinished() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+			MvcResult polled = mockMvc.perform(get("/extension/jobs/" + job.getId())).andExpect(status().isOk()).andReturn();
+			job = objectMapper.readValue(polled.getResponse().getContentAsByteArray(), AsyncJob.class);
+		}
+		assertEquals(AsyncJobStatus.COMPLETED, job.getStatus(), job.getErrorMessage());
+
+		MvcResult downloaded = mockMvc.perform(get("/extension/jobs/" + job.getId() + "/download")).andExpect(status().isOk()).andReturn();
+		assertTrue(downloaded.getResponse().getHeader("Content-Disposition").contains(job.getResultName()));
+		assertTrue(downloaded.getResponse().getContentAsByteArray().length > 0);
+	}
+
+	@Test
+	public void unknownJob() throws Exception {
+		mockMvc.perform(get("/extension/jobs/unknown")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/extension/jobs/unknown/download")).andExpect(status().isNotFound());
+	}
+
+}
@@ -0,0 +1,89 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.AggregatedTimestamp;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class AggregatedTimestampServiceTest {
+
+	@Autowired
+	private AggregatedTimestampService service;
+
+	@Autowired
+	private TSPSource tspSource;
+
+	@Test
+	public void test() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		List<Future<AggregatedTimestamp>> futures = new ArrayList<Future<AggregatedTimestamp>>();
+		for (int i = 0; i < 25; i++) {
+			final byte[] digest = DSSUtils.digest(DigestAlgorithm.SHA256, ("Hello " + i).getBytes());
+			futures.add(executor.submit(() -> service.timestamp(DigestAlgorithm.SHA256, digest)));
+		}
+
+		for (Future<AggregatedTimestamp> future : futures) {
+			AggregatedTimestamp result = future.get();
+			assertNotNull(result.getTimestampBinaries());
+
+			byte[] root = AggregatedTimestampService.computeRoot(DigestAlgorithm.SHA256, result.getDigest(), result.getProof());
+			assertArrayEquals(result.getRoot(), root);
+
+			TimeStampToken timeStampToken = new TimeStampToken(new CMSSignedData(result.getTimestampBinaries()));
+			assertArrayEquals(root, timeStampToken.getTimeStampInfo().getMessageImprintDigest());
+		}
+		executor.shutdown();
+	}
+
+	@Test
+	public void invalidDigestLength() {
+		byte[] sha1 = DSSUtils.digest(DigestAlgorithm.SHA1, "Hello".getBytes());
+		assertThrows(DSSException.class, () -> service.timestamp(DigestAlgorithm.SHA256, sha1));
+	}
+
+	@Test
+	public void stopped() {
+		AggregatedTimestampService stopped = new AggregatedTimestampService();
+		ReflectionTestUtils.setField(stopped, "tspSource", tspSource);
+		ReflectionTestUtils.setField(stopped, "maxWait", 100L);
+		ReflectionTestUtils.setField(stopped, "maxBatchSize", 10);
+		ReflectionTestUtils.setField(stopped, "poolSize", 1);
+		ReflectionTestUtils.setField(stopped, "timeout", 60000L);
+		stopped.init();
+		stopped.destroy();
+
+		// no batch left without its timer : the callers do not wait for the timeout
+		byte[] digest = DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes());
+		long start = System.currentTimeMillis();
+		assertThrows(DSSException.class, () -> stopped.timestamp(DigestAlgorithm.SHA256, digest));
+		assertThrows(DSSException.class, () -> stopped.timestamp(DigestAlgorithm.SHA256, digest));
+		assertTrue(System.currentTimeMillis() - start < 10000);
+	}
+
+}
@@ -0,0 +1,273 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.BulkValidationResult;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class BulkValidationServiceTest {
+
+	private static final int ENTRY_SIZE = 20000;
+
+	@Autowired
+	private BulkValidationService bulkValidationService;
+
+	@Autowired
+	private CertificateVerifier certificateVerifier;
+
+	@Autowired
+	private ValidationPolicyCache validationPolicyCache;
+
+	@Test
+	public void validateZip() throws IOException {
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+			addEntry(zos, "xades-detached.xml");
+			addEntry(zos, "sample.pdf");
+			addEntry(zos, "CZ.cer");
+		}
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		bulkValidationService.validate(new ByteArrayInputStream(zip.toByteArray()), result);
+
+		String[] lines = new String(result.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals(3, lines.length);
+
+		ObjectMapper objectMapper = new ObjectMapper();
+		Set<String> names = new HashSet<String>();
+		for (String line : lines) {
+			BulkValidationResult documentResult = objectMapper.readValue(line, BulkValidationResult.class);
+			assertNotNull(documentResult.getDocumentName());
+			names.add(documentResult.getDocumentName());
+			if ("xades-detached.xml".equals(documentResult.getDocumentName())) {
+				assertEquals(Integer.valueOf(1), documentResult.getSignaturesCount());
+				assertEquals(1, documentResult.getTokens().size());
+			} else if ("CZ.cer".equals(documentResult.getDocumentName())) {
+				// not a signed document
+				assertNotNull(documentResult.getErrorMessage());
+			}
+		}
+		assertTrue(names.contains("xades-detached.xml"));
+		assertTrue(names.contains("sample.pdf"));
+		assertTrue(names.contains("CZ.cer"));
+	}
+
+	@Test
+	public void maxDocumentSize() throws IOException {
+		BulkValidationService service = newService(2, 4, ENTRY_SIZE);
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+			addEntry(zos, "too-big.bin", randomBytes(ENTRY_SIZE + 1));
+			addEntry(zos, "CZ.cer");
+		}
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try {
+			service.validate(new ByteArrayInputStream(zip.toByteArray()), result);
+		} finally {
+			service.destroy();
+		}
+
+		String[] lines = new String(result.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals(1, lines.length);
+		// the too big entry is not validated and the rest of the archive is not read
+		BulkValidationResult tooBig = new ObjectMapper().readValue(lines[0], BulkValidationResult.class);
+		assertEquals("too-big.bin", tooBig.getDocumentName());
+		assertTrue(tooBig.getErrorMessage().contains("maximum size"));
+		assertNull(tooBig.getSignaturesCount());
+		assertEquals(4 * ENTRY_SIZE, getAvailableMemory(service));
+	}
+
+	@Test
+	public void maxMemory() throws IOException {
+		// room for two documents, more validations allowed in progress
+		BulkValidationService service = newService(2, 8, ENTRY_SIZE, 2 * ENTRY_SIZE);
+		int nbEntries = 10;
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+			for (int i = 0; i < nbEntries; i++) {
+				addEntry(zos, "document-" + i + ".bin", randomBytes(ENTRY_SIZE));
+			}
+		}
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try {
+			service.validate(new ByteArrayInputStream(zip.toByteArray()), result);
+		} finally {
+			service.destroy();
+		}
+		assertEquals(nbEntries, new String(result.toByteArray(), StandardCharsets.UTF_8).split("\n").length);
+		// all the documents released
+		assertEquals(2 * ENTRY_SIZE, getAvailableMemory(service));
+	}
+
+	@Test
+	public void invalidMaxMemory() {
+		assertThrows(DSSException.class, () -> newService(1, 4, ENTRY_SIZE, ENTRY_SIZE - 1));
+	}
+
+	@Test
+	public void backpressure() throws IOException {
+		int maxPending = 2;
+		int nbEntries = 10;
+		BulkValidationService service = newService(1, maxPending, ENTRY_SIZE);
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+			for (int i = 0; i < nbEntries; i++) {
+				addEntry(zos, "document-" + i + ".bin", randomBytes(ENTRY_SIZE));
+			}
+		}
+
+		CountingInputStream archive = new CountingInputStream(new ByteArrayInputStream(zip.toByteArray()));
+		int[] nbLines = new int[1];
+		OutputStream client = new ByteArrayOutputStream() {
+
+			@Override
+			public synchronized void write(int b) {
+				if (b == '\n') {
+					// the archive is not read ahead of the written results
+					assertTrue(archive.count <= (nbLines[0] + maxPending + 2) * (long) ENTRY_SIZE, "Read " + archive.count + " bytes for " + nbLines[0] + " results");
+					nbLines[0]++;
+				}
+				super.write(b);
+			}
+
+		};
+		try {
+			service.validate(archive, client);
+		} finally {
+			service.destroy();
+		}
+		assertEquals(nbEntries, nbLines[0]);
+	}
+
+	@Test
+	public void clientDisconnected() throws IOException {
+		BulkValidationService service = newService(1, 4, ENTRY_SIZE);
+		ByteArrayOutputStream zip = new ByteArrayOutputStream();
+		try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+			for (int i = 0; i < 4; i++) {
+				addEntry(zos, "xades-detached-" + i + ".xml", Files.readAllBytes(Paths.get("src/test/resources/xades-detached.xml")));
+			}
+		}
+
+		OutputStream closed = new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Connection reset by peer");
+			}
+
+		};
+		try {
+			assertThrows(IOException.class, () -> service.validate(new ByteArrayInputStream(zip.toByteArray()), closed));
+		} finally {
+			service.destroy();
+		}
+		// the memory of the cancelled validations is released
+		assertEquals(4 * ENTRY_SIZE, getAvailableMemory(service));
+	}
+
+	private BulkValidationService newService(int poolSize, int maxPending, int maxDocumentSize) {
+		return newService(poolSize, maxPending, maxDocumentSize, maxPending * maxDocumentSize);
+	}
+
+	private BulkValidationService newService(int poolSize, int maxPending, int maxDocumentSize, int maxMemory) {
+		BulkValidationService service = new BulkValidationService();
+		ReflectionTestUtils.setField(service, "poolSize", poolSize);
+		ReflectionTestUtils.setField(service, "maxPending", maxPending);
+		ReflectionTestUtils.setField(service, "maxDocumentSize", maxDocumentSize);
+		ReflectionTestUtils.setField(service, "maxMemory", maxMemory);
+		ReflectionTestUtils.setField(service, "certificateVerifier", certificateVerifier);
+		ReflectionTestUtils.setField(service, "validationPolicyCache", validationPolicyCache);
+		service.init();
+		return service;
+	}
+
+	private int getAvailableMemory(BulkValidationService service) {
+		return ((Semaphore) ReflectionTestUtils.getField(service, "memory")).availablePermits();
+	}
+
+	/* not compressible : the size in the archive is the size of the document */
+	private byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	private void addEntry(ZipOutputStream zos, String fileName, byte[] content) throws IOException {
+		zos.putNextEntry(new ZipEntry(fileName));
+		zos.write(content);
+		zos.closeEntry();
+	}
+
+	private void addEntry(ZipOutputStream zos, String fileName) throws IOException {
+		zos.putNextEntry(new ZipEntry(fileName));
+		zos.write(Files.readAllBytes(Paths.get("src/test/resources", fileName)));
+		zos.closeEntry();
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+	}
+
+}
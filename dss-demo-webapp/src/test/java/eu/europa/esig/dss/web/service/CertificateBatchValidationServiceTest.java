@@ -0,0 +1,87 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.CertificateBatchRequest;
+import eu.europa.esig.dss.ws.converter.RemoteCertificateConverter;
+import eu.europa.esig.dss.ws.dto.RemoteCertificate;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class CertificateBatchValidationServiceTest {
+
+	@Autowired
+	private CertificateBatchValidationService validationService;
+
+	@Test
+	public void validateBatch() throws IOException {
+		RemoteCertificate certificate = RemoteCertificateConverter.toRemoteCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer")));
+		RemoteCertificate issuer = RemoteCertificateConverter.toRemoteCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CA_CZ.cer")));
+
+		CertificateBatchRequest request = new CertificateBatchRequest();
+		request.setCertificates(Arrays.asList(certificate, issuer, certificate));
+		request.setCertificateChain(Collections.singletonList(issuer));
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		validationService.validate(request, result);
+
+		String[] lines = new String(result.toByteArray(), StandardCharsets.UTF_8).split("\n");
+		assertEquals(3, lines.length);
+		ObjectMapper objectMapper = new ObjectMapper();
+		for (String line : lines) {
+			JsonNode reports = objectMapper.readTree(line);
+			assertFalse(reports.has("errorMessage"));
+		}
+		// same certificate, same reports
+		assertEquals(lines[0], lines[2]);
+	}
+
+	@Test
+	public void clientDisconnected() {
+		RemoteCertificate certificate = RemoteCertificateConverter.toRemoteCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer")));
+		RemoteCertificate issuer = RemoteCertificateConverter.toRemoteCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CA_CZ.cer")));
+
+		CertificateBatchRequest request = new CertificateBatchRequest();
+		request.setCertificates(Arrays.asList(certificate, issuer));
+
+		OutputStream closed = new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Connection reset by peer");
+			}
+
+		};
+		assertThrows(IOException.class, () -> validationService.validate(request, closed));
+	}
+
+	@Test
+	public void emptyBatch() {
+		assertThrows(DSSException.class, () -> validationService.checkRequest(new CertificateBatchRequest()));
+	}
+
+}
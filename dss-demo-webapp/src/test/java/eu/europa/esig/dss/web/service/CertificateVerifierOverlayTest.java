@@ -0,0 +1,63 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.service.crl.OnlineCRLSource;
+import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.CommonCertificateSource;
+import eu.europa.esig.dss.validation.CertificateVerifier;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+
+public class CertificateVerifierOverlayTest {
+
+	@Test
+	public void adjunctCertSource() {
+		CommonCertificateVerifier shared = new CommonCertificateVerifier();
+		shared.setCheckRevocationForUntrustedChains(true);
+		int nbSharedSources = shared.getAdjunctCertSources().getSources().size();
+
+		CertificateToken certificate = DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer"));
+		CommonCertificateSource adjunctCertSource = new CommonCertificateSource();
+		adjunctCertSource.addCertificate(certificate);
+
+		CertificateVerifier overlay = CertificateVerifierOverlay.withAdjunctCertSource(shared, adjunctCertSource);
+
+		assertEquals(nbSharedSources + 1, overlay.getAdjunctCertSources().getSources().size());
+		assertTrue(overlay.getAdjunctCertSources().getSources().contains(adjunctCertSource));
+		assertEquals(nbSharedSources, shared.getAdjunctCertSources().getSources().size());
+
+		// the configuration is read from the shared instance
+		assertTrue(overlay.isCheckRevocationForUntrustedChains());
+		assertSame(shared.getTrustedCertSources(), overlay.getTrustedCertSources());
+
+		// the shared instance cannot be modified
+		assertThrows(UnsupportedOperationException.class, () -> overlay.setCheckRevocationForUntrustedChains(false));
+		assertTrue(shared.isCheckRevocationForUntrustedChains());
+	}
+
+	@Test
+	public void revocationSources() {
+		CommonCertificateVerifier shared = new CommonCertificateVerifier();
+		OnlineCRLSource sharedCrlSource = new OnlineCRLSource();
+		shared.setCrlSource(sharedCrlSource);
+		shared.setOcspSource(new OnlineOCSPSource());
+
+		OnlineOCSPSource ocspSource = new OnlineOCSPSource();
+		CertificateVerifier overlay = CertificateVerifierOverlay.withRevocationSources(shared, ocspSource, null);
+
+		assertSame(ocspSource, overlay.getOcspSource());
+		assertSame(sharedCrlSource, overlay.getCrlSource());
+		assertFalse(ocspSource == shared.getOcspSource());
+	}
+
+}
@@ -0,0 +1,45 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.TimestampBinary;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.tsp.CompositeTSPSource;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@TestPropertySource(properties = "tsp-source = classpath:config/tsp-composite-config.xml")
+@ExtendWith(SpringExtension.class)
+public class CompositeTSPConfigTest {
+
+	@Autowired
+	private TSPSource tspSource;
+
+	@Autowired
+	private SigningService signingService;
+
+	@Test
+	public void test() {
+		assertTrue(tspSource instanceof CompositeTSPSource);
+		TimestampBinary timeStampResponse = tspSource.getTimeStampResponse(DigestAlgorithm.SHA256, DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes()));
+		assertNotNull(timeStampResponse);
+		assertTrue(Utils.isArrayNotEmpty(timeStampResponse.getBytes()));
+
+		// the composite source only contains mock TSAs
+		assertTrue(signingService.isMockTSPSourceUsed());
+	}
+
+}
@@ -1,8 +1,12 @@
 package eu.europa.esig.dss.web.service;
 
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.StringWriter;
@@ -112,4 +116,28 @@ public class FOPServiceTest {
 		service.generateDetailedReport(writer.toString(), fos);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void cachedDetailedReport() throws Exception {
+		JAXBContext context = JAXBContext.newInstance(XmlDetailedReport.class.getPackage().getName());
+		Unmarshaller unmarshaller = context.createUnmarshaller();
+		Marshaller marshaller = context.createMarshaller();
+
+		JAXBElement<XmlDetailedReport> unmarshal = (JAXBElement<XmlDetailedReport>) unmarshaller.unmarshal(new File("src/test/resources/detailedReport.xml"));
+		XmlDetailedReport detailedReport = unmarshal.getValue();
+
+		StringWriter writer = new StringWriter();
+		marshaller.marshal(OF_DETAILED_REPORT.createDetailedReport(detailedReport), writer);
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		service.generateDetailedReport(writer.toString(), first);
+		int nbCachedReports = service.getNumberOfCachedReports();
+		assertTrue(nbCachedReports > 0);
+
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		service.generateDetailedReport(writer.toString(), second);
+		assertEquals(nbCachedReports, service.getNumberOfCachedReports());
+		assertArrayEquals(first.toByteArray(), second.toByteArray());
+	}
+
 }
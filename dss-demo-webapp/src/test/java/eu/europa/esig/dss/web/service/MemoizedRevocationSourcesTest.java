@@ -0,0 +1,127 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPSource;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+
+public class MemoizedRevocationSourcesTest {
+
+	private CertificateToken certificate;
+
+	private CertificateToken issuer;
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void init() {
+		certificate = DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer"));
+		issuer = DSSUtils.loadCertificate(new File("src/test/resources/CA_CZ.cer"));
+		executor = Executors.newFixedThreadPool(8);
+	}
+
+	@AfterEach
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void oneRequestPerCertificate() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		OCSPSource ocspSource = (certificateToken, issuerToken) -> {
+			calls.incrementAndGet();
+			sleep(200);
+			return null;
+		};
+		MemoizedRevocationSources revocationSources = getRevocationSources(ocspSource);
+
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < 8; i++) {
+			futures.add(executor.submit(() -> revocationSources.getOcspSource().getRevocationToken(certificate, issuer)));
+		}
+		for (Future<?> future : futures) {
+			assertNull(future.get(5, TimeUnit.SECONDS));
+		}
+		// the empty responses are memoized too
+		assertNull(revocationSources.getOcspSource().getRevocationToken(certificate, issuer));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void parallelRequests() throws Exception {
+		CountDownLatch started = new CountDownLatch(2);
+		AtomicInteger calls = new AtomicInteger();
+		// each request waits for the other one : it only returns if both run at the same time
+		OCSPSource ocspSource = (certificateToken, issuerToken) -> {
+			calls.incrementAndGet();
+			started.countDown();
+			try {
+				if (!started.await(5, TimeUnit.SECONDS)) {
+					throw new DSSException("Requests not sent in parallel");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		};
+		MemoizedRevocationSources revocationSources = getRevocationSources(ocspSource);
+
+		Future<?> first = executor.submit(() -> revocationSources.getOcspSource().getRevocationToken(certificate, issuer));
+		Future<?> second = executor.submit(() -> revocationSources.getOcspSource().getRevocationToken(issuer, null));
+		first.get(10, TimeUnit.SECONDS);
+		second.get(10, TimeUnit.SECONDS);
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void failedRequestNotMemoized() {
+		AtomicInteger calls = new AtomicInteger();
+		OCSPSource ocspSource = (certificateToken, issuerToken) -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new DSSException("Unreachable OCSP responder");
+			}
+			return null;
+		};
+		MemoizedRevocationSources revocationSources = getRevocationSources(ocspSource);
+
+		assertThrows(DSSException.class, () -> revocationSources.getOcspSource().getRevocationToken(certificate, issuer));
+		assertNull(revocationSources.getOcspSource().getRevocationToken(certificate, issuer));
+		assertNull(revocationSources.getOcspSource().getRevocationToken(certificate, issuer));
+		assertEquals(2, calls.get());
+		assertNull(revocationSources.getCrlSource());
+	}
+
+	private MemoizedRevocationSources getRevocationSources(OCSPSource ocspSource) {
+		CommonCertificateVerifier certificateVerifier = new CommonCertificateVerifier();
+		certificateVerifier.setOcspSource(ocspSource);
+		return new MemoizedRevocationSources(certificateVerifier);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
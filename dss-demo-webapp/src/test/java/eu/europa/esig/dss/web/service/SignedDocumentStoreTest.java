@@ -0,0 +1,121 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import eu.europa.esig.dss.model.InMemoryDocument;
+import eu.europa.esig.dss.model.MimeType;
+import eu.europa.esig.dss.web.model.StoredDocument;
+
+public class SignedDocumentStoreTest {
+
+	@Test
+	public void parseRange() {
+		assertNull(SignedDocumentStore.parseRange(null, 100));
+		assertArrayEquals(new long[] { 0, 99 }, SignedDocumentStore.parseRange("bytes=0-", 100));
+		assertArrayEquals(new long[] { 10, 19 }, SignedDocumentStore.parseRange("bytes=10-19", 100));
+		assertArrayEquals(new long[] { 10, 99 }, SignedDocumentStore.parseRange("bytes=10-500", 100));
+		assertArrayEquals(new long[] { 80, 99 }, SignedDocumentStore.parseRange("bytes=-20", 100));
+		assertArrayEquals(new long[] { 0, 99 }, SignedDocumentStore.parseRange("bytes=-500", 100));
+	}
+
+	@Test
+	public void ignoredRange() {
+		assertNull(SignedDocumentStore.parseRange("bytes=-", 100));
+		assertNull(SignedDocumentStore.parseRange("bytes=0-10,20-30", 100));
+		assertNull(SignedDocumentStore.parseRange("bytes=20-10", 100));
+		assertNull(SignedDocumentStore.parseRange("items=0-10", 100));
+	}
+
+	@Test
+	public void unsatisfiableRange() {
+		assertEquals(0, SignedDocumentStore.parseRange("bytes=100-", 100).length);
+		assertEquals(0, SignedDocumentStore.parseRange("bytes=-0", 100).length);
+		assertEquals(0, SignedDocumentStore.parseRange("bytes=0-", 0).length);
+		// overflow of a long
+		assertEquals(0, SignedDocumentStore.parseRange("bytes=99999999999999999999-", 100).length);
+		assertEquals(0, SignedDocumentStore.parseRange("bytes=-99999999999999999999", 100).length);
+	}
+
+	@Test
+	public void download() throws Exception {
+		SignedDocumentStore store = new SignedDocumentStore();
+		store.init();
+		StoredDocument storedDocument = store.store(new InMemoryDocument("Hello world".getBytes(StandardCharsets.UTF_8), "hello.txt", MimeType.TEXT));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		store.download(storedDocument, new MockHttpServletRequest(), response);
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertEquals("Hello world", response.getContentAsString());
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Range", "bytes=6-");
+		response = new MockHttpServletResponse();
+		store.download(storedDocument, request, response);
+		assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+		assertEquals("bytes 6-10/11", response.getHeader("Content-Range"));
+		assertEquals("world", response.getContentAsString());
+
+		request = new MockHttpServletRequest();
+		request.addHeader("Range", "bytes=99999999999999999999-");
+		response = new MockHttpServletResponse();
+		store.download(storedDocument, request, response);
+		assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+		assertEquals("bytes */11", response.getHeader("Content-Range"));
+		store.destroy();
+	}
+
+	@Test
+	public void downloadWithSendfile() throws Exception {
+		SignedDocumentStore store = new SignedDocumentStore();
+		store.init();
+		StoredDocument storedDocument = store.store(new InMemoryDocument("Hello world".getBytes(StandardCharsets.UTF_8), "hello.txt", MimeType.TEXT));
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		request.addHeader("Range", "bytes=-5");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		store.download(storedDocument, request, response);
+		assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+		assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(11L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, response.getContentAsByteArray().length);
+		store.destroy();
+	}
+
+	@Test
+	public void privateFolder() throws Exception {
+		SignedDocumentStore store = new SignedDocumentStore();
+		store.init();
+		SignedDocumentStore other = new SignedDocumentStore();
+		other.init();
+
+		File storeDirectory = (File) ReflectionTestUtils.getField(store, "storeDirectory");
+		assertNotEquals(storeDirectory, ReflectionTestUtils.getField(other, "storeDirectory"));
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(storeDirectory.toPath()));
+		}
+
+		store.store(new InMemoryDocument("Hello world".getBytes(StandardCharsets.UTF_8), "hello.txt", MimeType.TEXT));
+		store.destroy();
+		assertFalse(storeDirectory.exists());
+		other.destroy();
+	}
+
+}
@@ -0,0 +1,74 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.security.KeyStore.PasswordProtection;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import eu.europa.esig.dss.enumerations.ASiCContainerType;
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureForm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.model.DSSDocument;
+import eu.europa.esig.dss.model.SignatureValue;
+import eu.europa.esig.dss.model.ToBeSigned;
+import eu.europa.esig.dss.token.DSSPrivateKeyEntry;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.SignatureMultipleDocumentsForm;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class SigningServiceTest {
+
+	@Autowired
+	private SigningService signingService;
+
+	@Test
+	public void signMultipleDocuments() throws Exception {
+		try (KeyStoreSignatureTokenConnection token = new KeyStoreSignatureTokenConnection(new File("src/test/resources/user_a_rsa.p12"), "PKCS12",
+				new PasswordProtection("password".toCharArray()))) {
+			DSSPrivateKeyEntry privateKey = token.getKeys().get(0);
+
+			SignatureMultipleDocumentsForm form = new SignatureMultipleDocumentsForm();
+			form.setContainerType(ASiCContainerType.ASiC_E);
+			form.setSignatureForm(SignatureForm.XAdES);
+			form.setSignatureLevel(SignatureLevel.XAdES_BASELINE_B);
+			form.setDigestAlgorithm(DigestAlgorithm.SHA256);
+			form.setSigningDate(new Date());
+			form.setBase64Certificate(Utils.toBase64(privateKey.getCertificate().getEncoded()));
+			form.setEncryptionAlgorithm(privateKey.getEncryptionAlgorithm());
+			form.setDocumentsToSign(Arrays.asList(new MockMultipartFile("documentsToSign", "first.txt", "text/plain", "Hello".getBytes()),
+					new MockMultipartFile("documentsToSign", "second.txt", "text/plain", "World".getBytes())));
+
+			ToBeSigned dataToSign = signingService.getDataToSign(form);
+			assertNotNull(dataToSign);
+			// converted once, digested in parallel and kept for the signature step
+			assertNotNull(form.getDssDocumentsToSign());
+			assertEquals(2, form.getDssDocumentsToSign().size());
+
+			SignatureValue signatureValue = token.sign(dataToSign, DigestAlgorithm.SHA256, privateKey);
+			form.setBase64SignatureValue(Utils.toBase64(signatureValue.getValue()));
+
+			DSSDocument signedDocument = signingService.signDocument(form);
+			assertNotNull(signedDocument);
+			// not kept in the session form after the signature
+			assertNull(form.getDssDocumentsToSign());
+		}
+	}
+
+}
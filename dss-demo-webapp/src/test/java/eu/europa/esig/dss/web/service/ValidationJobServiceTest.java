@@ -0,0 +1,140 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.FileDocument;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.model.AsyncJob;
+import eu.europa.esig.dss.web.model.AsyncJobStatus;
+import eu.europa.esig.dss.web.model.ValidationJobRequest;
+import eu.europa.esig.dss.ws.converter.RemoteDocumentConverter;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(properties = "async.validation.callback.allowed.hosts = localhost, dss.example.com")
+public class ValidationJobServiceTest {
+
+	@Autowired
+	private ValidationJobService validationJobService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void validate() throws InterruptedException {
+		ValidationJobRequest request = new ValidationJobRequest();
+		request.setSignedDocument(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/xades-detached.xml")));
+		request.setOriginalDocuments(Arrays.asList(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/sample.xml"))));
+
+		AsyncJob job = validationJobService.submit(request);
+		assertNotNull(job.getId());
+
+		long timeout = System.currentTimeMillis() + 60000;
+		while (!job.getStatus().isFinished() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+			job = validationJobService.getJob(job.getId());
+		}
+
+		assertEquals(AsyncJobStatus.COMPLETED, job.getStatus());
+		assertEquals(Integer.valueOf(1), job.getTotal());
+		assertEquals(job.getTotal(), job.getProcessed());
+
+		WSReportsDTO reports = validationJobService.getReports(job.getId());
+		assertNotNull(reports);
+		assertNotNull(reports.getSimpleReport());
+		assertTrue(reports.getSimpleReport().getSignaturesCount() == 1);
+	}
+
+	@Test
+	public void takeOverExpiredLease() throws Exception {
+		ValidationJobRequest request = new ValidationJobRequest();
+		request.setSignedDocument(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/xades-detached.xml")));
+		request.setOriginalDocuments(Arrays.asList(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/sample.xml"))));
+
+		// jobs of other nodes : one stopped 10 minutes ago, one alive
+		String stoppedNodeJob = insertRunningJob(request, System.currentTimeMillis() - 600000);
+		String aliveNodeJob = insertRunningJob(request, System.currentTimeMillis());
+
+		validationJobService.heartbeat();
+
+		AsyncJob job = validationJobService.getJob(stoppedNodeJob);
+		long timeout = System.currentTimeMillis() + 60000;
+		while (!job.getStatus().isFinished() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(100);
+			job = validationJobService.getJob(stoppedNodeJob);
+		}
+		assertEquals(AsyncJobStatus.COMPLETED, job.getStatus());
+		assertEquals(AsyncJobStatus.RUNNING, validationJobService.getJob(aliveNodeJob).getStatus());
+	}
+
+	@Test
+	public void invalidCallbackUrl() {
+		ValidationJobRequest request = new ValidationJobRequest();
+		request.setSignedDocument(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/xades-detached.xml")));
+		request.setCallbackUrl("file:///etc/passwd");
+		assertThrows(DSSException.class, () -> validationJobService.submit(request));
+	}
+
+	@Test
+	public void callbackHostNotAllowed() {
+		ValidationJobRequest request = new ValidationJobRequest();
+		request.setSignedDocument(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/xades-detached.xml")));
+		request.setCallbackUrl("https://other.example.com/callback");
+		assertThrows(DSSException.class, () -> validationJobService.submit(request));
+	}
+
+	@Test
+	public void callbackToLoopbackAddress() {
+		ValidationJobRequest request = new ValidationJobRequest();
+		request.setSignedDocument(RemoteDocumentConverter.toRemoteDocument(new FileDocument("src/test/resources/xades-detached.xml")));
+		// allowed host, but resolved to a loopback address
+		request.setCallbackUrl("http://localhost:8080/callback");
+		assertThrows(DSSException.class, () -> validationJobService.submit(request));
+	}
+
+	private String insertRunningJob(ValidationJobRequest request, long updateDate) throws Exception {
+		String id = UUID.randomUUID().toString();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+			oos.writeObject(request);
+		}
+		try (Connection c = dataSource.getConnection();
+				PreparedStatement s = c.prepareStatement("INSERT INTO VALIDATION_JOBS (ID, STATUS, CREATION_DATE, UPDATE_DATE, OWNER, REQUEST_DATA) "
+						+ "VALUES (?, ?, ?, ?, ?, ?)")) {
+			s.setString(1, id);
+			s.setString(2, AsyncJobStatus.RUNNING.name());
+			s.setTimestamp(3, new Timestamp(updateDate));
+			s.setTimestamp(4, new Timestamp(updateDate));
+			s.setString(5, UUID.randomUUID().toString());
+			s.setBytes(6, baos.toByteArray());
+			s.executeUpdate();
+			c.commit();
+		}
+		return id;
+	}
+
+}
@@ -0,0 +1,75 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import eu.europa.esig.dss.model.FileDocument;
+import eu.europa.esig.dss.policy.ValidationPolicy;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.ws.dto.RemoteDocument;
+import eu.europa.esig.dss.ws.validation.common.RemoteDocumentValidationService;
+import eu.europa.esig.dss.ws.validation.dto.DataToValidateDTO;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class ValidationPolicyCacheTest {
+
+	@Autowired
+	private ValidationPolicyCache cache;
+
+	@Autowired
+	private RemoteDocumentValidationService remoteValidationService;
+
+	@Test
+	public void defaultPolicy() {
+		assertNotNull(cache.getDefaultPolicy());
+	}
+
+	@Test
+	public void sameContentParsedOnce() {
+		ValidationPolicy policy = cache.getPolicy(new FileDocument("src/test/resources/constraint.xml"));
+		assertNotNull(policy);
+		assertSame(policy, cache.getPolicy(new FileDocument("src/test/resources/constraint.xml")));
+		assertNotSame(cache.getDefaultPolicy(), policy);
+	}
+
+	@Test
+	public void remoteValidationUsesCache() throws IOException {
+		// unique content : not yet in the policy and result caches
+		String policy = new String(Files.readAllBytes(Paths.get("src/test/resources/constraint.xml")), StandardCharsets.UTF_8) + "<!-- "
+				+ UUID.randomUUID() + " -->";
+		byte[] policyBinaries = policy.getBytes(StandardCharsets.UTF_8);
+
+		DataToValidateDTO dataToValidate = new DataToValidateDTO();
+		dataToValidate.setSignedDocument(new RemoteDocument(Files.readAllBytes(Paths.get("src/test/resources/xades-detached.xml")), "xades-detached.xml"));
+		dataToValidate.setOriginalDocuments(
+				Collections.singletonList(new RemoteDocument(Files.readAllBytes(Paths.get("src/test/resources/sample.xml")), "sample.xml")));
+		dataToValidate.setPolicy(new RemoteDocument(policyBinaries, "policy.xml"));
+
+		int size = cache.size();
+		WSReportsDTO reports = remoteValidationService.validateDocument(dataToValidate);
+		assertNotNull(reports.getSimpleReport());
+		// parsed by the remote validation, found in the cache
+		cache.getPolicy(policyBinaries);
+		assertEquals(size + 1, cache.size());
+	}
+
+}
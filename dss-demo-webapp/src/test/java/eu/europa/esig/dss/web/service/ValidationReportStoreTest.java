@@ -0,0 +1,131 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.validation.CertificateValidator;
+import eu.europa.esig.dss.validation.CommonCertificateVerifier;
+import eu.europa.esig.dss.validation.reports.CertificateReports;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+import eu.europa.esig.dss.web.exception.SourceNotFoundException;
+import eu.europa.esig.dss.web.model.IndexedDiagnosticData;
+import eu.europa.esig.dss.web.model.ReportType;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@ExtendWith(SpringExtension.class)
+public class ValidationReportStoreTest {
+
+	@Autowired
+	private ValidationReportStore store;
+
+	@Test
+	public void storeAndRead() throws IOException {
+		CertificateValidator validator = CertificateValidator.fromCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer")));
+		validator.setCertificateVerifier(new CommonCertificateVerifier());
+		CertificateReports reports = validator.validate();
+
+		String id = store.store(reports);
+		assertNotNull(id);
+		assertEquals(id, store.store(reports));
+		assertTrue(store.getMemorySize() > 0);
+
+		assertTrue(store.isCertificateReports(id));
+		assertEquals(reports.getXmlSimpleReport(), store.getXml(id, ReportType.SIMPLE_REPORT));
+		assertEquals(reports.getXmlDetailedReport(), store.getXml(id, ReportType.DETAILED_REPORT));
+		assertEquals(reports.getXmlDiagnosticData(), store.getXml(id, ReportType.DIAGNOSTIC_DATA));
+		try (InputStream is = new GZIPInputStream(store.openCompressedStream(id, ReportType.DIAGNOSTIC_DATA))) {
+			assertEquals(reports.getXmlDiagnosticData(), new String(Utils.toByteArray(is), StandardCharsets.UTF_8));
+		}
+		assertFalse(store.hasReport(id, ReportType.ETSI_VALIDATION_REPORT));
+		assertNull(store.getXml(id, ReportType.ETSI_VALIDATION_REPORT));
+
+		IndexedDiagnosticData diagnosticData = store.getDiagnosticData(id);
+		assertEquals(reports.getDiagnosticData().getUsedCertificates().size(), diagnosticData.getDiagnosticData().getUsedCertificates().size());
+		assertSame(diagnosticData, store.getDiagnosticData(id));
+
+		String certificateId = reports.getDiagnosticData().getUsedCertificates().get(0).getId();
+		assertNotNull(diagnosticData.getCertificate(certificateId));
+		assertNull(diagnosticData.getCertificate("unknown"));
+	}
+
+	@Test
+	public void addSvg() {
+		CertificateValidator validator = CertificateValidator.fromCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CA_CZ.cer")));
+		validator.setCertificateVerifier(new CommonCertificateVerifier());
+		CertificateReports reports = validator.validate();
+
+		String id = store.store(reports);
+		assertNull(store.getXml(id, ReportType.DIAGNOSTIC_DATA_SVG));
+
+		store.add(id, ReportType.DIAGNOSTIC_DATA_SVG, "<svg/>");
+		assertEquals("<svg/>", store.getXml(id, ReportType.DIAGNOSTIC_DATA_SVG));
+	}
+
+	@Test
+	public void spillToDisk() {
+		ValidationReportStore first = newStore(1);
+		ValidationReportStore second = newStore(1);
+		File firstDirectory = (File) ReflectionTestUtils.getField(first, "spillDirectory");
+		assertNotEquals(firstDirectory, ReflectionTestUtils.getField(second, "spillDirectory"));
+
+		CertificateValidator validator = CertificateValidator.fromCertificate(DSSUtils.loadCertificate(new File("src/test/resources/CZ.cer")));
+		validator.setCertificateVerifier(new CommonCertificateVerifier());
+		CertificateReports reports = validator.validate();
+
+		String id = first.store(reports);
+		// above the limit : moved to disk as soon as stored
+		assertEquals(0, first.getMemorySize());
+		assertEquals(reports.getXmlSimpleReport(), first.getXml(id, ReportType.SIMPLE_REPORT));
+		assertEquals(reports.getXmlDiagnosticData(), first.getXml(id, ReportType.DIAGNOSTIC_DATA));
+
+		first.add(id, ReportType.DIAGNOSTIC_DATA_SVG, "<svg/>");
+		assertEquals("<svg/>", first.getXml(id, ReportType.DIAGNOSTIC_DATA_SVG));
+		assertEquals(0, first.getMemorySize());
+
+		// the second store is not affected by the first one
+		assertThrows(SourceNotFoundException.class, () -> second.getXml(id, ReportType.SIMPLE_REPORT));
+
+		first.destroy();
+		assertFalse(firstDirectory.exists());
+		second.destroy();
+	}
+
+	@Test
+	public void unknownReports() {
+		assertThrows(SourceNotFoundException.class, () -> store.getXml("unknown", ReportType.SIMPLE_REPORT));
+	}
+
+	private ValidationReportStore newStore(long maxMemorySize) {
+		ValidationReportStore newStore = new ValidationReportStore();
+		ReflectionTestUtils.setField(newStore, "timeToLive", 3600000L);
+		ReflectionTestUtils.setField(newStore, "maxMemorySize", maxMemorySize);
+		ReflectionTestUtils.setField(newStore, "diskSpill", true);
+		ReflectionTestUtils.setField(newStore, "parsedCacheSize", 4);
+		newStore.init();
+		return newStore;
+	}
+
+}
@@ -0,0 +1,128 @@
+package eu.europa.esig.dss.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import eu.europa.esig.dss.model.FileDocument;
+import eu.europa.esig.dss.validation.executor.ValidationLevel;
+import eu.europa.esig.dss.web.config.DSSBeanConfig;
+
+@WebAppConfiguration
+@ContextConfiguration(classes = { DSSBeanConfig.class })
+@TestPropertySource(properties = "validation.cache.enabled = true")
+@ExtendWith(SpringExtension.class)
+public class ValidationResultCacheTest {
+
+	@Autowired
+	private ValidationResultCache cache;
+
+	@BeforeEach
+	public void clear() {
+		cache.clear();
+	}
+
+	@Test
+	public void sameInputsSameResult() {
+		AtomicInteger nbValidations = new AtomicInteger();
+
+		Object first = cache.get(newKey(ValidationLevel.ARCHIVAL_DATA), () -> new Object[] { nbValidations.incrementAndGet() }, r -> 1);
+		Object second = cache.get(newKey(ValidationLevel.ARCHIVAL_DATA), () -> new Object[] { nbValidations.incrementAndGet() }, r -> 1);
+		assertSame(first, second);
+		assertEquals(1, nbValidations.get());
+
+		cache.get(newKey(ValidationLevel.BASIC_SIGNATURES), () -> new Object[] { nbValidations.incrementAndGet() }, r -> 1);
+		assertEquals(2, nbValidations.get());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void differentKeys() {
+		assertEquals(newKey(ValidationLevel.ARCHIVAL_DATA).getValue(), newKey(ValidationLevel.ARCHIVAL_DATA).getValue());
+		assertNotEquals(newKey(ValidationLevel.ARCHIVAL_DATA).getValue(), newKey(ValidationLevel.LONG_TERM_DATA).getValue());
+		assertNotEquals(cache.newKey("test").add("ab").add("c").getValue(), cache.newKey("test").add("a").add("bc").getValue());
+	}
+
+	@Test
+	public void unchangedTrustedLists() {
+		cache.get(newKey(ValidationLevel.ARCHIVAL_DATA), () -> "result", String::length);
+		cache.onTrustedListsRefresh();
+		cache.onTrustedListsRefresh();
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void boundedBySize() throws IOException {
+		ValidationResultCache bounded = newCache(100, Files.createTempDirectory("dss-tl-cache").toFile());
+
+		bounded.get(bounded.newKey("test").add("first"), () -> "first", r -> 60);
+		bounded.get(bounded.newKey("test").add("second"), () -> "second", r -> 30);
+		assertEquals(90, bounded.getEstimatedSize());
+
+		// the least recently used result is removed
+		bounded.get(bounded.newKey("test").add("third"), () -> "third", r -> 40);
+		assertEquals(2, bounded.size());
+		assertEquals(70, bounded.getEstimatedSize());
+
+		// bigger than the cache : not cached
+		bounded.get(bounded.newKey("test").add("fourth"), () -> "fourth", r -> 101);
+		assertEquals(2, bounded.size());
+		assertEquals(70, bounded.getEstimatedSize());
+	}
+
+	@Test
+	public void changedTrustedLists() throws IOException {
+		File tlCacheDirectory = Files.createTempDirectory("dss-tl-cache").toFile();
+		File trustedList = new File(tlCacheDirectory, "LOTL.xml");
+		Files.write(trustedList.toPath(), "<TrustServiceStatusList/>".getBytes(StandardCharsets.UTF_8));
+		ValidationResultCache tlCache = newCache(1000, tlCacheDirectory);
+		tlCache.onTrustedListsRefresh();
+
+		tlCache.get(tlCache.newKey("test").add("result"), () -> "result", String::length);
+		tlCache.onTrustedListsRefresh();
+		assertEquals(1, tlCache.size());
+
+		// new version of the trusted list downloaded by the TL loader
+		Files.write(trustedList.toPath(), "<TrustServiceStatusList Id=\"v2\"/>".getBytes(StandardCharsets.UTF_8));
+		tlCache.onTrustedListsRefresh();
+		assertEquals(0, tlCache.size());
+		assertEquals(0, tlCache.getEstimatedSize());
+
+		// a new trusted list
+		tlCache.get(tlCache.newKey("test").add("result"), () -> "result", String::length);
+		Files.write(new File(tlCacheDirectory, "TL-BE.xml").toPath(), "<TrustServiceStatusList/>".getBytes(StandardCharsets.UTF_8));
+		tlCache.onTrustedListsRefresh();
+		assertEquals(0, tlCache.size());
+	}
+
+	private ValidationResultCache newCache(long maxSize, File tlCacheDirectory) {
+		ValidationResultCache newCache = new ValidationResultCache();
+		ReflectionTestUtils.setField(newCache, "enabled", true);
+		ReflectionTestUtils.setField(newCache, "maxEntries", 256);
+		ReflectionTestUtils.setField(newCache, "maxSize", maxSize);
+		ReflectionTestUtils.setField(newCache, "timeBucket", 300000L);
+		ReflectionTestUtils.setField(newCache, "tlCacheDirectory", tlCacheDirectory);
+		return newCache;
+	}
+
+	private ValidationResultCache.Key newKey(ValidationLevel validationLevel) {
+		return cache.newKey("test").add(new FileDocument("src/test/resources/sample.xml")).add(validationLevel);
+	}
+
+}
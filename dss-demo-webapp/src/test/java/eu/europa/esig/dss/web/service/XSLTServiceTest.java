@@ -1,10 +1,14 @@
 package eu.europa.esig.dss.web.service;
 
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.io.StringWriter;
 
 import javax.xml.bind.JAXBContext;
@@ -121,4 +125,17 @@ public class XSLTServiceTest {
 		LOG.debug("Detailed report html : " + htmlDetailedReport);
 	}
 
+	@Test
+	public void reuseTransformers() throws Exception {
+		String simpleReport = new String(Files.readAllBytes(new File("src/test/resources/simpleReport.xml").toPath()), StandardCharsets.UTF_8);
+
+		String first = service.generateSimpleReport(simpleReport);
+		assertTrue(Utils.isStringNotEmpty(first));
+		// the second call uses the pooled transformer
+		assertEquals(first, service.generateSimpleReport(simpleReport));
+
+		assertNull(service.generateSimpleReport("not xml"));
+		assertEquals(first, service.generateSimpleReport(simpleReport));
+	}
+
 }
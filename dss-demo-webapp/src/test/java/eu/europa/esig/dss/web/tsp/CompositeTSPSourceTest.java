@@ -0,0 +1,194 @@
+package eu.europa.esig.dss.web.tsp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.security.KeyStore.PasswordProtection;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.cms.CMSSignedData;
+import org.bouncycastle.tsp.TimeStampToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.TimestampBinary;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+import eu.europa.esig.dss.x509.tsp.MockTSPSource;
+
+public class CompositeTSPSourceTest {
+
+	private static final byte[] DIGEST = DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes());
+
+	private MockTSPSource mock;
+
+	@BeforeEach
+	public void init() throws Exception {
+		mock = new MockTSPSource();
+		mock.setToken(new KeyStoreSignatureTokenConnection(new File("src/main/resources/self-signed-tsa.p12"), "PKCS12",
+				new PasswordProtection("ks-password".toCharArray())));
+		mock.setAlias("self-signed-tsa");
+	}
+
+	@Test
+	public void weightedRoundRobin() throws Exception {
+		CountingTSPSource first = new CountingTSPSource(mock, 0);
+		CountingTSPSource second = new CountingTSPSource(mock, 0);
+
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("first", first, 3), new WeightedTSPSource("second", second, 1)));
+		composite.setMinHedgeDelay(1000);
+
+		for (int i = 0; i < 8; i++) {
+			assertValid(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+		}
+		assertEquals(6, first.counter.get());
+		assertEquals(2, second.counter.get());
+	}
+
+	@Test
+	public void hedgedRequest() throws Exception {
+		CountingTSPSource slow = new CountingTSPSource(mock, 5000);
+		CountingTSPSource fast = new CountingTSPSource(mock, 0);
+
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("slow", slow, 1), new WeightedTSPSource("fast", fast, 1)));
+		composite.setMaxHedgeDelay(100);
+
+		long start = System.currentTimeMillis();
+		assertValid(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+		assertTrue(System.currentTimeMillis() - start < 2000);
+		assertEquals(1, fast.counter.get());
+	}
+
+	@Test
+	public void failover() throws Exception {
+		TSPSource failing = new TSPSource() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public TimestampBinary getTimeStampResponse(DigestAlgorithm digestAlgorithm, byte[] digest) {
+				throw new DSSException("TSA down");
+			}
+		};
+
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("failing", failing, 10), new WeightedTSPSource("mock", mock, 1)));
+
+		for (int i = 0; i < 5; i++) {
+			assertValid(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+		}
+
+		CompositeTSPSource onlyFailing = new CompositeTSPSource();
+		onlyFailing.setTspSources(Arrays.asList(new WeightedTSPSource("failing", failing, 1)));
+		assertThrows(DSSException.class, () -> onlyFailing.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+	}
+
+	@Test
+	public void cancelledRequestLatency() throws Exception {
+		CountingTSPSource variable = new CountingTSPSource(mock, 0);
+		CountingTSPSource other = new CountingTSPSource(mock, 1000);
+
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("variable", variable, 1000), new WeightedTSPSource("other", other, 1)));
+		composite.setHedgePercentile(1);
+		composite.setMinHedgeDelay(10);
+
+		// warm-up of the mock TSA
+		mock.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST);
+		for (int i = 0; i < 3; i++) {
+			assertValid(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+		}
+		assertTrue(composite.getHedgeDelay("variable") < 1000);
+
+		// hedged after a few ms, cancelled when the other TSA answers (1 s later)
+		variable.latency = 5000;
+		assertValid(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+		assertEquals(1, other.counter.get());
+		assertTrue(composite.getHedgeDelay("variable") >= 1000);
+		composite.destroy();
+	}
+
+	@Test
+	public void saturatedPool() throws Exception {
+		CountingTSPSource slow = new CountingTSPSource(mock, 1000);
+
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("slow", slow, 1)));
+		composite.setPoolSize(1);
+
+		// one request sent, one waiting for the thread
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		try {
+			Future<TimestampBinary> sent = callers.submit(() -> composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+			Thread.sleep(200);
+			Future<TimestampBinary> waiting = callers.submit(() -> composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+			Thread.sleep(200);
+
+			DSSException e = assertThrows(DSSException.class, () -> composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+			assertTrue(e.getMessage().contains("Too many"));
+
+			assertValid(sent.get(5, TimeUnit.SECONDS));
+			assertValid(waiting.get(5, TimeUnit.SECONDS));
+		} finally {
+			callers.shutdownNow();
+			composite.destroy();
+		}
+	}
+
+	@Test
+	public void destroyed() {
+		CompositeTSPSource composite = new CompositeTSPSource();
+		composite.setTspSources(Arrays.asList(new WeightedTSPSource("mock", mock, 1)));
+		assertNotNull(composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+
+		composite.destroy();
+		assertThrows(DSSException.class, () -> composite.getTimeStampResponse(DigestAlgorithm.SHA256, DIGEST));
+	}
+
+	private void assertValid(TimestampBinary timestampBinary) throws Exception {
+		TimeStampToken timeStampToken = new TimeStampToken(new CMSSignedData(timestampBinary.getBytes()));
+		assertArrayEquals(DIGEST, timeStampToken.getTimeStampInfo().getMessageImprintDigest());
+	}
+
+	private static class CountingTSPSource implements TSPSource {
+
+		private static final long serialVersionUID = 1L;
+
+		private final TSPSource tspSource;
+		private volatile long latency;
+		private final AtomicInteger counter = new AtomicInteger();
+
+		CountingTSPSource(TSPSource tspSource, long latency) {
+			this.tspSource = tspSource;
+			this.latency = latency;
+		}
+
+		@Override
+		public TimestampBinary getTimeStampResponse(DigestAlgorithm digestAlgorithm, byte[] digest) {
+			try {
+				Thread.sleep(latency);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new DSSException("Interrupted");
+			}
+			counter.incrementAndGet();
+			return tspSource.getTimeStampResponse(digestAlgorithm, digest);
+		}
+
+	}
+
+}
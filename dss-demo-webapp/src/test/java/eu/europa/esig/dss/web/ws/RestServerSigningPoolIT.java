@@ -0,0 +1,71 @@
+package eu.europa.esig.dss.web.ws;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.utils.Utils;
+import eu.europa.esig.dss.web.config.CXFConfig;
+import eu.europa.esig.dss.web.model.KeySigningMetrics;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+import eu.europa.esig.dss.ws.dto.SignatureValueDTO;
+import eu.europa.esig.dss.ws.server.signing.dto.RemoteKeyEntry;
+import eu.europa.esig.dss.ws.server.signing.rest.client.RestSignatureTokenConnection;
+
+public class RestServerSigningPoolIT extends AbstractRestIT {
+
+	private RestSignatureTokenConnection remoteToken;
+
+	private RestServerSigningPoolService poolService;
+
+	@BeforeEach
+	public void init() {
+		JAXRSClientFactoryBean factory = new JAXRSClientFactoryBean();
+		factory.setAddress(getBaseCxf() + CXFConfig.REST_SERVER_SIGNING);
+		factory.setServiceClass(RestSignatureTokenConnection.class);
+		factory.setProviders(Arrays.asList(jacksonJsonProvider()));
+		remoteToken = factory.create(RestSignatureTokenConnection.class);
+
+		factory = new JAXRSClientFactoryBean();
+		factory.setAddress(getBaseCxf() + CXFConfig.REST_SERVER_SIGNING_POOL);
+		factory.setServiceClass(RestServerSigningPoolService.class);
+		factory.setProviders(Arrays.asList(jacksonJsonProvider()));
+		poolService = factory.create(RestServerSigningPoolService.class);
+	}
+
+	@Test
+	public void testSignDigests() throws Exception {
+		List<RemoteKeyEntry> keys = remoteToken.getKeys();
+		assertTrue(Utils.isCollectionNotEmpty(keys));
+
+		String alias = keys.get(0).getAlias();
+
+		DigestDTO digest1 = new DigestDTO(DigestAlgorithm.SHA256, DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes(Charset.defaultCharset())));
+		DigestDTO digest2 = new DigestDTO(DigestAlgorithm.SHA256, DSSUtils.digest(DigestAlgorithm.SHA256, "world!".getBytes(Charset.defaultCharset())));
+
+		List<SignatureValueDTO> signatureValues = poolService.signDigests(alias, Arrays.asList(digest1, digest2, digest1));
+		assertEquals(3, signatureValues.size());
+		for (SignatureValueDTO signatureValue : signatureValues) {
+			assertNotNull(signatureValue.getAlgorithm());
+			assertNotNull(signatureValue.getValue());
+		}
+		assertEquals(Utils.toBase64(signatureValues.get(0).getValue()), Utils.toBase64(signatureValues.get(2).getValue()));
+
+		List<KeySigningMetrics> metrics = poolService.getMetrics();
+		assertTrue(Utils.isCollectionNotEmpty(metrics));
+		KeySigningMetrics keyMetrics = metrics.get(0);
+		assertEquals(alias, keyMetrics.getAlias());
+		assertTrue(keyMetrics.getNbSignatures() >= 3);
+	}
+
+}
@@ -0,0 +1,215 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.cxf.jaxb.JAXBDataBinding;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.enumerations.SignaturePackaging;
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.ws.cert.validation.dto.CertificateToValidateDTO;
+import eu.europa.esig.dss.ws.cert.validation.rest.client.RestCertificateValidationService;
+import eu.europa.esig.dss.ws.cert.validation.soap.client.SoapCertificateValidationService;
+import eu.europa.esig.dss.ws.dto.DigestDTO;
+import eu.europa.esig.dss.ws.dto.RemoteDocument;
+import eu.europa.esig.dss.ws.dto.SignatureValueDTO;
+import eu.europa.esig.dss.ws.dto.ToBeSignedDTO;
+import eu.europa.esig.dss.ws.server.signing.dto.RemoteKeyEntry;
+import eu.europa.esig.dss.ws.server.signing.rest.client.RestSignatureTokenConnection;
+import eu.europa.esig.dss.ws.server.signing.soap.client.SoapSignatureTokenConnection;
+import eu.europa.esig.dss.ws.signature.dto.DataToSignOneDocumentDTO;
+import eu.europa.esig.dss.ws.signature.dto.SignOneDocumentDTO;
+import eu.europa.esig.dss.ws.signature.dto.parameters.RemoteSignatureParameters;
+import eu.europa.esig.dss.ws.signature.rest.client.RestDocumentSignatureService;
+import eu.europa.esig.dss.ws.signature.soap.client.DateAdapter;
+import eu.europa.esig.dss.ws.signature.soap.client.SoapDocumentSignatureService;
+import eu.europa.esig.dss.ws.timestamp.remote.rest.client.RestTimestampService;
+import eu.europa.esig.dss.ws.timestamp.remote.soap.client.SoapTimestampService;
+import eu.europa.esig.dss.ws.validation.dto.DataToValidateDTO;
+import eu.europa.esig.dss.ws.validation.dto.WSReportsDTO;
+import eu.europa.esig.dss.ws.validation.rest.client.RestDocumentValidationService;
+import eu.europa.esig.dss.ws.validation.soap.client.SoapDocumentValidationService;
+
+/**
+ * Executes the operations of the workload against the REST and SOAP services of the web application.
+ * 
+ * Signatures are created with the server signing token (first key). The document to validate is signed once at
+ * initialization and the certificate to validate is the one of the server signing key, so the whole workload only
+ * depends on the instance under test.
+ */
+public class DssWorkload {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DssWorkload.class);
+
+	/* Same addresses as CXFConfig */
+	private static final String SOAP_SIGNATURE_ONE_DOCUMENT = "/soap/signature/one-document";
+	private static final String SOAP_VALIDATION = "/soap/validation";
+	private static final String SOAP_CERTIFICATE_VALIDATION = "/soap/certificate-validation";
+	private static final String SOAP_SERVER_SIGNING = "/soap/server-signing";
+	private static final String SOAP_TIMESTAMP_SERVICE = "/soap/timestamp-service";
+
+	private static final String REST_SIGNATURE_ONE_DOCUMENT = "/rest/signature/one-document";
+	private static final String REST_VALIDATION = "/rest/validation";
+	private static final String REST_CERTIFICATE_VALIDATION = "/rest/certificate-validation";
+	private static final String REST_SERVER_SIGNING = "/rest/server-signing";
+	private static final String REST_TIMESTAMP_SERVICE = "/rest/timestamp-service";
+
+	private static final DigestAlgorithm DIGEST_ALGORITHM = DigestAlgorithm.SHA256;
+
+	private final RestDocumentSignatureService restSignature;
+	private final RestSignatureTokenConnection restServerSigning;
+	private final RestDocumentValidationService restValidation;
+	private final RestCertificateValidationService restCertificateValidation;
+	private final RestTimestampService restTimestamp;
+
+	private final SoapDocumentSignatureService soapSignature;
+	private final SoapSignatureTokenConnection soapServerSigning;
+	private final SoapDocumentValidationService soapValidation;
+	private final SoapCertificateValidationService soapCertificateValidation;
+	private final SoapTimestampService soapTimestamp;
+
+	private final SignatureLevel signatureLevel;
+
+	private RemoteKeyEntry key;
+
+	private RemoteDocument signedDocument;
+
+	public DssWorkload(String baseUrl, SignatureLevel signatureLevel) {
+		this.signatureLevel = signatureLevel;
+
+		restSignature = restClient(baseUrl + REST_SIGNATURE_ONE_DOCUMENT, RestDocumentSignatureService.class);
+		restServerSigning = restClient(baseUrl + REST_SERVER_SIGNING, RestSignatureTokenConnection.class);
+		restValidation = restClient(baseUrl + REST_VALIDATION, RestDocumentValidationService.class);
+		restCertificateValidation = restClient(baseUrl + REST_CERTIFICATE_VALIDATION, RestCertificateValidationService.class);
+		restTimestamp = restClient(baseUrl + REST_TIMESTAMP_SERVICE, RestTimestampService.class);
+
+		soapSignature = soapClient(baseUrl + SOAP_SIGNATURE_ONE_DOCUMENT, SoapDocumentSignatureService.class);
+		soapServerSigning = soapClient(baseUrl + SOAP_SERVER_SIGNING, SoapSignatureTokenConnection.class);
+		soapValidation = soapClient(baseUrl + SOAP_VALIDATION, SoapDocumentValidationService.class);
+		soapCertificateValidation = soapClient(baseUrl + SOAP_CERTIFICATE_VALIDATION, SoapCertificateValidationService.class);
+		soapTimestamp = soapClient(baseUrl + SOAP_TIMESTAMP_SERVICE, SoapTimestampService.class);
+	}
+
+	/**
+	 * Retrieves the server signing key and signs the document used by the validation operations
+	 */
+	public void init() {
+		List<RemoteKeyEntry> keys = restServerSigning.getKeys();
+		if (keys == null || keys.isEmpty()) {
+			throw new DSSException("No key available on the server signing service");
+		}
+		key = keys.get(0);
+		LOG.info("Server signing key : {}", key.getAlias());
+
+		signedDocument = signRest(newDocument());
+		LOG.info("Document to validate : {} bytes", signedDocument.getBytes().length);
+	}
+
+	public void execute(Operation operation) {
+		switch (operation) {
+		case SIGN_REST:
+			signRest(newDocument());
+			break;
+		case SIGN_SOAP:
+			signSoap(newDocument());
+			break;
+		case VALIDATE_REST:
+			checkReports(restValidation.validateSignature(new DataToValidateDTO(signedDocument, (RemoteDocument) null, null)));
+			break;
+		case VALIDATE_SOAP:
+			checkReports(soapValidation.validateSignature(new DataToValidateDTO(signedDocument, (RemoteDocument) null, null)));
+			break;
+		case CERTIFICATE_VALIDATION_REST:
+			restCertificateValidation.validateCertificate(new CertificateToValidateDTO(key.getCertificate()));
+			break;
+		case CERTIFICATE_VALIDATION_SOAP:
+			soapCertificateValidation.validateCertificate(new CertificateToValidateDTO(key.getCertificate()));
+			break;
+		case TIMESTAMP_REST:
+			restTimestamp.getTimestampResponse(newDigest());
+			break;
+		case TIMESTAMP_SOAP:
+			soapTimestamp.getTimestampResponse(newDigest());
+			break;
+		default:
+			throw new UnsupportedOperationException("Unsupported operation " + operation);
+		}
+	}
+
+	private RemoteDocument signRest(RemoteDocument toSign) {
+		RemoteSignatureParameters parameters = getSignatureParameters();
+		ToBeSignedDTO toBeSigned = restSignature.getDataToSign(new DataToSignOneDocumentDTO(toSign, parameters));
+		SignatureValueDTO signatureValue = restServerSigning.sign(toBeSigned, DIGEST_ALGORITHM, key.getAlias());
+		return restSignature.signDocument(new SignOneDocumentDTO(toSign, parameters, signatureValue));
+	}
+
+	private RemoteDocument signSoap(RemoteDocument toSign) {
+		RemoteSignatureParameters parameters = getSignatureParameters();
+		ToBeSignedDTO toBeSigned = soapSignature.getDataToSign(new DataToSignOneDocumentDTO(toSign, parameters));
+		SignatureValueDTO signatureValue = soapServerSigning.sign(toBeSigned, DIGEST_ALGORITHM, key.getAlias());
+		return soapSignature.signDocument(new SignOneDocumentDTO(toSign, parameters, signatureValue));
+	}
+
+	private RemoteSignatureParameters getSignatureParameters() {
+		RemoteSignatureParameters parameters = new RemoteSignatureParameters();
+		parameters.setSignatureLevel(signatureLevel);
+		parameters.setSignaturePackaging(SignaturePackaging.ENVELOPING);
+		parameters.setDigestAlgorithm(DIGEST_ALGORITHM);
+		parameters.setSigningCertificate(key.getCertificate());
+		return parameters;
+	}
+
+	private void checkReports(WSReportsDTO reports) {
+		if (reports == null || reports.getSimpleReport() == null) {
+			throw new DSSException("No report returned");
+		}
+	}
+
+	private RemoteDocument newDocument() {
+		String content = "Load test " + ThreadLocalRandom.current().nextLong();
+		return new RemoteDocument(content.getBytes(StandardCharsets.UTF_8), "load-test.txt");
+	}
+
+	private DigestDTO newDigest() {
+		byte[] data = new byte[32];
+		ThreadLocalRandom.current().nextBytes(data);
+		return new DigestDTO(DIGEST_ALGORITHM, DSSUtils.digest(DIGEST_ALGORITHM, data));
+	}
+
+	private static <T> T restClient(String address, Class<T> serviceClass) {
+		JAXRSClientFactoryBean factory = new JAXRSClientFactoryBean();
+		factory.setAddress(address);
+		factory.setServiceClass(serviceClass);
+		factory.setProviders(Arrays.asList(JacksonProviderFactory.create()));
+		// proxies are shared between the worker threads
+		factory.setThreadSafe(true);
+		return factory.create(serviceClass);
+	}
+
+	private static <T> T soapClient(String address, Class<T> serviceClass) {
+		JAXBDataBinding dataBinding = new JAXBDataBinding();
+		dataBinding.getConfiguredXmlAdapters().add(new DateAdapter());
+
+		Map<String, Object> props = new HashMap<String, Object>();
+		props.put("mtom-enabled", Boolean.TRUE);
+
+		JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+		factory.setServiceClass(serviceClass);
+		factory.setProperties(props);
+		factory.setDataBinding(dataBinding);
+		factory.setAddress(address);
+		return factory.create(serviceClass);
+	}
+
+}
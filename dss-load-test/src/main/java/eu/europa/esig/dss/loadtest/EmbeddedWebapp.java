@@ -0,0 +1,128 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.x509.pki.MockPKI;
+import eu.europa.esig.dss.x509.pki.MockPKIServer;
+
+/**
+ * Embedded Tomcat running the war of the web application on a free local port, with a {@link MockPKIServer} as the
+ * only reachable PKI.
+ *
+ * The web application signs with the keystore of the mock PKI signer and trusts the mock root CA, so the OCSP, CRL and
+ * AIA requests of the workload go to the local mock PKI. The trusted lists are only loaded from the local cache (no
+ * scheduled online refresh) and the default timestamp source is the local mock TSA. Every other host is proxied to a
+ * {@link NetworkGuard} : see {@link #checkLocalOnly()}.
+ *
+ * The configuration is given as context parameters, which override dss.properties in the Spring environment of this
+ * web application only.
+ */
+public class EmbeddedWebapp implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(EmbeddedWebapp.class);
+
+	private static final String LOCAL_HOSTS = "localhost,127.0.0.1";
+
+	private final File warFile;
+
+	private MockPKIServer mockPKIServer;
+
+	private NetworkGuard networkGuard;
+
+	private Tomcat tomcat;
+
+	public EmbeddedWebapp(File warFile) {
+		this.warFile = warFile;
+	}
+
+	public void start() throws Exception {
+		if (!warFile.isFile()) {
+			throw new IllegalArgumentException("War file not found : " + warFile.getAbsolutePath());
+		}
+		File baseDir = Files.createTempDirectory("dss-load-test").toFile();
+
+		networkGuard = new NetworkGuard();
+
+		mockPKIServer = new MockPKIServer();
+		mockPKIServer.setPort(0);
+		mockPKIServer.start();
+		File pkiFolder = new File(baseDir, "mock-pki");
+		mockPKIServer.getPKI().writeTo(pkiFolder);
+
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(baseDir.getAbsolutePath());
+		tomcat.setPort(0);
+		tomcat.getConnector();
+		Context context = tomcat.addWebapp("", warFile.getAbsolutePath());
+		for (Entry<String, String> entry : getProperties(pkiFolder).entrySet()) {
+			context.addParameter(entry.getKey(), entry.getValue());
+		}
+		tomcat.start();
+		LOG.info("Web application started on port {} (mock PKI on {})", getPort(), mockPKIServer.getBaseUrl());
+	}
+
+	private Map<String, String> getProperties(File pkiFolder) {
+		String password = new String(MockPKI.PASSWORD.getPassword());
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("cron.tl.loader.enable", "false");
+
+		properties.put("dss.server.signing.keystore.type", "PKCS12");
+		properties.put("dss.server.signing.keystore.filename", "file:" + new File(pkiFolder, MockPKI.SIGNER_ALIAS + ".p12").getAbsolutePath());
+		properties.put("dss.server.signing.keystore.password", password);
+
+		properties.put("additional.trusted.keystore.type", "PKCS12");
+		properties.put("additional.trusted.keystore.filename", "file:" + new File(pkiFolder, "trust-anchors.p12").getAbsolutePath());
+		properties.put("additional.trusted.keystore.password", password);
+
+		for (String protocol : new String[] { "http", "https" }) {
+			properties.put("proxy." + protocol + ".enabled", "true");
+			properties.put("proxy." + protocol + ".host", networkGuard.getHost());
+			properties.put("proxy." + protocol + ".port", String.valueOf(networkGuard.getPort()));
+			properties.put("proxy." + protocol + ".exclude", LOCAL_HOSTS);
+		}
+		return properties;
+	}
+
+	public int getPort() {
+		return tomcat.getConnector().getLocalPort();
+	}
+
+	/**
+	 * @return the CXF base url (same as base.cxf in the integration tests)
+	 */
+	public String getBaseUrl() {
+		return "http://localhost:" + getPort() + "/services";
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if the web application requested a non-local URL
+	 */
+	public void checkLocalOnly() {
+		networkGuard.check();
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (tomcat != null) {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+		if (mockPKIServer != null) {
+			mockPKIServer.stop();
+		}
+		if (networkGuard != null) {
+			networkGuard.close();
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Open model load generator : requests are started following a Poisson process at the configured rate, whatever the
+ * response times are. The latency of a request is measured from its intended start time, so that a slow server
+ * is not hidden by a delayed schedule (coordinated omission).
+ * 
+ * Arrivals while the maximum concurrency is reached are not executed and are counted as dropped.
+ */
+public class LoadGenerator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LoadGenerator.class);
+
+	private final LoadTestConfiguration configuration;
+
+	private final DssWorkload workload;
+
+	private final Map<Operation, OperationRecorder> recorders = new EnumMap<>(Operation.class);
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final Random random = new Random();
+
+	private final Operation[] operations;
+
+	private Runnable healthCheck = () -> {
+	};
+
+	private final int[] cumulativeWeights;
+
+	public LoadGenerator(LoadTestConfiguration configuration, DssWorkload workload) {
+		this.configuration = configuration;
+		this.workload = workload;
+
+		Map<Operation, Integer> mix = configuration.getMix();
+		operations = new Operation[mix.size()];
+		cumulativeWeights = new int[mix.size()];
+		int i = 0;
+		int total = 0;
+		for (Entry<Operation, Integer> entry : mix.entrySet()) {
+			total += entry.getValue();
+			operations[i] = entry.getKey();
+			cumulativeWeights[i] = total;
+			recorders.put(entry.getKey(), new OperationRecorder(entry.getKey()));
+			i++;
+		}
+	}
+
+	/**
+	 * @param healthCheck
+	 *            called once per second during the run, an exception stops the run
+	 */
+	public void setHealthCheck(Runnable healthCheck) {
+		this.healthCheck = healthCheck;
+	}
+
+	/**
+	 * Runs the warm-up and the measurement phases and waits for the requests in flight
+	 * 
+	 * @return the result of the measurement phase
+	 */
+	public LoadTestResult run() throws InterruptedException {
+		Semaphore slots = new Semaphore(configuration.getMaxConcurrency());
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "load-" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long meanIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / configuration.getRate());
+		long start = System.nanoTime();
+		long measurementStart = start + TimeUnit.SECONDS.toNanos(configuration.getWarmupSeconds());
+		long end = measurementStart + TimeUnit.SECONDS.toNanos(configuration.getDurationSeconds());
+
+		LOG.info("Warm-up during {} s", configuration.getWarmupSeconds());
+		boolean measuring = false;
+		long intendedStart = start;
+		long nextHealthCheck = start;
+		while (intendedStart < end) {
+			if (System.nanoTime() >= nextHealthCheck) {
+				try {
+					healthCheck.run();
+				} catch (RuntimeException e) {
+					executor.shutdownNow();
+					throw e;
+				}
+				nextHealthCheck += TimeUnit.SECONDS.toNanos(1);
+			}
+			long wait = intendedStart - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+				continue;
+			}
+			if (!measuring && intendedStart >= measurementStart) {
+				LOG.info("Measurement during {} s", configuration.getDurationSeconds());
+				measuring = true;
+			}
+
+			Operation operation = nextOperation();
+			if (slots.tryAcquire()) {
+				long scheduled = intendedStart;
+				boolean recorded = measuring;
+				executor.execute(() -> {
+					try {
+						execute(operation, scheduled, recorded);
+					} finally {
+						slots.release();
+					}
+				});
+			} else if (measuring) {
+				dropped.increment();
+			}
+
+			intendedStart += nextInterval(meanIntervalNanos);
+		}
+
+		executor.shutdown();
+		if (!executor.awaitTermination(5, TimeUnit.MINUTES)) {
+			LOG.warn("Requests still in flight after 5 minutes");
+			executor.shutdownNow();
+		}
+		return new LoadTestResult(configuration, recorders.values(), dropped.sum());
+	}
+
+	private void execute(Operation operation, long intendedStart, boolean recorded) {
+		OperationRecorder recorder = recorders.get(operation);
+		try {
+			workload.execute(operation);
+			if (recorded) {
+				recorder.recordSuccess(System.nanoTime() - intendedStart);
+			}
+		} catch (Exception e) {
+			if (recorded) {
+				recorder.recordError();
+			}
+			LOG.debug("{} failed : {}", operation, e.getMessage(), e);
+		}
+	}
+
+	/* Only called from the scheduling thread */
+	private Operation nextOperation() {
+		int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+	/* Exponential inter-arrival time */
+	private long nextInterval(long meanIntervalNanos) {
+		return (long) (-Math.log(1.0 - random.nextDouble()) * meanIntervalNanos);
+	}
+
+}
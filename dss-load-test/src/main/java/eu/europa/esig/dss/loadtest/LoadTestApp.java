@@ -0,0 +1,50 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.io.File;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a load test against a running instance (--base-url) or an embedded instance of the web application (--war).
+ * 
+ * See {@link LoadTestConfiguration} for the arguments.
+ */
+public class LoadTestApp {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LoadTestApp.class);
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfiguration configuration = LoadTestConfiguration.fromArguments(args);
+
+		EmbeddedWebapp webapp = null;
+		try {
+			if (configuration.getBaseUrl() == null) {
+				webapp = new EmbeddedWebapp(configuration.getWarFile());
+				webapp.start();
+				configuration.setBaseUrl(webapp.getBaseUrl());
+			}
+
+			DssWorkload workload = new DssWorkload(configuration.getBaseUrl(), configuration.getSignatureLevel());
+			workload.init();
+
+			LoadGenerator generator = new LoadGenerator(configuration, workload);
+			if (webapp != null) {
+				// the embedded instance must not depend on the network
+				webapp.checkLocalOnly();
+				generator.setHealthCheck(webapp::checkLocalOnly);
+			}
+
+			LOG.info("Load test on {} : {} req/s, mix {}", configuration.getBaseUrl(), configuration.getRate(), configuration.getMix());
+			LoadTestResult result = generator.run();
+			result.log();
+			File summary = result.write();
+			LOG.info("Result written in {}", summary.getAbsolutePath());
+		} finally {
+			if (webapp != null) {
+				webapp.close();
+			}
+		}
+	}
+
+}
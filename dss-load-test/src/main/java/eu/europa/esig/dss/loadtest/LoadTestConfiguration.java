@@ -0,0 +1,164 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import eu.europa.esig.dss.enumerations.SignatureLevel;
+import eu.europa.esig.dss.utils.Utils;
+
+/**
+ * Parameters of a load test run.
+ * 
+ * Arguments are given as --name=value :
+ * <ul>
+ * <li>--base-url : CXF base url of a running instance (eg: http://localhost:8080/services)</li>
+ * <li>--war : war file of the web application, deployed on an embedded Tomcat (ignored if --base-url is set)</li>
+ * <li>--rate : mean number of requests started per second (open model, Poisson arrivals)</li>
+ * <li>--warmup : warm-up duration in seconds, not recorded</li>
+ * <li>--duration : measurement duration in seconds</li>
+ * <li>--mix : weighted operations (eg: SIGN_REST:2,VALIDATE_SOAP:1)</li>
+ * <li>--max-concurrency : maximum number of requests in flight, arrivals above are counted as dropped</li>
+ * <li>--signature-level : level of the created signatures</li>
+ * <li>--output : folder of the result files</li>
+ * </ul>
+ */
+public class LoadTestConfiguration {
+
+	private String baseUrl;
+
+	private File warFile;
+
+	private double rate = 10;
+
+	private int warmupSeconds = 30;
+
+	private int durationSeconds = 120;
+
+	private Map<Operation, Integer> mix = defaultMix();
+
+	private int maxConcurrency = 200;
+
+	private SignatureLevel signatureLevel = SignatureLevel.CAdES_BASELINE_B;
+
+	private File outputFolder = new File("target/load-test");
+
+	public static LoadTestConfiguration fromArguments(String[] args) {
+		LoadTestConfiguration configuration = new LoadTestConfiguration();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (!arg.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Invalid argument '" + arg + "' (expected --name=value)");
+			}
+			String name = arg.substring(2, separator);
+			String value = arg.substring(separator + 1).trim();
+			switch (name) {
+			case "base-url":
+				configuration.baseUrl = value;
+				break;
+			case "war":
+				configuration.warFile = new File(value);
+				break;
+			case "rate":
+				configuration.rate = Double.parseDouble(value);
+				break;
+			case "warmup":
+				configuration.warmupSeconds = Integer.parseInt(value);
+				break;
+			case "duration":
+				configuration.durationSeconds = Integer.parseInt(value);
+				break;
+			case "mix":
+				configuration.mix = parseMix(value);
+				break;
+			case "max-concurrency":
+				configuration.maxConcurrency = Integer.parseInt(value);
+				break;
+			case "signature-level":
+				configuration.signatureLevel = SignatureLevel.valueOf(value);
+				break;
+			case "output":
+				configuration.outputFolder = new File(value);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown argument '" + name + "'");
+			}
+		}
+		if (Utils.isStringEmpty(configuration.baseUrl) && configuration.warFile == null) {
+			throw new IllegalArgumentException("One of --base-url or --war is required");
+		}
+		if (configuration.rate <= 0 || configuration.durationSeconds <= 0 || configuration.maxConcurrency <= 0) {
+			throw new IllegalArgumentException("--rate, --duration and --max-concurrency must be positive");
+		}
+		return configuration;
+	}
+
+	static Map<Operation, Integer> parseMix(String value) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (String entry : value.split(",")) {
+			String[] operationAndWeight = entry.trim().split(":");
+			int weight = operationAndWeight.length > 1 ? Integer.parseInt(operationAndWeight[1].trim()) : 1;
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight in mix '" + value + "'");
+			}
+			if (weight > 0) {
+				mix.put(Operation.valueOf(operationAndWeight[0].trim()), weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("Empty mix '" + value + "'");
+		}
+		return mix;
+	}
+
+	private static Map<Operation, Integer> defaultMix() {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		mix.put(Operation.SIGN_REST, 2);
+		mix.put(Operation.VALIDATE_REST, 4);
+		mix.put(Operation.CERTIFICATE_VALIDATION_REST, 2);
+		mix.put(Operation.TIMESTAMP_REST, 2);
+		return mix;
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public void setBaseUrl(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	public File getWarFile() {
+		return warFile;
+	}
+
+	public double getRate() {
+		return rate;
+	}
+
+	public int getWarmupSeconds() {
+		return warmupSeconds;
+	}
+
+	public int getDurationSeconds() {
+		return durationSeconds;
+	}
+
+	public Map<Operation, Integer> getMix() {
+		return Collections.unmodifiableMap(mix);
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public SignatureLevel getSignatureLevel() {
+		return signatureLevel;
+	}
+
+	public File getOutputFolder() {
+		return outputFolder;
+	}
+
+}
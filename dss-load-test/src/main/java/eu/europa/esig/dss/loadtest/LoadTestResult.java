@@ -0,0 +1,120 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Result of the measurement phase, written as a JSON summary (one entry per operation) and one HdrHistogram
+ * percentile distribution file (.hgrm) per operation, so that runs can be compared or plotted.
+ */
+public class LoadTestResult {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LoadTestResult.class);
+
+	private static final double MICROS_TO_MILLIS = 1000.0;
+
+	private final LoadTestConfiguration configuration;
+
+	private final Collection<OperationRecorder> recorders;
+
+	private final long dropped;
+
+	private final Date date = new Date();
+
+	public LoadTestResult(LoadTestConfiguration configuration, Collection<OperationRecorder> recorders, long dropped) {
+		this.configuration = configuration;
+		this.recorders = recorders;
+		this.dropped = dropped;
+	}
+
+	public void log() {
+		for (OperationRecorder recorder : recorders) {
+			Histogram latencies = recorder.getLatencies();
+			LOG.info("{} : {} ok, {} errors, p50={} ms, p99={} ms, p99.9={} ms, max={} ms", recorder.getOperation(),
+					latencies.getTotalCount(), recorder.getErrors(), toMillis(latencies.getValueAtPercentile(50)),
+					toMillis(latencies.getValueAtPercentile(99)), toMillis(latencies.getValueAtPercentile(99.9)),
+					toMillis(latencies.getMaxValue()));
+		}
+		LOG.info("Dropped arrivals (max concurrency reached) : {}", dropped);
+	}
+
+	/**
+	 * Writes the result files in the output folder
+	 * 
+	 * @return the JSON summary file
+	 */
+	public File write() throws IOException {
+		File folder = new File(configuration.getOutputFolder(), new SimpleDateFormat("yyyyMMdd-HHmmss").format(date));
+		if (!folder.mkdirs() && !folder.isDirectory()) {
+			throw new IOException("Unable to create the folder " + folder.getAbsolutePath());
+		}
+
+		for (OperationRecorder recorder : recorders) {
+			try (PrintStream ps = new PrintStream(new FileOutputStream(new File(folder, recorder.getOperation() + ".hgrm")))) {
+				recorder.getLatencies().outputPercentileDistribution(ps, MICROS_TO_MILLIS);
+			}
+		}
+
+		File summary = new File(folder, "result.json");
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.enable(SerializationFeature.INDENT_OUTPUT);
+		mapper.writeValue(summary, toMap());
+		return summary;
+	}
+
+	private Map<String, Object> toMap() {
+		Map<String, Object> config = new LinkedHashMap<>();
+		config.put("baseUrl", configuration.getBaseUrl());
+		config.put("rate", configuration.getRate());
+		config.put("warmupSeconds", configuration.getWarmupSeconds());
+		config.put("durationSeconds", configuration.getDurationSeconds());
+		config.put("maxConcurrency", configuration.getMaxConcurrency());
+		config.put("signatureLevel", configuration.getSignatureLevel());
+		config.put("mix", configuration.getMix());
+
+		List<Map<String, Object>> operations = new ArrayList<>();
+		for (OperationRecorder recorder : recorders) {
+			Histogram latencies = recorder.getLatencies();
+			Map<String, Object> operation = new LinkedHashMap<>();
+			operation.put("operation", recorder.getOperation());
+			operation.put("count", latencies.getTotalCount());
+			operation.put("errors", recorder.getErrors());
+			operation.put("throughputPerSecond", (double) latencies.getTotalCount() / configuration.getDurationSeconds());
+			operation.put("meanMs", latencies.getMean() / MICROS_TO_MILLIS);
+			operation.put("p50Ms", toMillis(latencies.getValueAtPercentile(50)));
+			operation.put("p90Ms", toMillis(latencies.getValueAtPercentile(90)));
+			operation.put("p99Ms", toMillis(latencies.getValueAtPercentile(99)));
+			operation.put("p999Ms", toMillis(latencies.getValueAtPercentile(99.9)));
+			operation.put("maxMs", toMillis(latencies.getMaxValue()));
+			operations.add(operation);
+		}
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("date", date);
+		result.put("configuration", config);
+		result.put("dropped", dropped);
+		result.put("operations", operations);
+		return result;
+	}
+
+	private static double toMillis(long micros) {
+		return micros / MICROS_TO_MILLIS;
+	}
+
+}
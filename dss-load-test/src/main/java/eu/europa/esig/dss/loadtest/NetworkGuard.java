@@ -0,0 +1,87 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP proxy on the loopback interface which rejects every request (403).
+ *
+ * The embedded web application uses it as HTTP and HTTPS proxy for all the hosts but the local ones : a request to the
+ * network is recorded instead of being sent, and {@link #check()} fails once such a request happened.
+ */
+public class NetworkGuard implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(NetworkGuard.class);
+
+	private static final byte[] FORBIDDEN = "HTTP/1.1 403 Forbidden\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private final ServerSocket serverSocket;
+
+	private final List<String> rejected = new CopyOnWriteArrayList<>();
+
+	public NetworkGuard() throws IOException {
+		serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		Thread acceptor = new Thread(this::accept, "network-guard");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public String getHost() {
+		return serverSocket.getInetAddress().getHostAddress();
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             if a non-local URL has been requested
+	 */
+	public void check() {
+		if (!rejected.isEmpty()) {
+			throw new IllegalStateException("Non-local URLs requested by the web application : " + rejected);
+		}
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try (Socket socket = serverSocket.accept()) {
+				socket.setSoTimeout(5000);
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				// eg: "GET http://crl.example.com/ca.crl HTTP/1.1" or "CONNECT ocsp.example.com:443 HTTP/1.1"
+				String requestLine = reader.readLine();
+				String[] parts = requestLine != null ? requestLine.split(" ") : new String[0];
+				String target = parts.length > 1 ? parts[1] : String.valueOf(requestLine);
+				rejected.add(target);
+				LOG.error("Request to a non-local URL rejected : {}", target);
+
+				OutputStream os = socket.getOutputStream();
+				os.write(FORBIDDEN);
+				os.flush();
+			} catch (IOException e) {
+				if (!serverSocket.isClosed()) {
+					LOG.warn("Unable to answer the proxy request : {}", e.getMessage());
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+
+}
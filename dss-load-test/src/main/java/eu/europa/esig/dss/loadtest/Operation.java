@@ -0,0 +1,16 @@
+package eu.europa.esig.dss.loadtest;
+
+/**
+ * The operations which can be part of a workload mix
+ */
+public enum Operation {
+
+	SIGN_REST, SIGN_SOAP,
+
+	VALIDATE_REST, VALIDATE_SOAP,
+
+	CERTIFICATE_VALIDATION_REST, CERTIFICATE_VALIDATION_SOAP,
+
+	TIMESTAMP_REST, TIMESTAMP_SOAP;
+
+}
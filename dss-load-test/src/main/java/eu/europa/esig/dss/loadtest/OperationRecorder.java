@@ -0,0 +1,50 @@
+package eu.europa.esig.dss.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies (from the intended start time) and errors of one operation during the measurement phase
+ */
+public class OperationRecorder {
+
+	/* One hour, 3 significant digits */
+	private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.HOURS.toMicros(1);
+
+	private final Operation operation;
+
+	private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, 3);
+
+	private final LongAdder errors = new LongAdder();
+
+	public OperationRecorder(Operation operation) {
+		this.operation = operation;
+	}
+
+	public void recordSuccess(long latencyNanos) {
+		latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_LATENCY));
+	}
+
+	public void recordError() {
+		errors.increment();
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	/**
+	 * @return the latencies in microseconds
+	 */
+	public Histogram getLatencies() {
+		return latencies;
+	}
+
+	public long getErrors() {
+		return errors.sum();
+	}
+
+}
@@ -0,0 +1,23 @@
+package eu.europa.esig.dss.x509.pki;
+
+/**
+ * Failures which can be injected by the {@link MockPKIServer}
+ */
+public enum FailureMode {
+
+	/** HTTP error status (503 by default) */
+	HTTP_ERROR,
+
+	/** No response before the configured hang time, to test the client timeouts */
+	TIMEOUT,
+
+	/** The connection is closed without any status line (a clean EOF, not a TCP RST) */
+	CONNECTION_CLOSED,
+
+	/** HTTP 200 with a body which is not a valid DER structure */
+	MALFORMED,
+
+	/** OCSP response with the status tryLater (HTTP_ERROR for the CRL / AIA endpoints) */
+	TRY_LATER;
+
+}
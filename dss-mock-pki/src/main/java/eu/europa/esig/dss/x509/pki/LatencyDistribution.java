@@ -0,0 +1,119 @@
+package eu.europa.esig.dss.x509.pki;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the artificial response delay (in milliseconds) of the mock PKI endpoints.
+ * 
+ * A distribution can be parsed from a short specification :
+ * <ul>
+ * <li>none</li>
+ * <li>fixed:20</li>
+ * <li>uniform:10-50</li>
+ * <li>exponential:20 (mean)</li>
+ * <li>lognormal:20,0.5 (median, sigma) : typical long tail of network latencies</li>
+ * </ul>
+ */
+public abstract class LatencyDistribution {
+
+	public static final LatencyDistribution NONE = fixed(0);
+
+	/**
+	 * @return the next delay in milliseconds (&gt;= 0)
+	 */
+	public abstract long nextDelay();
+
+	public static LatencyDistribution fixed(long delay) {
+		return new LatencyDistribution() {
+
+			@Override
+			public long nextDelay() {
+				return delay;
+			}
+
+			@Override
+			public String toString() {
+				return "fixed:" + delay;
+			}
+
+		};
+	}
+
+	public static LatencyDistribution uniform(long min, long max) {
+		if (min < 0 || max < min) {
+			throw new IllegalArgumentException("Invalid uniform bounds " + min + "-" + max);
+		}
+		return new LatencyDistribution() {
+
+			@Override
+			public long nextDelay() {
+				return ThreadLocalRandom.current().nextLong(min, max + 1);
+			}
+
+			@Override
+			public String toString() {
+				return "uniform:" + min + "-" + max;
+			}
+
+		};
+	}
+
+	public static LatencyDistribution exponential(double mean) {
+		return new LatencyDistribution() {
+
+			@Override
+			public long nextDelay() {
+				return Math.round(-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * mean);
+			}
+
+			@Override
+			public String toString() {
+				return "exponential:" + mean;
+			}
+
+		};
+	}
+
+	public static LatencyDistribution logNormal(double median, double sigma) {
+		double mu = Math.log(median);
+		return new LatencyDistribution() {
+
+			@Override
+			public long nextDelay() {
+				return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+			}
+
+			@Override
+			public String toString() {
+				return "lognormal:" + median + "," + sigma;
+			}
+
+		};
+	}
+
+	public static LatencyDistribution parse(String specification) {
+		if (specification == null || specification.trim().isEmpty() || "none".equals(specification.trim())) {
+			return NONE;
+		}
+		String[] typeAndParameters = specification.trim().split(":", 2);
+		if (typeAndParameters.length != 2) {
+			throw new IllegalArgumentException("Invalid latency distribution '" + specification + "'");
+		}
+		String parameters = typeAndParameters[1];
+		switch (typeAndParameters[0]) {
+		case "fixed":
+			return fixed(Long.parseLong(parameters));
+		case "uniform":
+			String[] bounds = parameters.split("-");
+			return uniform(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+		case "exponential":
+			return exponential(Double.parseDouble(parameters));
+		case "lognormal":
+			String[] medianAndSigma = parameters.split(",");
+			return logNormal(Double.parseDouble(medianAndSigma[0]), Double.parseDouble(medianAndSigma[1]));
+		default:
+			throw new IllegalArgumentException("Unknown latency distribution '" + specification + "'");
+		}
+	}
+
+}
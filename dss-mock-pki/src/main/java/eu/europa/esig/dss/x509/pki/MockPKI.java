@@ -0,0 +1,487 @@
+package eu.europa.esig.dss.x509.pki;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.KeyStore.PasswordProtection;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.asn1.ocsp.OCSPObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AccessDescription;
+import org.bouncycastle.asn1.x509.AuthorityInformationAccess;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.BasicOCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.CertificateID;
+import org.bouncycastle.cert.ocsp.CertificateStatus;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPReq;
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.bouncycastle.cert.ocsp.Req;
+import org.bouncycastle.cert.ocsp.RevokedStatus;
+import org.bouncycastle.cert.ocsp.UnknownStatus;
+import org.bouncycastle.cert.ocsp.jcajce.JcaBasicOCSPRespBuilder;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.DigestCalculatorProvider;
+import org.bouncycastle.operator.OperatorException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaDigestCalculatorProviderBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.europa.esig.dss.model.DSSException;
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+
+/**
+ * PKI generated at runtime : a root CA, an intermediate CA and end entity certificates (signer, revoked signer and
+ * TSA) issued by the intermediate CA.
+ * 
+ * The certificates point (AIA / CRL distribution points) to the given base URL, where a {@link MockPKIServer} serves :
+ * <ul>
+ * <li>{@value #OCSP_PATH} : OCSP responder for both CAs (GOOD, REVOKED or UNKNOWN)</li>
+ * <li>{@value #CRL_PATH}&lt;ca&gt;.crl : CRL of each CA</li>
+ * <li>{@value #CA_CERT_PATH}&lt;ca&gt;.cer : CA certificates</li>
+ * </ul>
+ * 
+ * The CRL of the intermediate CA can be filled with a configurable number of revoked serial numbers (up to millions)
+ * to test the CRL download and parsing. These serial numbers are never issued, the OCSP responder reports them as
+ * revoked too. The CRLs are generated once : count around 150 bytes of heap per entry during the generation.
+ */
+public class MockPKI {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MockPKI.class);
+
+	public static final String OCSP_PATH = "/ocsp";
+	public static final String CRL_PATH = "/crl/";
+	public static final String CA_CERT_PATH = "/crt/";
+
+	public static final String ROOT_CA = "root-ca";
+	public static final String INTERMEDIATE_CA = "intermediate-ca";
+
+	public static final String SIGNER_ALIAS = "signer";
+	public static final String REVOKED_SIGNER_ALIAS = "revoked-signer";
+	public static final String TSA_ALIAS = "tsa";
+
+	public static final PasswordProtection PASSWORD = new PasswordProtection("password".toCharArray());
+
+	private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+	/* Serial numbers of the CRL filler entries, far above the issued ones */
+	private static final BigInteger FILLER_SERIAL_BASE = BigInteger.ONE.shiftLeft(48);
+
+	private final String baseUrl;
+
+	private final int nbFillerEntries;
+
+	private final Date notBefore = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(30));
+
+	private final Date notAfter = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365));
+
+	private final Date fillerRevocationDate = new Date(notBefore.getTime() + TimeUnit.DAYS.toMillis(1));
+
+	private final Map<String, CertificationAuthority> authorities = new LinkedHashMap<>();
+
+	private final Map<String, EndEntity> endEntities = new LinkedHashMap<>();
+
+	private final DigestCalculatorProvider digestCalculatorProvider;
+
+	private long serialNumber = 1000;
+
+	private static class CertificationAuthority {
+
+		private final String name;
+		private final KeyPair keyPair;
+		private final X509CertificateHolder certificate;
+		private final Set<BigInteger> issued = new HashSet<>();
+		private final Map<BigInteger, Date> revoked = new HashMap<>();
+		private byte[] crl;
+
+		private CertificationAuthority(String name, KeyPair keyPair, X509CertificateHolder certificate) {
+			this.name = name;
+			this.keyPair = keyPair;
+			this.certificate = certificate;
+		}
+
+	}
+
+	private static class EndEntity {
+
+		private final KeyPair keyPair;
+		private final X509CertificateHolder certificate;
+		private final CertificationAuthority issuer;
+
+		private EndEntity(KeyPair keyPair, X509CertificateHolder certificate, CertificationAuthority issuer) {
+			this.keyPair = keyPair;
+			this.certificate = certificate;
+			this.issuer = issuer;
+		}
+
+	}
+
+	/**
+	 * @param baseUrl
+	 *            the URL of the {@link MockPKIServer} (eg: http://localhost:8098)
+	 * @param nbFillerEntries
+	 *            the number of additional entries in the CRL of the intermediate CA
+	 */
+	public MockPKI(String baseUrl, int nbFillerEntries) {
+		this.baseUrl = baseUrl;
+		this.nbFillerEntries = nbFillerEntries;
+		try {
+			digestCalculatorProvider = new JcaDigestCalculatorProviderBuilder().build();
+
+			KeyPair rootKeyPair = generateKeyPair();
+			X500Name rootName = new X500Name("CN=DSS Mock Root CA,O=DSS,C=EU");
+			X509v3CertificateBuilder rootBuilder = new JcaX509v3CertificateBuilder(rootName, nextSerialNumber(), notBefore, notAfter, rootName,
+					rootKeyPair.getPublic());
+			rootBuilder.addExtension(Extension.basicConstraints, true, new BasicConstraints(true));
+			rootBuilder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+			CertificationAuthority root = new CertificationAuthority(ROOT_CA, rootKeyPair, rootBuilder.build(signer(rootKeyPair.getPrivate())));
+			authorities.put(ROOT_CA, root);
+
+			KeyPair intermediateKeyPair = generateKeyPair();
+			X509v3CertificateBuilder intermediateBuilder = issuedBuilder(root, new X500Name("CN=DSS Mock Intermediate CA,O=DSS,C=EU"),
+					intermediateKeyPair.getPublic());
+			intermediateBuilder.addExtension(Extension.basicConstraints, true, new BasicConstraints(0));
+			intermediateBuilder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+			CertificationAuthority intermediate = new CertificationAuthority(INTERMEDIATE_CA, intermediateKeyPair,
+					intermediateBuilder.build(signer(root.keyPair.getPrivate())));
+			root.issued.add(intermediate.certificate.getSerialNumber());
+			authorities.put(INTERMEDIATE_CA, intermediate);
+
+			issueEndEntity(intermediate, SIGNER_ALIAS, "CN=DSS Mock Signer,O=DSS,C=EU", new KeyUsage(KeyUsage.nonRepudiation), null);
+			issueEndEntity(intermediate, REVOKED_SIGNER_ALIAS, "CN=DSS Mock Revoked Signer,O=DSS,C=EU", new KeyUsage(KeyUsage.nonRepudiation),
+					null);
+			issueEndEntity(intermediate, TSA_ALIAS, "CN=DSS Mock TSA,O=DSS,C=EU", new KeyUsage(KeyUsage.digitalSignature),
+					new ExtendedKeyUsage(KeyPurposeId.id_kp_timeStamping));
+
+			intermediate.revoked.put(endEntities.get(REVOKED_SIGNER_ALIAS).certificate.getSerialNumber(),
+					new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1)));
+
+			root.crl = generateCRL(root, 0);
+			long start = System.currentTimeMillis();
+			intermediate.crl = generateCRL(intermediate, nbFillerEntries);
+			LOG.info("CRL of {} generated with {} entries ({} bytes) in {} ms", INTERMEDIATE_CA, nbFillerEntries + intermediate.revoked.size(),
+					intermediate.crl.length, System.currentTimeMillis() - start);
+
+		} catch (GeneralSecurityException | IOException | OperatorException e) {
+			throw new DSSException("Unable to generate the mock PKI", e);
+		}
+	}
+
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	public CertificateToken getRootCertificate() {
+		return toCertificateToken(authorities.get(ROOT_CA).certificate);
+	}
+
+	public CertificateToken getCACertificate(String caName) {
+		return toCertificateToken(getAuthority(caName).certificate);
+	}
+
+	public CertificateToken getCertificate(String alias) {
+		return toCertificateToken(getEndEntity(alias).certificate);
+	}
+
+	/**
+	 * @param caName
+	 *            {@link #ROOT_CA} or {@link #INTERMEDIATE_CA}
+	 * @return the DER encoded CRL or null if the CA is unknown
+	 */
+	public byte[] getCRL(String caName) {
+		CertificationAuthority authority = authorities.get(caName);
+		return authority != null ? authority.crl : null;
+	}
+
+	/**
+	 * @param caName
+	 *            {@link #ROOT_CA} or {@link #INTERMEDIATE_CA}
+	 * @return the DER encoded CA certificate or null if the CA is unknown
+	 */
+	public byte[] getEncodedCACertificate(String caName) {
+		CertificationAuthority authority = authorities.get(caName);
+		return authority != null ? getEncoded(authority.certificate) : null;
+	}
+
+	/**
+	 * Creates a token with the key of the end entity and its certificate chain
+	 * 
+	 * @param alias
+	 *            {@link #SIGNER_ALIAS}, {@link #REVOKED_SIGNER_ALIAS} or {@link #TSA_ALIAS}
+	 * @return the token (PKCS12 in memory, password {@link #PASSWORD})
+	 */
+	public KeyStoreSignatureTokenConnection createToken(String alias) {
+		return new KeyStoreSignatureTokenConnection(getKeyStore(alias), "PKCS12", PASSWORD);
+	}
+
+	/**
+	 * Generates the OCSP response for the given encoded request. The response is signed by the CA which issued the
+	 * requested certificates.
+	 * 
+	 * @param encodedRequest
+	 *            the DER encoded OCSP request
+	 * @return the DER encoded OCSP response
+	 */
+	public byte[] getOCSPResponse(byte[] encodedRequest) {
+		try {
+			OCSPReq request;
+			try {
+				request = new OCSPReq(encodedRequest);
+			} catch (IOException e) {
+				return new OCSPRespBuilder().build(OCSPRespBuilder.MALFORMED_REQUEST, null).getEncoded();
+			}
+
+			Req[] requestList = request.getRequestList();
+			CertificationAuthority authority = requestList.length > 0 ? findIssuer(requestList[0].getCertID()) : null;
+			if (authority == null) {
+				return new OCSPRespBuilder().build(OCSPRespBuilder.UNAUTHORIZED, null).getEncoded();
+			}
+
+			BasicOCSPRespBuilder builder = new JcaBasicOCSPRespBuilder(authority.keyPair.getPublic(),
+					digestCalculatorProvider.get(CertificateID.HASH_SHA1));
+			Date now = new Date();
+			Date nextUpdate = new Date(now.getTime() + TimeUnit.DAYS.toMillis(1));
+			for (Req req : requestList) {
+				CertificateID certID = req.getCertID();
+				CertificateStatus status = certID.matchesIssuer(authority.certificate, digestCalculatorProvider)
+						? getStatus(authority, certID.getSerialNumber())
+						: new UnknownStatus();
+				builder.addResponse(certID, status, now, nextUpdate, null);
+			}
+
+			Extension nonce = request.getExtension(OCSPObjectIdentifiers.id_pkix_ocsp_nonce);
+			if (nonce != null) {
+				builder.setResponseExtensions(new Extensions(nonce));
+			}
+
+			BasicOCSPResp basicResponse = builder.build(signer(authority.keyPair.getPrivate()), new X509CertificateHolder[] { authority.certificate },
+					now);
+			return new OCSPRespBuilder().build(OCSPRespBuilder.SUCCESSFUL, basicResponse).getEncoded();
+		} catch (IOException | OCSPException | OperatorException e) {
+			throw new DSSException("Unable to generate the OCSP response", e);
+		}
+	}
+
+	/**
+	 * Writes the keystores of the end entities (&lt;alias&gt;.p12), the root certificate (root-ca.cer) and a keystore
+	 * with the root certificate as trusted entry (trust-anchors.p12), so that another process (eg: the web application)
+	 * can use the PKI.
+	 * 
+	 * @param folder
+	 *            the target folder
+	 * @return the written files
+	 */
+	public List<File> writeTo(File folder) throws IOException {
+		if (!folder.mkdirs() && !folder.isDirectory()) {
+			throw new IOException("Unable to create the folder " + folder.getAbsolutePath());
+		}
+		List<File> files = new ArrayList<>();
+		for (String alias : endEntities.keySet()) {
+			files.add(write(new File(folder, alias + ".p12"), getKeyStore(alias)));
+		}
+		files.add(write(new File(folder, ROOT_CA + ".cer"), getEncoded(authorities.get(ROOT_CA).certificate)));
+		files.add(write(new File(folder, "trust-anchors.p12"), getTrustAnchorsKeyStore()));
+		return Collections.unmodifiableList(files);
+	}
+
+	private CertificateStatus getStatus(CertificationAuthority authority, BigInteger serial) {
+		Date revocationDate = authority.revoked.get(serial);
+		if (revocationDate != null) {
+			return new RevokedStatus(revocationDate, CRLReason.keyCompromise);
+		} else if (isFiller(authority, serial)) {
+			return new RevokedStatus(fillerRevocationDate, CRLReason.unspecified);
+		} else if (authority.issued.contains(serial)) {
+			return CertificateStatus.GOOD;
+		}
+		return new UnknownStatus();
+	}
+
+	private boolean isFiller(CertificationAuthority authority, BigInteger serial) {
+		return INTERMEDIATE_CA.equals(authority.name) && serial.compareTo(FILLER_SERIAL_BASE) >= 0
+				&& serial.compareTo(FILLER_SERIAL_BASE.add(BigInteger.valueOf(nbFillerEntries))) < 0;
+	}
+
+	private CertificationAuthority findIssuer(CertificateID certID) throws OCSPException {
+		for (CertificationAuthority authority : authorities.values()) {
+			if (certID.matchesIssuer(authority.certificate, digestCalculatorProvider)) {
+				return authority;
+			}
+		}
+		return null;
+	}
+
+	private byte[] generateCRL(CertificationAuthority authority, int nbFillers) throws OperatorException, IOException {
+		Date now = new Date();
+		X509v2CRLBuilder crlBuilder = new X509v2CRLBuilder(authority.certificate.getSubject(), now);
+		crlBuilder.setNextUpdate(new Date(now.getTime() + TimeUnit.DAYS.toMillis(7)));
+		for (Map.Entry<BigInteger, Date> entry : authority.revoked.entrySet()) {
+			crlBuilder.addCRLEntry(entry.getKey(), entry.getValue(), CRLReason.keyCompromise);
+		}
+		for (int i = 0; i < nbFillers; i++) {
+			crlBuilder.addCRLEntry(FILLER_SERIAL_BASE.add(BigInteger.valueOf(i)), fillerRevocationDate, CRLReason.unspecified);
+		}
+		return crlBuilder.build(signer(authority.keyPair.getPrivate())).getEncoded();
+	}
+
+	private void issueEndEntity(CertificationAuthority issuer, String alias, String subject, KeyUsage keyUsage, ExtendedKeyUsage extendedKeyUsage)
+			throws GeneralSecurityException, IOException, OperatorException {
+		KeyPair keyPair = generateKeyPair();
+		X509v3CertificateBuilder builder = issuedBuilder(issuer, new X500Name(subject), keyPair.getPublic());
+		builder.addExtension(Extension.keyUsage, true, keyUsage);
+		if (extendedKeyUsage != null) {
+			builder.addExtension(Extension.extendedKeyUsage, true, extendedKeyUsage);
+		}
+		X509CertificateHolder certificate = builder.build(signer(issuer.keyPair.getPrivate()));
+		issuer.issued.add(certificate.getSerialNumber());
+		endEntities.put(alias, new EndEntity(keyPair, certificate, issuer));
+	}
+
+	private X509v3CertificateBuilder issuedBuilder(CertificationAuthority issuer, X500Name subject, PublicKey publicKey) throws IOException {
+		X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(issuer.certificate.getSubject(), nextSerialNumber(), notBefore, notAfter,
+				subject, publicKey);
+		builder.addExtension(Extension.authorityInfoAccess, false,
+				new AuthorityInformationAccess(new AccessDescription[] {
+						new AccessDescription(AccessDescription.id_ad_ocsp, uri(OCSP_PATH)),
+						new AccessDescription(AccessDescription.id_ad_caIssuers, uri(CA_CERT_PATH + issuer.name + ".cer")) }));
+		DistributionPointName distributionPointName = new DistributionPointName(new GeneralNames(uri(CRL_PATH + issuer.name + ".crl")));
+		builder.addExtension(Extension.cRLDistributionPoints, false,
+				new CRLDistPoint(new DistributionPoint[] { new DistributionPoint(distributionPointName, null, null) }));
+		return builder;
+	}
+
+	private GeneralName uri(String path) {
+		return new GeneralName(GeneralName.uniformResourceIdentifier, baseUrl + path);
+	}
+
+	private CertificationAuthority getAuthority(String caName) {
+		CertificationAuthority authority = authorities.get(caName);
+		if (authority == null) {
+			throw new DSSException("Unknown CA '" + caName + "'");
+		}
+		return authority;
+	}
+
+	private EndEntity getEndEntity(String alias) {
+		EndEntity endEntity = endEntities.get(alias);
+		if (endEntity == null) {
+			throw new DSSException("Unknown alias '" + alias + "'");
+		}
+		return endEntity;
+	}
+
+	private byte[] getKeyStore(String alias) {
+		EndEntity endEntity = getEndEntity(alias);
+		try {
+			List<Certificate> chain = new ArrayList<>();
+			chain.add(toX509Certificate(endEntity.certificate));
+			chain.add(toX509Certificate(endEntity.issuer.certificate));
+			chain.add(toX509Certificate(authorities.get(ROOT_CA).certificate));
+
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			keyStore.load(null, null);
+			keyStore.setKeyEntry(alias, endEntity.keyPair.getPrivate(), PASSWORD.getPassword(), chain.toArray(new Certificate[chain.size()]));
+			return store(keyStore);
+		} catch (GeneralSecurityException | IOException e) {
+			throw new DSSException("Unable to create the keystore", e);
+		}
+	}
+
+	private byte[] getTrustAnchorsKeyStore() {
+		try {
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			keyStore.load(null, null);
+			keyStore.setCertificateEntry(ROOT_CA, toX509Certificate(authorities.get(ROOT_CA).certificate));
+			return store(keyStore);
+		} catch (GeneralSecurityException | IOException e) {
+			throw new DSSException("Unable to create the keystore", e);
+		}
+	}
+
+	private BigInteger nextSerialNumber() {
+		return BigInteger.valueOf(serialNumber++);
+	}
+
+	private static byte[] store(KeyStore keyStore) throws GeneralSecurityException, IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		keyStore.store(baos, PASSWORD.getPassword());
+		return baos.toByteArray();
+	}
+
+	private static File write(File file, byte[] content) throws IOException {
+		try (OutputStream os = new FileOutputStream(file)) {
+			os.write(content);
+		}
+		return file;
+	}
+
+	private static KeyPair generateKeyPair() throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+
+	private static ContentSigner signer(PrivateKey privateKey) throws OperatorException {
+		return new JcaContentSignerBuilder(SIGNATURE_ALGORITHM).build(privateKey);
+	}
+
+	private static X509Certificate toX509Certificate(X509CertificateHolder holder) throws GeneralSecurityException {
+		return new JcaX509CertificateConverter().getCertificate(holder);
+	}
+
+	private static CertificateToken toCertificateToken(X509CertificateHolder holder) {
+		try {
+			return new CertificateToken(toX509Certificate(holder));
+		} catch (GeneralSecurityException e) {
+			throw new DSSException("Unable to convert the certificate", e);
+		}
+	}
+
+	private static byte[] getEncoded(X509CertificateHolder holder) {
+		try {
+			return holder.getEncoded();
+		} catch (IOException e) {
+			throw new DSSException("Unable to encode the certificate", e);
+		}
+	}
+
+}
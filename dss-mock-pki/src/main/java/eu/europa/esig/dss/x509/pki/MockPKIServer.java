@@ -0,0 +1,350 @@
+package eu.europa.esig.dss.x509.pki;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.cert.ocsp.OCSPRespBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embeddable HTTP server of a {@link MockPKI} : OCSP responder, CRL and CA certificates (AIA) download.
+ * 
+ * The PKI is generated at startup, once the listening port is known, so that the URLs in the certificates are
+ * reachable. The standard DSS data loaders (CommonsDataLoader, OCSPDataLoader) then fetch the revocation data
+ * without any network dependency.
+ * 
+ * A latency distribution can be configured per endpoint, and failures can be injected with a given rate and mode.
+ * 
+ * Configuration with system properties (standalone mode) :
+ * <ul>
+ * <li>pki.port (default 8098)</li>
+ * <li>pki.threads (default 16)</li>
+ * <li>pki.crl.size : number of additional entries in the CRL of the intermediate CA (default 0)</li>
+ * <li>pki.output.folder : folder where the keystores and the trust anchors are written (default ./mock-pki)</li>
+ * <li>pki.ocsp.latency, pki.crl.latency, pki.aia.latency : see {@link LatencyDistribution#parse(String)} (default
+ * none)</li>
+ * <li>pki.failure.rate (between 0 and 1, default 0), pki.failure.mode (see {@link FailureMode}, default
+ * HTTP_ERROR), pki.failure.status (default 503), pki.failure.hang.ms (TIMEOUT mode, default 120000)</li>
+ * </ul>
+ */
+public class MockPKIServer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MockPKIServer.class);
+
+	public static final String OCSP_REQUEST_CONTENT_TYPE = "application/ocsp-request";
+	public static final String OCSP_RESPONSE_CONTENT_TYPE = "application/ocsp-response";
+	public static final String CRL_CONTENT_TYPE = "application/pkix-crl";
+	public static final String CERTIFICATE_CONTENT_TYPE = "application/pkix-cert";
+
+	private int port = 8098;
+
+	private int nbThreads = 16;
+
+	private int crlSize;
+
+	private LatencyDistribution ocspLatency = LatencyDistribution.NONE;
+
+	private LatencyDistribution crlLatency = LatencyDistribution.NONE;
+
+	private LatencyDistribution aiaLatency = LatencyDistribution.NONE;
+
+	private double failureRate;
+
+	private FailureMode failureMode = FailureMode.HTTP_ERROR;
+
+	private int failureStatus = 503;
+
+	private long failureHangTime = TimeUnit.MINUTES.toMillis(2);
+
+	private MockPKI pki;
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+
+	public void setNbThreads(int nbThreads) {
+		this.nbThreads = nbThreads;
+	}
+
+	public void setCrlSize(int crlSize) {
+		this.crlSize = crlSize;
+	}
+
+	public void setOcspLatency(LatencyDistribution ocspLatency) {
+		this.ocspLatency = ocspLatency;
+	}
+
+	public void setCrlLatency(LatencyDistribution crlLatency) {
+		this.crlLatency = crlLatency;
+	}
+
+	public void setAiaLatency(LatencyDistribution aiaLatency) {
+		this.aiaLatency = aiaLatency;
+	}
+
+	public void setFailureRate(double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	public void setFailureMode(FailureMode failureMode) {
+		this.failureMode = failureMode;
+	}
+
+	public void setFailureStatus(int failureStatus) {
+		this.failureStatus = failureStatus;
+	}
+
+	public void setFailureHangTime(long failureHangTime) {
+		this.failureHangTime = failureHangTime;
+	}
+
+	public void start() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		pki = new MockPKI(getBaseUrl(), crlSize);
+
+		executor = Executors.newFixedThreadPool(nbThreads);
+		server.createContext(MockPKI.OCSP_PATH, new OCSPHandler());
+		server.createContext(MockPKI.CRL_PATH, new DownloadHandler(crlLatency, CRL_CONTENT_TYPE, ".crl") {
+
+			@Override
+			byte[] getContent(String name) {
+				return pki.getCRL(name);
+			}
+
+		});
+		server.createContext(MockPKI.CA_CERT_PATH, new DownloadHandler(aiaLatency, CERTIFICATE_CONTENT_TYPE, ".cer") {
+
+			@Override
+			byte[] getContent(String name) {
+				return pki.getEncodedCACertificate(name);
+			}
+
+		});
+		server.setExecutor(executor);
+		server.start();
+		LOG.info("Mock PKI listening on {}", getBaseUrl());
+	}
+
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the listening port (useful when the server is started with the port 0)
+	 * 
+	 * @return the port
+	 */
+	public int getPort() {
+		return server != null ? server.getAddress().getPort() : port;
+	}
+
+	public String getBaseUrl() {
+		return "http://localhost:" + getPort();
+	}
+
+	/**
+	 * @return the PKI served by this server (available once started)
+	 */
+	public MockPKI getPKI() {
+		return pki;
+	}
+
+	private abstract class AbstractHandler implements HttpHandler {
+
+		private final LatencyDistribution latency;
+
+		AbstractHandler(LatencyDistribution latency) {
+			this.latency = latency;
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				byte[] request = readAll(exchange.getRequestBody());
+
+				long delay = latency.nextDelay();
+				if (delay > 0) {
+					TimeUnit.MILLISECONDS.sleep(delay);
+				}
+
+				if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+					injectFailure(exchange);
+					return;
+				}
+
+				process(exchange, request);
+			} catch (Exception e) {
+				LOG.error("Unable to process the request " + exchange.getRequestURI() + " : " + e.getMessage(), e);
+				// the headers may already be sent (e.g. failure while writing the body)
+				if (exchange.getResponseCode() == -1) {
+					sendStatus(exchange, 500);
+				}
+			} finally {
+				exchange.close();
+			}
+		}
+
+		abstract void process(HttpExchange exchange, byte[] request) throws IOException;
+
+		byte[] getTryLaterContent() {
+			return null;
+		}
+
+		private void injectFailure(HttpExchange exchange) throws IOException, InterruptedException {
+			switch (failureMode) {
+			case TIMEOUT:
+				TimeUnit.MILLISECONDS.sleep(failureHangTime);
+				break;
+			case CONNECTION_CLOSED:
+				// closed in handle() without any status line
+				break;
+			case MALFORMED:
+				byte[] garbage = new byte[64];
+				ThreadLocalRandom.current().nextBytes(garbage);
+				send(exchange, "application/octet-stream", garbage);
+				break;
+			case TRY_LATER:
+				byte[] tryLater = getTryLaterContent();
+				if (tryLater != null) {
+					send(exchange, OCSP_RESPONSE_CONTENT_TYPE, tryLater);
+				} else {
+					sendStatus(exchange, failureStatus);
+				}
+				break;
+			case HTTP_ERROR:
+			default:
+				sendStatus(exchange, failureStatus);
+				break;
+			}
+		}
+
+	}
+
+	private class OCSPHandler extends AbstractHandler {
+
+		OCSPHandler() {
+			super(ocspLatency);
+		}
+
+		@Override
+		void process(HttpExchange exchange, byte[] request) throws IOException {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				sendStatus(exchange, 405);
+				return;
+			}
+			String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			if (contentType == null || !contentType.startsWith(OCSP_REQUEST_CONTENT_TYPE)) {
+				sendStatus(exchange, 415);
+				return;
+			}
+			send(exchange, OCSP_RESPONSE_CONTENT_TYPE, pki.getOCSPResponse(request));
+		}
+
+		@Override
+		byte[] getTryLaterContent() {
+			try {
+				return new OCSPRespBuilder().build(OCSPRespBuilder.TRY_LATER, null).getEncoded();
+			} catch (Exception e) {
+				return null;
+			}
+		}
+
+	}
+
+	private abstract class DownloadHandler extends AbstractHandler {
+
+		private final String contentType;
+
+		private final String extension;
+
+		DownloadHandler(LatencyDistribution latency, String contentType, String extension) {
+			super(latency);
+			this.contentType = contentType;
+			this.extension = extension;
+		}
+
+		@Override
+		void process(HttpExchange exchange, byte[] request) throws IOException {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				sendStatus(exchange, 405);
+				return;
+			}
+			String path = exchange.getRequestURI().getPath();
+			String name = path.substring(path.lastIndexOf('/') + 1);
+			byte[] content = name.endsWith(extension) ? getContent(name.substring(0, name.length() - extension.length())) : null;
+			if (content == null) {
+				sendStatus(exchange, 404);
+				return;
+			}
+			send(exchange, contentType, content);
+		}
+
+		abstract byte[] getContent(String name);
+
+	}
+
+	private static void send(HttpExchange exchange, String contentType, byte[] content) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(200, content.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(content);
+		}
+	}
+
+	private static void sendStatus(HttpExchange exchange, int status) throws IOException {
+		exchange.sendResponseHeaders(status, -1);
+	}
+
+	private static byte[] readAll(InputStream is) throws IOException {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = is.read(buffer)) != -1) {
+			baos.write(buffer, 0, read);
+		}
+		return baos.toByteArray();
+	}
+
+	public static void main(String[] args) throws IOException {
+		MockPKIServer server = new MockPKIServer();
+		server.setPort(Integer.getInteger("pki.port", 8098));
+		server.setNbThreads(Integer.getInteger("pki.threads", 16));
+		server.setCrlSize(Integer.getInteger("pki.crl.size", 0));
+		server.setOcspLatency(LatencyDistribution.parse(System.getProperty("pki.ocsp.latency")));
+		server.setCrlLatency(LatencyDistribution.parse(System.getProperty("pki.crl.latency")));
+		server.setAiaLatency(LatencyDistribution.parse(System.getProperty("pki.aia.latency")));
+		server.setFailureRate(Double.parseDouble(System.getProperty("pki.failure.rate", "0")));
+		server.setFailureMode(FailureMode.valueOf(System.getProperty("pki.failure.mode", FailureMode.HTTP_ERROR.name())));
+		server.setFailureStatus(Integer.getInteger("pki.failure.status", 503));
+		server.setFailureHangTime(Long.getLong("pki.failure.hang.ms", TimeUnit.MINUTES.toMillis(2)));
+
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+		server.start();
+
+		File folder = new File(System.getProperty("pki.output.folder", "mock-pki"));
+		for (File file : server.getPKI().writeTo(folder)) {
+			LOG.info("Written {}", file.getAbsolutePath());
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package eu.europa.esig.dss.x509.pki;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.bouncycastle.cert.X509CRLHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.model.x509.CertificateToken;
+import eu.europa.esig.dss.service.crl.OnlineCRLSource;
+import eu.europa.esig.dss.service.http.commons.CommonsDataLoader;
+import eu.europa.esig.dss.service.http.commons.OCSPDataLoader;
+import eu.europa.esig.dss.service.ocsp.OnlineOCSPSource;
+import eu.europa.esig.dss.spi.x509.revocation.crl.CRLToken;
+import eu.europa.esig.dss.spi.x509.revocation.ocsp.OCSPToken;
+
+public class MockPKIServerTest {
+
+	private MockPKIServer server;
+
+	@BeforeEach
+	public void init() {
+		server = new MockPKIServer();
+		server.setPort(0);
+		server.setCrlSize(1000);
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop();
+	}
+
+	@Test
+	public void testOCSP() throws Exception {
+		server.setOcspLatency(LatencyDistribution.uniform(0, 5));
+		server.start();
+		MockPKI pki = server.getPKI();
+		CertificateToken intermediate = pki.getCACertificate(MockPKI.INTERMEDIATE_CA);
+
+		OnlineOCSPSource ocspSource = new OnlineOCSPSource();
+		ocspSource.setDataLoader(new OCSPDataLoader());
+
+		OCSPToken good = ocspSource.getRevocationToken(pki.getCertificate(MockPKI.SIGNER_ALIAS), intermediate);
+		assertNotNull(good);
+		assertNull(good.getRevocationDate());
+
+		OCSPToken revoked = ocspSource.getRevocationToken(pki.getCertificate(MockPKI.REVOKED_SIGNER_ALIAS), intermediate);
+		assertNotNull(revoked);
+		assertNotNull(revoked.getRevocationDate());
+
+		OCSPToken intermediateStatus = ocspSource.getRevocationToken(intermediate, pki.getRootCertificate());
+		assertNotNull(intermediateStatus);
+		assertNull(intermediateStatus.getRevocationDate());
+	}
+
+	@Test
+	public void testCRL() throws Exception {
+		server.start();
+		MockPKI pki = server.getPKI();
+		CertificateToken intermediate = pki.getCACertificate(MockPKI.INTERMEDIATE_CA);
+
+		OnlineCRLSource crlSource = new OnlineCRLSource();
+		crlSource.setDataLoader(new CommonsDataLoader());
+
+		CRLToken good = crlSource.getRevocationToken(pki.getCertificate(MockPKI.SIGNER_ALIAS), intermediate);
+		assertNotNull(good);
+		assertNull(good.getRevocationDate());
+
+		CRLToken revoked = crlSource.getRevocationToken(pki.getCertificate(MockPKI.REVOKED_SIGNER_ALIAS), intermediate);
+		assertNotNull(revoked);
+		assertNotNull(revoked.getRevocationDate());
+
+		X509CRLHolder crl = new X509CRLHolder(pki.getCRL(MockPKI.INTERMEDIATE_CA));
+		assertEquals(1001, crl.getRevokedCertificates().size());
+	}
+
+	@Test
+	public void testAIA() throws Exception {
+		server.start();
+		MockPKI pki = server.getPKI();
+
+		byte[] rootCertificate = new CommonsDataLoader().get(server.getBaseUrl() + MockPKI.CA_CERT_PATH + MockPKI.ROOT_CA + ".cer");
+		assertArrayEquals(pki.getRootCertificate().getEncoded(), rootCertificate);
+	}
+
+	@Test
+	public void testFailureInjection() throws Exception {
+		server.setFailureRate(1);
+		server.setFailureMode(FailureMode.TRY_LATER);
+		server.start();
+		MockPKI pki = server.getPKI();
+
+		OnlineOCSPSource ocspSource = new OnlineOCSPSource();
+		ocspSource.setDataLoader(new OCSPDataLoader());
+		assertNull(ocspSource.getRevocationToken(pki.getCertificate(MockPKI.SIGNER_ALIAS), pki.getCACertificate(MockPKI.INTERMEDIATE_CA)));
+
+		OnlineCRLSource crlSource = new OnlineCRLSource();
+		crlSource.setDataLoader(new CommonsDataLoader());
+		assertNull(crlSource.getRevocationToken(pki.getCertificate(MockPKI.SIGNER_ALIAS), pki.getCACertificate(MockPKI.INTERMEDIATE_CA)));
+	}
+
+	@Test
+	public void testLatencyDistribution() {
+		assertEquals(LatencyDistribution.NONE, LatencyDistribution.parse("none"));
+		assertEquals(20, LatencyDistribution.parse("fixed:20").nextDelay());
+		for (int i = 0; i < 100; i++) {
+			long delay = LatencyDistribution.parse("uniform:10-50").nextDelay();
+			assertTrue(delay >= 10 && delay <= 50);
+			assertTrue(LatencyDistribution.parse("lognormal:20,0.5").nextDelay() >= 0);
+			assertTrue(LatencyDistribution.parse("exponential:20").nextDelay() >= 0);
+		}
+	}
+
+}
@@ -0,0 +1,233 @@
+package eu.europa.esig.dss.x509.tsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.KeyStore.PasswordProtection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+
+/**
+ * Standalone RFC 3161 HTTP server on top of {@link MockTSPSource} (application/timestamp-query /
+ * application/timestamp-reply).
+ * 
+ * An artificial latency (fixed part + random jitter) and a failure rate can be configured to test the network path of
+ * the timestamp clients.
+ * 
+ * Configuration with system properties :
+ * <ul>
+ * <li>tsa.port (default 8099)</li>
+ * <li>tsa.path (default /tsa)</li>
+ * <li>tsa.threads (default 16)</li>
+ * <li>tsa.keystore.filename (required), tsa.keystore.type (default PKCS12), tsa.keystore.password, tsa.alias</li>
+ * <li>tsa.latency.ms (default 0), tsa.latency.jitter.ms (default 0)</li>
+ * <li>tsa.failure.rate (between 0 and 1, default 0), tsa.failure.status (HTTP status of the injected failures, default
+ * 503)</li>
+ * </ul>
+ */
+public class MockTSAServer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MockTSAServer.class);
+
+	public static final String TIMESTAMP_QUERY_CONTENT_TYPE = "application/timestamp-query";
+	public static final String TIMESTAMP_REPLY_CONTENT_TYPE = "application/timestamp-reply";
+
+	private final MockTSPSource tspSource;
+
+	private int port = 8099;
+
+	private String path = "/tsa";
+
+	private int nbThreads = 16;
+
+	private long latency;
+
+	private long latencyJitter;
+
+	private double failureRate;
+
+	private int failureStatus = 503;
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	public MockTSAServer(MockTSPSource tspSource) {
+		this.tspSource = tspSource;
+	}
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public void setNbThreads(int nbThreads) {
+		this.nbThreads = nbThreads;
+	}
+
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	public void setLatencyJitter(long latencyJitter) {
+		this.latencyJitter = latencyJitter;
+	}
+
+	public void setFailureRate(double failureRate) {
+		this.failureRate = failureRate;
+	}
+
+	public void setFailureStatus(int failureStatus) {
+		this.failureStatus = failureStatus;
+	}
+
+	public void start() throws IOException {
+		executor = Executors.newFixedThreadPool(nbThreads);
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext(path, new TimestampHandler());
+		server.setExecutor(executor);
+		server.start();
+		LOG.info("Mock TSA listening on http://localhost:{}{}", getPort(), path);
+	}
+
+	public void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns the listening port (useful when the server is started with the port 0)
+	 * 
+	 * @return the port
+	 */
+	public int getPort() {
+		return server != null ? server.getAddress().getPort() : port;
+	}
+
+	private class TimestampHandler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!"POST".equals(exchange.getRequestMethod())) {
+					sendStatus(exchange, 405);
+					return;
+				}
+				String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+				if (contentType == null || !contentType.startsWith(TIMESTAMP_QUERY_CONTENT_TYPE)) {
+					sendStatus(exchange, 415);
+					return;
+				}
+
+				byte[] query = readAll(exchange.getRequestBody());
+
+				simulateLatency();
+				if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+					sendStatus(exchange, failureStatus);
+					return;
+				}
+
+				TimeStampRequest request;
+				try {
+					request = new TimeStampRequest(query);
+				} catch (IOException e) {
+					LOG.debug("Invalid timestamp query : {}", e.getMessage());
+					sendStatus(exchange, 400);
+					return;
+				}
+
+				TimeStampResponse response = tspSource.getTimeStampResponse(request);
+				byte[] reply = response.getEncoded();
+
+				exchange.getResponseHeaders().set("Content-Type", TIMESTAMP_REPLY_CONTENT_TYPE);
+				exchange.sendResponseHeaders(200, reply.length);
+				try (OutputStream os = exchange.getResponseBody()) {
+					os.write(reply);
+				}
+			} catch (Exception e) {
+				LOG.error("Unable to process the timestamp query : " + e.getMessage(), e);
+				// the headers may already be sent (e.g. failure while writing the body)
+				if (exchange.getResponseCode() == -1) {
+					sendStatus(exchange, 500);
+				}
+			} finally {
+				exchange.close();
+			}
+		}
+
+		private void simulateLatency() throws InterruptedException {
+			long delay = latency;
+			if (latencyJitter > 0) {
+				delay += ThreadLocalRandom.current().nextLong(latencyJitter + 1);
+			}
+			if (delay > 0) {
+				TimeUnit.MILLISECONDS.sleep(delay);
+			}
+		}
+
+		private void sendStatus(HttpExchange exchange, int status) throws IOException {
+			exchange.sendResponseHeaders(status, -1);
+		}
+
+		private byte[] readAll(InputStream is) throws IOException {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = is.read(buffer)) != -1) {
+				baos.write(buffer, 0, read);
+			}
+			return baos.toByteArray();
+		}
+
+	}
+
+	public static void main(String[] args) throws IOException {
+		String keystoreFilename = System.getProperty("tsa.keystore.filename");
+		if (keystoreFilename == null) {
+			LOG.error("The system property tsa.keystore.filename is required");
+			System.exit(1);
+		}
+
+		KeyStoreSignatureTokenConnection token = new KeyStoreSignatureTokenConnection(new File(keystoreFilename),
+				System.getProperty("tsa.keystore.type", "PKCS12"),
+				new PasswordProtection(System.getProperty("tsa.keystore.password", "ks-password").toCharArray()));
+
+		MockTSPSource tspSource = new MockTSPSource();
+		tspSource.setToken(token);
+		tspSource.setAlias(System.getProperty("tsa.alias", "self-signed-tsa"));
+
+		MockTSAServer server = new MockTSAServer(tspSource);
+		server.setPort(Integer.getInteger("tsa.port", 8099));
+		server.setPath(System.getProperty("tsa.path", "/tsa"));
+		server.setNbThreads(Integer.getInteger("tsa.threads", 16));
+		server.setLatency(Long.getLong("tsa.latency.ms", 0));
+		server.setLatencyJitter(Long.getLong("tsa.latency.jitter.ms", 0));
+		server.setFailureRate(Double.parseDouble(System.getProperty("tsa.failure.rate", "0")));
+		server.setFailureStatus(Integer.getInteger("tsa.failure.status", 503));
+
+		Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+		server.start();
+	}
+
+}
@@ -2,14 +2,21 @@ package eu.europa.esig.dss.x509.tsp;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.security.PrivateKey;
 import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
@@ -33,6 +40,7 @@ import org.bouncycastle.tsp.TimeStampResponse;
 import org.bouncycastle.tsp.TimeStampResponseGenerator;
 import org.bouncycastle.tsp.TimeStampToken;
 import org.bouncycastle.tsp.TimeStampTokenGenerator;
+import org.bouncycastle.util.Store;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,36 +53,128 @@ import eu.europa.esig.dss.spi.x509.tsp.TSPSource;
 import eu.europa.esig.dss.token.KSPrivateKeyEntry;
 import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
 
+/**
+ * Timestamp source which issues timestamps with a key from a keystore.
+ * 
+ * The key, the certificates and the signature algorithm names are resolved once. The BouncyCastle generators are not
+ * thread-safe : they are built per digest algorithm and reused from a pool (one instance per concurrent call).
+ */
 public class MockTSPSource implements TSPSource {
 
 	private static final long serialVersionUID = 8863748492343274842L;
 
-	private final Logger LOG = LoggerFactory.getLogger(MockTSPSource.class);
+	private static final Logger LOG = LoggerFactory.getLogger(MockTSPSource.class);
 
-	private static SecureRandom random = new SecureRandom();
+	private static final ASN1ObjectIdentifier TSA_POLICY = new ASN1ObjectIdentifier("1.2.3.4");
+
+	private static final Set<ASN1ObjectIdentifier> ACCEPTED_ALGORITHMS;
+
+	static {
+		Set<ASN1ObjectIdentifier> accepted = new HashSet<ASN1ObjectIdentifier>();
+		accepted.add(TSPAlgorithms.SHA1);
+		accepted.add(TSPAlgorithms.SHA256);
+		accepted.add(TSPAlgorithms.SHA512);
+		ACCEPTED_ALGORITHMS = Collections.unmodifiableSet(accepted);
+	}
 
 	private KeyStoreSignatureTokenConnection token;
 
 	private String alias;
 
+	private transient volatile SignerMaterial signerMaterial;
+
 	public void setToken(KeyStoreSignatureTokenConnection token) {
 		this.token = token;
+		this.signerMaterial = null;
 	}
 
 	public void setAlias(String alias) {
 		this.alias = alias;
+		this.signerMaterial = null;
 	}
 
 	@Override
 	public TimestampBinary getTimeStampResponse(DigestAlgorithm digestAlgorithm, byte[] digest) {
-		if (token == null) {
-			throw new DSSException("KeyStore token is not defined!");
+		TimeStampRequestGenerator requestGenerator = new TimeStampRequestGenerator();
+		requestGenerator.setCertReq(true);
+		TimeStampRequest request = requestGenerator.generate(new ASN1ObjectIdentifier(digestAlgorithm.getOid()), digest);
+
+		TimeStampToken timeStampToken = getTimeStampResponse(request).getTimeStampToken();
+		if (timeStampToken == null) {
+			throw new DSSException("Unable to generate a timestamp from the Mock");
 		}
+		return new TimestampBinary(DSSASN1Utils.getDEREncoded(timeStampToken));
+	}
+
+	/**
+	 * Generates the RFC 3161 response for the given request (the nonce and the certReq flag are honoured). An
+	 * unsupported digest algorithm results in a rejection response.
+	 * 
+	 * @param request
+	 *            the timestamp request
+	 * @return the timestamp response
+	 */
+	public TimeStampResponse getTimeStampResponse(TimeStampRequest request) {
+		SignerMaterial material = getSignerMaterial();
+		DigestAlgorithm digestAlgorithm = getDigestAlgorithm(request);
+		Queue<TimeStampResponseGenerator> pool = material.getPool(digestAlgorithm);
+		TimeStampResponseGenerator responseGenerator = pool.poll();
 		try {
-			TimeStampRequestGenerator requestGenerator = new TimeStampRequestGenerator();
-			requestGenerator.setCertReq(true);
-			TimeStampRequest request = requestGenerator.generate(new ASN1ObjectIdentifier(digestAlgorithm.getOid()), digest);
+			if (responseGenerator == null) {
+				responseGenerator = material.createResponseGenerator(digestAlgorithm);
+			}
+			TimeStampResponse response = responseGenerator.generate(request, material.nextSerialNumber(), new Date());
+			pool.offer(responseGenerator);
+			return response;
+
+		} catch (TSPException | OperatorException e) {
+			throw new DSSException("Unable to generate a timestamp from the Mock", e);
+		}
+	}
+
+	private DigestAlgorithm getDigestAlgorithm(TimeStampRequest request) {
+		String oid = request.getMessageImprintAlgOID().getId();
+		for (DigestAlgorithm digestAlgorithm : DigestAlgorithm.values()) {
+			if (oid.equals(digestAlgorithm.getOid())) {
+				return digestAlgorithm;
+			}
+		}
+		// the response generator rejects the request (not in the accepted algorithms)
+		return DigestAlgorithm.SHA256;
+	}
 
+	private SignerMaterial getSignerMaterial() {
+		SignerMaterial material = signerMaterial;
+		if (material == null) {
+			synchronized (this) {
+				material = signerMaterial;
+				if (material == null) {
+					material = new SignerMaterial(token, alias);
+					signerMaterial = material;
+				}
+			}
+		}
+		return material;
+	}
+
+	/**
+	 * Immutable state resolved once from the keystore, with the pools of generators per digest algorithm
+	 */
+	private static final class SignerMaterial {
+
+		private final PrivateKey privateKey;
+		private final X509CertificateHolder certificate;
+		private final Store<X509CertificateHolder> certificateStore;
+		private final Map<DigestAlgorithm, Queue<TimeStampResponseGenerator>> generators = new ConcurrentHashMap<DigestAlgorithm, Queue<TimeStampResponseGenerator>>();
+
+		/* Serial numbers : random high part chosen at the initialization + lock-free counter */
+		private final BigInteger serialBase;
+		private final AtomicLong serialCounter = new AtomicLong();
+
+		SignerMaterial(KeyStoreSignatureTokenConnection token, String alias) {
+			if (token == null) {
+				throw new DSSException("KeyStore token is not defined!");
+			}
 			KSPrivateKeyEntry ksPK = (KSPrivateKeyEntry) token.getKey(alias);
 			if (ksPK == null) {
 				throw new DSSException("Unable to initialize the MockTSPSource");
@@ -82,42 +182,47 @@ public class MockTSPSource implements TSPSource {
 
 			LOG.info("Timestamping with {}", ksPK.getCertificate());
 
-			X509CertificateHolder certificate = new X509CertificateHolder(ksPK.getCertificate().getEncoded());
-			List<X509Certificate> chain = new ArrayList<X509Certificate>();
-			CertificateToken[] certificateChain = ksPK.getCertificateChain();
-			for (CertificateToken token : certificateChain) {
-				chain.add(token.getCertificate());
+			try {
+				privateKey = ksPK.getPrivateKey();
+				certificate = new X509CertificateHolder(ksPK.getCertificate().getEncoded());
+				List<X509Certificate> chain = new ArrayList<X509Certificate>();
+				for (CertificateToken certificateToken : ksPK.getCertificateChain()) {
+					chain.add(certificateToken.getCertificate());
+				}
+				certificateStore = new JcaCertStore(chain);
+			} catch (IOException | CertificateException e) {
+				throw new DSSException("Unable to initialize the MockTSPSource", e);
 			}
 
-			Set<ASN1ObjectIdentifier> accepted = new HashSet<ASN1ObjectIdentifier>();
-			accepted.add(TSPAlgorithms.SHA1);
-			accepted.add(TSPAlgorithms.SHA256);
-			accepted.add(TSPAlgorithms.SHA512);
+			serialBase = new BigInteger(64, new SecureRandom()).shiftLeft(64);
+		}
+
+		Queue<TimeStampResponseGenerator> getPool(DigestAlgorithm digestAlgorithm) {
+			return generators.computeIfAbsent(digestAlgorithm, k -> new ConcurrentLinkedQueue<TimeStampResponseGenerator>());
+		}
 
+		BigInteger nextSerialNumber() {
+			return serialBase.add(BigInteger.valueOf(serialCounter.incrementAndGet()));
+		}
+
+		TimeStampResponseGenerator createResponseGenerator(DigestAlgorithm digestAlgorithm) throws OperatorException, TSPException {
 			AlgorithmIdentifier digestAlgorithmIdentifier = new AlgorithmIdentifier(new ASN1ObjectIdentifier(digestAlgorithm.getOid()));
 			AlgorithmIdentifier encryptionAlg = new AlgorithmIdentifier(PKCSObjectIdentifiers.rsaEncryption);
 
 			DefaultCMSSignatureAlgorithmNameGenerator sigAlgoGenerator = new DefaultCMSSignatureAlgorithmNameGenerator();
 			String sigAlgoName = sigAlgoGenerator.getSignatureName(digestAlgorithmIdentifier, encryptionAlg);
 
-			ContentSigner signer = new JcaContentSignerBuilder(sigAlgoName).build(ksPK.getPrivateKey());
+			ContentSigner signer = new JcaContentSignerBuilder(sigAlgoName).build(privateKey);
 
 			SignerInfoGenerator infoGenerator = new SignerInfoGeneratorBuilder(new BcDigestCalculatorProvider()).build(signer, certificate);
 			DigestCalculator digestCalculator = new JcaDigestCalculatorProviderBuilder().build().get(digestAlgorithmIdentifier);
 
-			TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(infoGenerator, digestCalculator, new ASN1ObjectIdentifier("1.2.3.4"));
-			tokenGenerator.addCertificates(new JcaCertStore(chain));
+			TimeStampTokenGenerator tokenGenerator = new TimeStampTokenGenerator(infoGenerator, digestCalculator, TSA_POLICY);
+			tokenGenerator.addCertificates(certificateStore);
 
-			TimeStampResponseGenerator responseGenerator = new TimeStampResponseGenerator(tokenGenerator, accepted);
-			TimeStampResponse response = responseGenerator.generate(request, new BigInteger(128, random), new Date());
-			TimeStampToken timeStampToken = response.getTimeStampToken();
-			
-			return new TimestampBinary(DSSASN1Utils.getDEREncoded(timeStampToken));
-			
-		} catch (IOException | TSPException | OperatorException | CertificateException e) {
-			throw new DSSException("Unable to generate a timestamp from the Mock", e);
-			
+			return new TimeStampResponseGenerator(tokenGenerator, ACCEPTED_ALGORITHMS);
 		}
+
 	}
 
 }
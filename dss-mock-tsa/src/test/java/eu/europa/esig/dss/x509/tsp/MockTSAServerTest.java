@@ -0,0 +1,102 @@
+package eu.europa.esig.dss.x509.tsp;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.KeyStore.PasswordProtection;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.cmp.PKIStatus;
+import org.bouncycastle.tsp.TimeStampRequest;
+import org.bouncycastle.tsp.TimeStampRequestGenerator;
+import org.bouncycastle.tsp.TimeStampResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import eu.europa.esig.dss.enumerations.DigestAlgorithm;
+import eu.europa.esig.dss.spi.DSSUtils;
+import eu.europa.esig.dss.token.KeyStoreSignatureTokenConnection;
+
+public class MockTSAServerTest {
+
+	private MockTSAServer server;
+
+	@BeforeEach
+	public void init() throws Exception {
+		MockTSPSource mock = new MockTSPSource();
+		mock.setToken(new KeyStoreSignatureTokenConnection(new File("src/test/resources/self-signed-tsa.p12"), "PKCS12",
+				new PasswordProtection("ks-password".toCharArray())));
+		mock.setAlias("self-signed-tsa");
+
+		server = new MockTSAServer(mock);
+		server.setPort(0);
+	}
+
+	@AfterEach
+	public void stop() {
+		server.stop();
+	}
+
+	@Test
+	public void test() throws Exception {
+		server.start();
+
+		byte[] digest = DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes());
+		TimeStampRequestGenerator requestGenerator = new TimeStampRequestGenerator();
+		requestGenerator.setCertReq(true);
+		TimeStampRequest request = requestGenerator.generate(new ASN1ObjectIdentifier(DigestAlgorithm.SHA256.getOid()), digest, BigInteger.TEN);
+
+		HttpURLConnection connection = post(request.getEncoded());
+		assertEquals(200, connection.getResponseCode());
+		assertEquals(MockTSAServer.TIMESTAMP_REPLY_CONTENT_TYPE, connection.getContentType());
+
+		TimeStampResponse response = new TimeStampResponse(readAll(connection.getInputStream()));
+		response.validate(request);
+		assertEquals(PKIStatus.GRANTED, response.getStatus());
+		assertNotNull(response.getTimeStampToken());
+		assertArrayEquals(digest, response.getTimeStampToken().getTimeStampInfo().getMessageImprintDigest());
+	}
+
+	@Test
+	public void testFailureInjection() throws Exception {
+		server.setFailureRate(1);
+		server.setFailureStatus(503);
+		server.start();
+
+		TimeStampRequest request = new TimeStampRequestGenerator().generate(new ASN1ObjectIdentifier(DigestAlgorithm.SHA256.getOid()),
+				DSSUtils.digest(DigestAlgorithm.SHA256, "Hello".getBytes()));
+		assertEquals(503, post(request.getEncoded()).getResponseCode());
+	}
+
+	private HttpURLConnection post(byte[] query) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + "/tsa").openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", MockTSAServer.TIMESTAMP_QUERY_CONTENT_TYPE);
+		try (OutputStream os = connection.getOutputStream()) {
+			os.write(query);
+		}
+		return connection;
+	}
+
+	private byte[] readAll(InputStream is) throws Exception {
+		try (InputStream in = is; ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				baos.write(buffer, 0, read);
+			}
+			return baos.toByteArray();
+		}
+	}
+
+}
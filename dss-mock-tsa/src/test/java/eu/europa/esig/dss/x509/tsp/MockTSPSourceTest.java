@@ -2,12 +2,21 @@ package eu.europa.esig.dss.x509.tsp;
 
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.io.File;
+import java.math.BigInteger;
 import java.security.KeyStore.PasswordProtection;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.bouncycastle.cms.CMSSignedData;
 import org.bouncycastle.tsp.TimeStampToken;
@@ -41,4 +50,33 @@ public class MockTSPSourceTest {
 		assertArrayEquals(digest, timeStampToken.getTimeStampInfo().getMessageImprintDigest());
 	}
 
+	@Test
+	public void testConcurrentCalls() throws Exception {
+		MockTSPSource mock = new MockTSPSource();
+
+		KeyStoreSignatureTokenConnection token = new KeyStoreSignatureTokenConnection(new File("src/test/resources/self-signed-tsa.p12"), "PKCS12",
+				new PasswordProtection("ks-password".toCharArray()));
+		mock.setToken(token);
+		mock.setAlias("self-signed-tsa");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<TimeStampToken>> futures = new ArrayList<Future<TimeStampToken>>();
+		for (int i = 0; i < 100; i++) {
+			final DigestAlgorithm digestAlgorithm = i % 2 == 0 ? DigestAlgorithm.SHA256 : DigestAlgorithm.SHA512;
+			final byte[] digest = DSSUtils.digest(digestAlgorithm, ("Hello " + i).getBytes());
+			futures.add(executor.submit(() -> {
+				TimeStampToken timeStampToken = new TimeStampToken(new CMSSignedData(mock.getTimeStampResponse(digestAlgorithm, digest).getBytes()));
+				assertArrayEquals(digest, timeStampToken.getTimeStampInfo().getMessageImprintDigest());
+				return timeStampToken;
+			}));
+		}
+
+		Set<BigInteger> serialNumbers = new HashSet<BigInteger>();
+		for (Future<TimeStampToken> future : futures) {
+			serialNumbers.add(future.get().getTimeStampInfo().getSerialNumber());
+		}
+		assertEquals(100, serialNumbers.size());
+		executor.shutdown();
+	}
+
 }